@@ -1,16 +1,35 @@
 package by.iyunski.library.api.controllers;
 
+import by.iyunski.library.api.support.CursorPageSupport;
+import by.iyunski.library.api.support.ETagSupport;
+import by.iyunski.library.api.support.NdjsonSupport;
 import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.SuggestService;
 import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.AuthorFilterDto;
 import by.iyunski.library.service.dtos.AuthorRequestDto;
+import by.iyunski.library.service.dtos.AuthorWithBooksDto;
 import by.iyunski.library.service.dtos.BookDto;
 import by.iyunski.library.service.dtos.BookRequestDto;
+import by.iyunski.library.service.dtos.BulkResultDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.util.BookVersions;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,10 +40,21 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Tag(name = "Author Controller",
         description = "Library API for working with Authors and their books")
@@ -35,23 +65,180 @@ import java.util.List;
 @Validated
 public class AuthorApiController {
 
+    public static final String NEXT_CURSOR_HEADER = CursorPageSupport.NEXT_CURSOR_HEADER;
+    public static final String DELETED_BOOKS_HEADER = "X-Deleted-Books";
+    public static final String DEFAULT_PAGE_SIZE = CursorPageSupport.DEFAULT_PAGE_SIZE;
+    public static final int MAX_PAGE_SIZE = CursorPageSupport.MAX_PAGE_SIZE;
+    public static final int MAX_IDS = 1000;
+    public static final int MAX_BULK_SIZE = 1000;
+    public static final String INCLUDE_BOOKS = "include=books";
+    public static final String FIELDS = "fields";
+    public static final String NO_FIELDS = "!" + FIELDS;
+    public static final String DEFAULT_SUGGEST_LIMIT = "10";
+    public static final int MAX_SUGGEST_LIMIT = 50;
+
     private final AuthorService authorService;
+    private final SuggestService suggestService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     @Operation(
             summary = "Get all authors",
-            description = "Get list of all authors",
+            description = "Get page of authors ordered by ID, or of authors filtered by country and date of birth "
+                    + "ordered by date of birth and ID. Only index-backed filters are accepted, sort=id cannot be combined "
+                    + "with filters, and a filter not answered in time is rejected. Cursor of the next page is returned in "
+                    + NEXT_CURSOR_HEADER + " header and is absent on the last page. Authors with IDs listed in ids "
+                    + "are fetched at once in order of the IDs, skipping missing ones, ids cannot be combined with "
+                    + "filters, sort or cursor",
             responses = {@ApiResponse(
                     responseCode = "200",
                     description = "The request has succeeded.",
                     useReturnTypeSchema = true
             ), @ApiResponse(
                     responseCode = "204",
-                    description = "There is no Authors in Library yet."
+                    description = "There is no Authors in Library yet, or no Authors match the filter or the IDs."
+            ), @ApiResponse(
+                    responseCode = "400",
+                    description = "The filter cannot be served by an index, the cursor is malformed, "
+                            + "or IDs are combined with other parameters."
+            ), @ApiResponse(
+                    responseCode = "503",
+                    description = "The filter is not selective enough to be answered in time."
             )})
     @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<AuthorDto>> getAllAuthors() {
-        List<AuthorDto> authorDtoList = authorService.getAllAuthors();
-        log.debug("Getting {} authors from database ", authorDtoList.size());
+    public ResponseEntity<List<AuthorDto>> getAllAuthors(@RequestParam(name = "ids", required = false)
+                                                         @Size(min = 1, max = MAX_IDS) List<Long> ids,
+                                                         @RequestParam(name = "country", required = false)
+                                                         @Size(max = 50) String country,
+                                                         @RequestParam(name = "bornAfter", required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornAfter,
+                                                         @RequestParam(name = "bornBefore", required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornBefore,
+                                                         @RequestParam(name = "sort", required = false)
+                                                         @Pattern(regexp = AuthorFilterDto.SORT_PATTERN) String sort,
+                                                         @RequestParam(name = "after", required = false) String after,
+                                                         @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE)
+                                                         @Min(1) @Max(MAX_PAGE_SIZE) Integer limit) {
+        return CursorPageSupport.toResponse(findAuthors(ids, country, bornAfter, bornBefore, sort, after, limit));
+    }
+
+    @Operation(
+            summary = "Get all authors with their books",
+            description = "The same as getting all authors, but every Author has a list of all its books. "
+                    + "Books of all Authors of the page are loaded with one query",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "There is no Authors in Library yet, or no Authors match the filter or the IDs."
+            ), @ApiResponse(
+                    responseCode = "400",
+                    description = "The filter cannot be served by an index, the cursor is malformed, "
+                            + "or IDs are combined with other parameters."
+            ), @ApiResponse(
+                    responseCode = "503",
+                    description = "The filter is not selective enough to be answered in time."
+            )})
+    @GetMapping(params = {INCLUDE_BOOKS, NO_FIELDS},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AuthorWithBooksDto>> getAllAuthorsWithBooks(@RequestParam(name = "ids", required = false)
+                                                                           @Size(min = 1, max = MAX_IDS) List<Long> ids,
+                                                                           @RequestParam(name = "country", required = false)
+                                                                           @Size(max = 50) String country,
+                                                                           @RequestParam(name = "bornAfter", required = false)
+                                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornAfter,
+                                                                           @RequestParam(name = "bornBefore", required = false)
+                                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornBefore,
+                                                                           @RequestParam(name = "sort", required = false)
+                                                                           @Pattern(regexp = AuthorFilterDto.SORT_PATTERN) String sort,
+                                                                           @RequestParam(name = "after", required = false) String after,
+                                                                           @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE)
+                                                                           @Min(1) @Max(MAX_PAGE_SIZE) Integer limit) {
+        CursorPageDto<AuthorDto> page = findAuthors(ids, country, bornAfter, bornBefore, sort, after, limit);
+        List<AuthorWithBooksDto> authors = authorService.includeBooks(page.content());
+        return CursorPageSupport.toResponse(new CursorPageDto<>(authors, page.nextCursor()));
+    }
+
+    @Operation(
+            summary = "Get fields of all authors",
+            description = "The same as getting all authors, but Authors have only the fields listed in fields, "
+                    + "the other columns are not even selected from the database. Fields cannot be combined with ids "
+                    + "or include, which return whole Authors, and are not accepted by endpoints of a single Author",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "There is no Authors in Library yet, or no Authors match the filter."
+            ), @ApiResponse(
+                    responseCode = "400",
+                    description = "A field is unknown, the filter cannot be served by an index, the cursor is malformed, "
+                            + "or fields are combined with ids or include."
+            ), @ApiResponse(
+                    responseCode = "503",
+                    description = "The filter is not selective enough to be answered in time."
+            )})
+    @GetMapping(params = FIELDS,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Map<String, Object>>> getAuthorFields(@RequestParam(name = FIELDS) @NotEmpty
+                                                                     List<@Pattern(regexp = AuthorDto.FIELDS_PATTERN) String> fields,
+                                                                     @RequestParam(name = "ids", required = false) List<Long> ids,
+                                                                     @RequestParam(name = "include", required = false) String include,
+                                                                     @RequestParam(name = "country", required = false)
+                                                                     @Size(max = 50) String country,
+                                                                     @RequestParam(name = "bornAfter", required = false)
+                                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornAfter,
+                                                                     @RequestParam(name = "bornBefore", required = false)
+                                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate bornBefore,
+                                                                     @RequestParam(name = "sort", required = false)
+                                                                     @Pattern(regexp = AuthorFilterDto.SORT_PATTERN) String sort,
+                                                                     @RequestParam(name = "after", required = false) String after,
+                                                                     @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE)
+                                                                     @Min(1) @Max(MAX_PAGE_SIZE) Integer limit) {
+        if (ids != null || include != null) {
+            log.warn("Fields of authors cannot be combined with ids or include");
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+        }
+        AuthorFilterDto filter = new AuthorFilterDto(country, bornAfter, bornBefore, sort);
+        CursorPageDto<Map<String, Object>> page = authorService.findAuthorFields(filter, fields, after, limit);
+        log.debug("Getting fields {} of {} authors matching {} after cursor {}", fields, page.content().size(), filter, after);
+        return CursorPageSupport.toResponse(page);
+    }
+
+    @Operation(summary = "Export all authors",
+            description = "Stream all authors ordered by ID as newline delimited JSON")
+    @GetMapping(value = "/export",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAuthors() {
+        log.debug("Exporting all authors");
+        StreamingResponseBody body = NdjsonSupport.stream(objectMapper, authorService::exportAuthors);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            summary = "Suggest authors",
+            description = "Get authors whose last name, first name or full name starts with the prefix, "
+                    + "in alphabetical order of names",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "There is no Authors with such names."
+            )})
+    @GetMapping(value = "/suggest",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<AuthorDto>> suggestAuthors(@RequestParam(name = "prefix") @NotBlank @Size(max = 101) String prefix,
+                                                          @RequestParam(name = "limit", defaultValue = DEFAULT_SUGGEST_LIMIT)
+                                                          @Min(1) @Max(MAX_SUGGEST_LIMIT) Integer limit) {
+        log.debug("Suggesting authors by prefix: {}", prefix);
+        List<AuthorDto> authorDtoList = suggestService.suggestAuthors(prefix, limit);
         return new ResponseEntity<>(authorDtoList, HttpStatus.OK);
     }
 
@@ -61,53 +248,164 @@ public class AuthorApiController {
     public ResponseEntity<AuthorDto> save(@RequestBody @Valid AuthorRequestDto authorRequestDto) {
         log.debug("Input data for creating new Author: {} ", authorRequestDto);
         AuthorDto savedAuthorDto = authorService.saveNewAuthor(authorRequestDto);
-        return new ResponseEntity<>(savedAuthorDto, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETagSupport.toETag(savedAuthorDto.version()))
+                .body(savedAuthorDto);
+    }
+
+    @Operation(summary = "Save new Authors in bulk",
+            description = "Save JSON array of at most " + MAX_BULK_SIZE + " Authors in one transaction using JDBC batches, "
+                    + "the whole array is read into memory, larger imports are sent as NDJSON")
+    @PostMapping(value = "/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResultDto> saveAll(@RequestBody @NotEmpty @Size(max = MAX_BULK_SIZE)
+                                                 List<@Valid AuthorRequestDto> authorRequestDtos) {
+        log.debug("Saving {} new authors", authorRequestDtos.size());
+        BulkResultDto bulkResultDto = authorService.saveNewAuthors(authorRequestDtos.stream());
+        return new ResponseEntity<>(bulkResultDto, HttpStatus.CREATED);
+    }
+
+    @Operation(summary = "Save new Authors in bulk from NDJSON",
+            description = "Save newline delimited JSON stream of Authors in one transaction using JDBC batches, "
+                    + "the stream is read while saving")
+    @PostMapping(value = "/bulk",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResultDto> saveAllFromNdjson(InputStream inputStream) throws IOException {
+        log.debug("Saving new authors from NDJSON stream");
+        try (Stream<AuthorRequestDto> authorRequestDtos =
+                     NdjsonSupport.read(objectMapper, validator, inputStream, AuthorRequestDto.class)) {
+            BulkResultDto bulkResultDto = authorService.saveNewAuthors(authorRequestDtos);
+            return new ResponseEntity<>(bulkResultDto, HttpStatus.CREATED);
+        }
     }
 
-    @Operation(summary = "Get Author by ID")
+    @Operation(
+            summary = "Get Author by ID",
+            description = "Version of the Author is returned in ETag header. If it matches If-None-Match header, "
+                    + "the Author is neither loaded nor serialized. A cached Author is served with its own version "
+                    + "without reading the database",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "304",
+                    description = "Author was not modified since the version in If-None-Match header."
+            )})
     @GetMapping(value = "/{id}",
+            params = NO_FIELDS,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<AuthorDto> getAuthor(@PathVariable(name = "id") Long id) {
+    public ResponseEntity<AuthorDto> getAuthor(@PathVariable(name = "id") Long id, WebRequest webRequest) {
         log.debug("Getting author with id {}", id);
-        AuthorDto authorDto = authorService.getAuthorById(id);
-        return new ResponseEntity<>(authorDto, HttpStatus.OK);
+        Optional<AuthorDto> cachedAuthorDto = authorService.getCachedAuthorById(id);
+        Long version = cachedAuthorDto.map(AuthorDto::version).orElseGet(() -> authorService.getAuthorVersion(id));
+        if (webRequest.checkNotModified(ETagSupport.toETag(version))) {
+            log.debug("Author with id {} is not modified", id);
+            return null;
+        }
+        AuthorDto authorDto = cachedAuthorDto.orElseGet(() -> authorService.getAuthorById(id));
+        return ResponseEntity.ok()
+                .eTag(ETagSupport.toETag(authorDto.version()))
+                .body(authorDto);
+    }
+
+    @Operation(
+            summary = "Get Author by ID with its books",
+            description = "Get Author with a list of all its books, loaded together with one query",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "404",
+                    description = "There is no Author with such ID."
+            )})
+    @GetMapping(value = "/{id}",
+            params = {INCLUDE_BOOKS, NO_FIELDS},
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuthorWithBooksDto> getAuthorWithBooks(@PathVariable(name = "id") Long id) {
+        log.debug("Getting author with id {} with its books", id);
+        AuthorWithBooksDto authorWithBooksDto = authorService.getAuthorWithBooksById(id);
+        return new ResponseEntity<>(authorWithBooksDto, HttpStatus.OK);
     }
 
-    @Operation(summary = "Update Author by ID")
+    @Operation(
+            summary = "Update Author by ID",
+            description = "Update Author only if its version matches ETag from If-Match header, when the header is present",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "412",
+                    description = "Author was modified since the version in If-Match header."
+            )})
     @PutMapping(value = "/{id}",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<AuthorDto> updateAuthor(@PathVariable(name = "id") Long id, @RequestBody @Valid AuthorRequestDto authorRequestDto) {
-        log.debug("Updating author with id {} with input data {}", id, authorRequestDto);
-        AuthorDto authorDto = authorService.updateAuthor(id, authorRequestDto);
-        return new ResponseEntity<>(authorDto, HttpStatus.OK);
+    public ResponseEntity<AuthorDto> updateAuthor(@PathVariable(name = "id") Long id,
+                                                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestBody @Valid AuthorRequestDto authorRequestDto) {
+        log.debug("Updating author with id {} and If-Match {} with input data {}", id, ifMatch, authorRequestDto);
+        AuthorDto authorDto = authorService.updateAuthor(id, authorRequestDto, ETagSupport.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETagSupport.toETag(authorDto.version()))
+                .body(authorDto);
     }
 
-    @Operation(summary = "Delete Author by ID")
+    @Operation(summary = "Delete Author by ID",
+            description = "Delete Author and all its books. Number of deleted books is returned in "
+                    + DELETED_BOOKS_HEADER + " header")
     @DeleteMapping("/{id}")
     public ResponseEntity<Long> deleteAuthor(@PathVariable(name = "id") Long id) {
         log.debug("Deleting author with ID: {}", id);
-        Long deletedAuthorId = authorService.deleteAuthorById(id);
-        return new ResponseEntity<>(deletedAuthorId, HttpStatus.OK);
+        int deletedBooks = authorService.deleteAuthorById(id);
+        return ResponseEntity.ok()
+                .header(DELETED_BOOKS_HEADER, String.valueOf(deletedBooks))
+                .body(id);
     }
 
-    @Operation(summary = "Get all book of author",
-            description = "Get list of all book of author by its ID")
+    @Operation(
+            summary = "Get all book of author",
+            description = "Get list of all book of author by its ID. Version of the list is returned in ETag header. "
+                    + "If it matches If-None-Match header, the books are neither loaded nor serialized. Cached books are "
+                    + "served with their own version without reading the database",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "304",
+                    description = "Books were not modified since the version in If-None-Match header."
+            )})
     @GetMapping(value = "/{id}/books",
+            params = NO_FIELDS,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<List<BookDto>> getAllBooksOfAuthor(@PathVariable(name = "id") Long id) {
+    public ResponseEntity<List<BookDto>> getAllBooksOfAuthor(@PathVariable(name = "id") Long id, WebRequest webRequest) {
         log.debug("Getting all books of author with ID: {}", id);
-        List<BookDto> bookDtoList = authorService.getAllBooksOfAuthorByAuthorId(id);
+        Optional<List<BookDto>> cachedBookDtoList = authorService.getCachedBooksOfAuthorByAuthorId(id);
+        String version = cachedBookDtoList.map(BookVersions::of)
+                .orElseGet(() -> authorService.getVersionOfBooksOfAuthor(id));
+        if (version != null && webRequest.checkNotModified(ETagSupport.toETag(version))) {
+            log.debug("Books of author with ID: {} are not modified", id);
+            return null;
+        }
+        List<BookDto> bookDtoList = cachedBookDtoList.orElseGet(() -> authorService.getAllBooksOfAuthorByAuthorId(id));
         return new ResponseEntity<>(bookDtoList, HttpStatus.OK);
     }
 
     @Operation(summary = "Get Book by ID of Author by ID")
     @GetMapping(value = "/{id}/books/{bookId}",
+            params = NO_FIELDS,
             produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<BookDto> getBookOfAuthor(@PathVariable(name = "id") Long authorId, @PathVariable(name = "bookId") Long bookId) {
         log.debug("Getting book with ID: {} of author with ID: {}", bookId, authorId);
         BookDto bookDto = authorService.getBookOfAuthorByBookId(authorId, bookId);
-        return new ResponseEntity<>(bookDto, HttpStatus.OK);
+        return ResponseEntity.ok()
+                .eTag(ETagSupport.toETag(bookDto.version()))
+                .body(bookDto);
     }
 
     @Operation(summary = "Save new Book of Author by ID")
@@ -118,18 +416,47 @@ public class AuthorApiController {
                                                        @RequestBody @Valid BookRequestDto bookRequestDto) {
         log.debug("Saving new book of author with ID: {}, with input data: {} ", id, bookRequestDto);
         BookDto bookDto = authorService.saveNewBookOfAuthorByAuthorId(id, bookRequestDto);
-        return new ResponseEntity<>(bookDto, HttpStatus.CREATED);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETagSupport.toETag(bookDto.version()))
+                .body(bookDto);
     }
 
-    @Operation(summary = "Update Book with ID of Author with ID")
+    @Operation(summary = "Save new Books of Author by ID in bulk",
+            description = "Validate all Books first, then save them in one transaction using JDBC batches, "
+                    + "at most " + MAX_BULK_SIZE + " Books are sent at once")
+    @PostMapping(value = "/{id}/books/bulk",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BookDto>> saveNewBooksOfAuthor(@PathVariable(name = "id") Long id,
+                                                              @RequestBody @NotEmpty @Size(max = MAX_BULK_SIZE)
+                                                              List<@Valid BookRequestDto> bookRequestDtos) {
+        log.debug("Saving {} new books of author with ID: {}", bookRequestDtos.size(), id);
+        List<BookDto> bookDtoList = authorService.saveNewBooksOfAuthorByAuthorId(id, bookRequestDtos);
+        return new ResponseEntity<>(bookDtoList, HttpStatus.CREATED);
+    }
+
+    @Operation(
+            summary = "Update Book with ID of Author with ID",
+            description = "Update Book only if its version matches ETag from If-Match header, when the header is present",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "412",
+                    description = "Book was modified since the version in If-Match header."
+            )})
     @PutMapping(value = "/{id}/books/{bookId}",
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<BookDto> updateAuthorsBook(@PathVariable(name = "id") Long authorId,
                                                      @PathVariable(name = "bookId") Long bookId,
+                                                     @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                      @RequestBody @Valid BookRequestDto bookRequestDto) {
-        BookDto bookDto = authorService.updateAuthorsBook(authorId, bookId, bookRequestDto);
-        return new ResponseEntity<>(bookDto, HttpStatus.OK);
+        BookDto bookDto = authorService.updateAuthorsBook(authorId, bookId, bookRequestDto, ETagSupport.parseIfMatch(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETagSupport.toETag(bookDto.version()))
+                .body(bookDto);
     }
 
     @Operation(summary = "Delete Book with ID of Author with ID")
@@ -140,4 +467,26 @@ public class AuthorApiController {
         Long deletedBookId = authorService.deleteAuthorsBookById(authorId, bookId);
         return new ResponseEntity<>(deletedBookId, HttpStatus.OK);
     }
+
+    /**
+     * Page of authors with the given IDs, or of authors matching the filter, or of all authors.
+     * Authors with the given IDs are returned at once, so their page has no cursor.
+     */
+    private CursorPageDto<AuthorDto> findAuthors(List<Long> ids, String country, LocalDate bornAfter, LocalDate bornBefore,
+                                                 String sort, String after, Integer limit) {
+        AuthorFilterDto filter = new AuthorFilterDto(country, bornAfter, bornBefore, sort);
+        if (ids != null) {
+            if (filter.hasPredicates() || sort != null || after != null) {
+                log.warn("Authors fetched by IDs cannot be filtered, sorted or paged");
+                throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+            }
+            log.debug("Getting authors with {} IDs", ids.size());
+            return new CursorPageDto<>(authorService.getAuthorsByIds(ids), null);
+        }
+        CursorPageDto<AuthorDto> page = filter.isEmpty()
+                ? authorService.getAllAuthors(after, limit)
+                : authorService.findAuthors(filter, after, limit);
+        log.debug("Getting {} authors matching {} from database after cursor {}", page.content().size(), filter, after);
+        return page;
+    }
 }
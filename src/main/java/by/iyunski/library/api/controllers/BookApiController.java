@@ -0,0 +1,172 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.api.support.CursorPageSupport;
+import by.iyunski.library.api.support.NdjsonSupport;
+import by.iyunski.library.service.BookService;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.BookFilterDto;
+import by.iyunski.library.service.dtos.BookRequestDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
+
+@Tag(name = "Book Controller",
+        description = "Library API for working with Books of all Authors")
+@RestController
+@RequestMapping("/api/v1/books")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class BookApiController {
+
+    public static final int MAX_IDS = AuthorApiController.MAX_IDS;
+    public static final String FIELDS = AuthorApiController.FIELDS;
+    public static final String NO_FIELDS = AuthorApiController.NO_FIELDS;
+
+    private final BookService bookService;
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+            summary = "Get books of all authors",
+            description = "Get page of books filtered by genre, year of publication and number of pages, ordered by year "
+                    + "of publication and ID. Number of pages can only narrow a filter by genre or year, and a filter not "
+                    + "answered in time is rejected. Cursor of the next page is returned in "
+                    + CursorPageSupport.NEXT_CURSOR_HEADER + " header and is absent on the last page. Books with IDs "
+                    + "listed in ids are fetched at once in order of the IDs, skipping missing ones, ids cannot be "
+                    + "combined with filters or cursor",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "There is no Books matching the filter or the IDs."
+            ), @ApiResponse(
+                    responseCode = "400",
+                    description = "The filter cannot be served by an index, the cursor is malformed, "
+                            + "or IDs are combined with other parameters."
+            ), @ApiResponse(
+                    responseCode = "503",
+                    description = "The filter is not selective enough to be answered in time."
+            )})
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<BookDto>> getBooks(@RequestParam(name = "ids", required = false)
+                                                  @Size(min = 1, max = MAX_IDS) List<Long> ids,
+                                                  @RequestParam(name = "genre", required = false)
+                                                  @Size(max = 50) String genre,
+                                                  @RequestParam(name = "yearFrom", required = false)
+                                                  @Min(0) Integer yearFrom,
+                                                  @RequestParam(name = "yearTo", required = false)
+                                                  @Min(0) Integer yearTo,
+                                                  @RequestParam(name = "minPages", required = false)
+                                                  @Min(1) Integer minPages,
+                                                  @RequestParam(name = "after", required = false) String after,
+                                                  @RequestParam(name = "limit", defaultValue = CursorPageSupport.DEFAULT_PAGE_SIZE)
+                                                  @Min(1) @Max(CursorPageSupport.MAX_PAGE_SIZE) Integer limit) {
+        BookFilterDto filter = new BookFilterDto(genre, yearFrom, yearTo, minPages);
+        if (ids != null) {
+            if (filter.hasPredicates() || after != null) {
+                log.warn("Books fetched by IDs cannot be filtered or paged");
+                throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+            }
+            log.debug("Getting books with {} IDs", ids.size());
+            return new ResponseEntity<>(bookService.getBooksByIds(ids), HttpStatus.OK);
+        }
+        CursorPageDto<BookDto> page = bookService.findBooks(filter, after, limit);
+        log.debug("Getting {} books matching {} from database after cursor {}", page.content().size(), filter, after);
+        return CursorPageSupport.toResponse(page);
+    }
+
+    @Operation(
+            summary = "Get fields of books of all authors",
+            description = "The same as getting books of all authors, but Books have only the fields listed in fields, "
+                    + "the other columns are not even selected from the database. Fields cannot be combined with ids, "
+                    + "which return whole Books, and are not accepted by endpoints of a single Book",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "There is no Books matching the filter."
+            ), @ApiResponse(
+                    responseCode = "400",
+                    description = "A field is unknown, the filter cannot be served by an index, the cursor is malformed, "
+                            + "or fields are combined with ids."
+            ), @ApiResponse(
+                    responseCode = "503",
+                    description = "The filter is not selective enough to be answered in time."
+            )})
+    @GetMapping(params = FIELDS,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<Map<String, Object>>> getBookFields(@RequestParam(name = FIELDS) @NotEmpty
+                                                                   List<@Pattern(regexp = BookDto.FIELDS_PATTERN) String> fields,
+                                                                   @RequestParam(name = "ids", required = false) List<Long> ids,
+                                                                   @RequestParam(name = "genre", required = false)
+                                                                   @Size(max = 50) String genre,
+                                                                   @RequestParam(name = "yearFrom", required = false)
+                                                                   @Min(0) Integer yearFrom,
+                                                                   @RequestParam(name = "yearTo", required = false)
+                                                                   @Min(0) Integer yearTo,
+                                                                   @RequestParam(name = "minPages", required = false)
+                                                                   @Min(1) Integer minPages,
+                                                                   @RequestParam(name = "after", required = false) String after,
+                                                                   @RequestParam(name = "limit", defaultValue = CursorPageSupport.DEFAULT_PAGE_SIZE)
+                                                                   @Min(1) @Max(CursorPageSupport.MAX_PAGE_SIZE) Integer limit) {
+        if (ids != null) {
+            log.warn("Fields of books cannot be combined with ids");
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+        }
+        BookFilterDto filter = new BookFilterDto(genre, yearFrom, yearTo, minPages);
+        CursorPageDto<Map<String, Object>> page = bookService.findBookFields(filter, fields, after, limit);
+        log.debug("Getting fields {} of {} books matching {} after cursor {}", fields, page.content().size(), filter, after);
+        return CursorPageSupport.toResponse(page);
+    }
+
+    @Operation(summary = "Export all books",
+            description = "Stream all books ordered by ID as newline delimited JSON")
+    @GetMapping(value = "/export",
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        log.debug("Exporting all books");
+        StreamingResponseBody body = NdjsonSupport.stream(objectMapper, bookService::exportBooks);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(summary = "Get Book by ISBN",
+            description = "Get Book of any Author by its unique ISBN")
+    @GetMapping(value = "/isbn/{isbn}",
+            params = NO_FIELDS,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BookDto> getBookByIsbn(@PathVariable(name = "isbn")
+                                                 @Pattern(regexp = BookRequestDto.ISBN_PATTERN) String isbn) {
+        log.debug("Getting book with ISBN: {}", isbn);
+        BookDto bookDto = bookService.getBookByIsbn(isbn);
+        return new ResponseEntity<>(bookDto, HttpStatus.OK);
+    }
+}
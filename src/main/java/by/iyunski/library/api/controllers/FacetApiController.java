@@ -0,0 +1,67 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.api.support.CursorPageSupport;
+import by.iyunski.library.service.FacetService;
+import by.iyunski.library.service.dtos.FacetFilterDto;
+import by.iyunski.library.service.dtos.FacetResultDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Facet Controller",
+        description = "Library API for faceted browsing of Books")
+@RestController
+@RequestMapping("/api/v1/books/facets")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class FacetApiController {
+
+    private final FacetService facetService;
+
+    @Operation(
+            summary = "Browse books by facets",
+            description = "Get page of books ordered by ID matching the selected genre, decade of publication and "
+                    + "country of author, with numbers of matching books per genre, decade and country. Facets are "
+                    + "matched and counted in memory. Cursor of the next page is returned in nextCursor field "
+                    + "and is absent on the last page",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "There is no Books matching the facets."
+            ), @ApiResponse(
+                    responseCode = "400",
+                    description = "The cursor is malformed."
+            )})
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<FacetResultDto> getFacets(@RequestParam(name = "genre", required = false)
+                                                    @Size(max = 50) String genre,
+                                                    @RequestParam(name = "decade", required = false)
+                                                    @Min(0) Integer decade,
+                                                    @RequestParam(name = "country", required = false)
+                                                    @Size(max = 50) String country,
+                                                    @RequestParam(name = "after", required = false) String after,
+                                                    @RequestParam(name = "limit", defaultValue = CursorPageSupport.DEFAULT_PAGE_SIZE)
+                                                    @Min(1) @Max(CursorPageSupport.MAX_PAGE_SIZE) Integer limit) {
+        FacetFilterDto filter = new FacetFilterDto(genre, decade, country);
+        FacetResultDto facetResultDto = facetService.getFacets(filter, after, limit);
+        log.debug("Getting {} of {} books matching facets {}", facetResultDto.books().size(), facetResultDto.total(), filter);
+        return new ResponseEntity<>(facetResultDto, HttpStatus.OK);
+    }
+}
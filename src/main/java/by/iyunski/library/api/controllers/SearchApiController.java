@@ -0,0 +1,57 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.service.SearchService;
+import by.iyunski.library.service.dtos.SearchResultDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Search Controller",
+        description = "Library API for full-text search of Authors and Books")
+@RestController
+@RequestMapping("/api/v1/search")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class SearchApiController {
+
+    public static final String DEFAULT_LIMIT = "10";
+    public static final int MAX_LIMIT = 100;
+
+    private final SearchService searchService;
+
+    @Operation(
+            summary = "Search Authors and Books",
+            description = "Find Authors by first and last names and Books by titles and genres "
+                    + "containing any word of the query, the most relevant first",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "Nothing is found."
+            )})
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SearchResultDto> search(@RequestParam(name = "q") @NotBlank @Size(max = 255) String query,
+                                                  @RequestParam(name = "limit", defaultValue = DEFAULT_LIMIT)
+                                                  @Min(1) @Max(MAX_LIMIT) Integer limit) {
+        log.debug("Searching by query: {}", query);
+        SearchResultDto searchResultDto = searchService.search(query, limit);
+        return new ResponseEntity<>(searchResultDto, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,67 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.service.StatisticsService;
+import by.iyunski.library.service.dtos.AuthorStatisticsDto;
+import by.iyunski.library.service.dtos.StatisticsDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "Statistics Controller",
+        description = "Library API for statistics of Books")
+@RestController
+@RequestMapping("/api/v1/stats")
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsApiController {
+
+    private final StatisticsService statisticsService;
+
+    @Operation(
+            summary = "Get statistics",
+            description = "Get numbers of Books per genre, year of publication and country of Author. "
+                    + "They are kept in memory and do not query the database",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "204",
+                    description = "There is no Books in Library yet."
+            )})
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StatisticsDto> getStatistics() {
+        log.debug("Getting statistics");
+        StatisticsDto statisticsDto = statisticsService.getStatistics();
+        return new ResponseEntity<>(statisticsDto, HttpStatus.OK);
+    }
+
+    @Operation(
+            summary = "Get statistics of Author",
+            description = "Get number of Books of Author and their total pages. They are kept in memory "
+                    + "and do not query the database",
+            responses = {@ApiResponse(
+                    responseCode = "200",
+                    description = "The request has succeeded.",
+                    useReturnTypeSchema = true
+            ), @ApiResponse(
+                    responseCode = "404",
+                    description = "There is no Author with such ID."
+            )})
+    @GetMapping(value = "/authors/{id}",
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuthorStatisticsDto> getAuthorStatistics(@PathVariable(name = "id") Long id) {
+        log.debug("Getting statistics of author with id {}", id);
+        AuthorStatisticsDto authorStatisticsDto = statisticsService.getAuthorStatistics(id);
+        return new ResponseEntity<>(authorStatisticsDto, HttpStatus.OK);
+    }
+}
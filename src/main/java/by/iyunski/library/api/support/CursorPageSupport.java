@@ -0,0 +1,32 @@
+package by.iyunski.library.api.support;
+
+import by.iyunski.library.service.dtos.CursorPageDto;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Writes keyset pages as a JSON array with the cursor of the next page in a header.
+ */
+public final class CursorPageSupport {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String DEFAULT_PAGE_SIZE = "20";
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorPageSupport() {
+    }
+
+    /**
+     * @return content of the page, with {@value #NEXT_CURSOR_HEADER} header unless it is the last page
+     */
+    public static <T> ResponseEntity<List<T>> toResponse(CursorPageDto<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.nextCursor() != null) {
+            headers.add(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return new ResponseEntity<>(page.content(), headers, HttpStatus.OK);
+    }
+}
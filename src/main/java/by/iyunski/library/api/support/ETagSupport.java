@@ -0,0 +1,42 @@
+package by.iyunski.library.api.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+
+/**
+ * Converts versions of resources to strong ETags and back.
+ */
+@Slf4j
+public final class ETagSupport {
+
+    private static final String ANY = "*";
+    private static final String QUOTE = "\"";
+
+    private ETagSupport() {
+    }
+
+    public static String toETag(Object version) {
+        return QUOTE + version + QUOTE;
+    }
+
+    /**
+     * Returns the version expected by the If-Match header, or null when any version is acceptable.
+     * A weak or malformed ETag can never match a strong one, so it fails the precondition.
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ANY.equals(ifMatch.trim())) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.startsWith(QUOTE) && eTag.endsWith(QUOTE)) {
+            try {
+                return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException exception) {
+                log.debug("If-Match header is not a version: {}", ifMatch);
+            }
+        }
+        log.warn("If-Match header can not match any version: {}", ifMatch);
+        throw new ErrorResponseException(HttpStatus.PRECONDITION_FAILED);
+    }
+}
@@ -0,0 +1,109 @@
+package by.iyunski.library.api.support;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads and writes newline delimited JSON, one item per line.
+ */
+@Slf4j
+public final class NdjsonSupport {
+
+    private static final int NEW_LINE = '\n';
+
+    private NdjsonSupport() {
+    }
+
+    public static <T> StreamingResponseBody stream(ObjectMapper objectMapper, Consumer<Consumer<T>> producer) {
+        ObjectWriter writer = objectMapper.writer();
+        return outputStream -> {
+            try {
+                producer.accept(item -> writeLine(writer, outputStream, item));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            outputStream.flush();
+        };
+    }
+
+    /**
+     * Lazily reads and validates items from the input, so only the item being consumed is kept in memory.
+     * Malformed lines are reported as {@link HttpStatus#BAD_REQUEST}, invalid items as {@link ConstraintViolationException}.
+     */
+    public static <T> Stream<T> read(ObjectMapper objectMapper, Validator validator,
+                                     InputStream inputStream, Class<T> type) throws IOException {
+        MappingIterator<T> iterator = objectMapper.readerFor(type).readValues(inputStream);
+        Iterator<T> items = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return iterator.hasNextValue();
+                } catch (IOException e) {
+                    throw malformed(e);
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return iterator.nextValue();
+                } catch (IOException e) {
+                    throw malformed(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(items, Spliterator.ORDERED), false)
+                .map(item -> validate(validator, item))
+                .onClose(() -> close(iterator));
+    }
+
+    private static ErrorResponseException malformed(IOException e) {
+        log.warn("Malformed NDJSON input: {}", e.getMessage());
+        return new ErrorResponseException(HttpStatus.BAD_REQUEST, e);
+    }
+
+    private static <T> T validate(Validator validator, T item) {
+        Set<ConstraintViolation<T>> violations = validator.validate(item);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return item;
+    }
+
+    private static void close(MappingIterator<?> iterator) {
+        try {
+            iterator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeLine(ObjectWriter writer, OutputStream outputStream, Object item) {
+        try {
+            outputStream.write(writer.writeValueAsBytes(item));
+            outputStream.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
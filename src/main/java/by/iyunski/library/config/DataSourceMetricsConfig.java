@@ -0,0 +1,31 @@
+package by.iyunski.library.config;
+
+import by.iyunski.library.persistence.datasource.ConnectionHoldMetricsTrackerFactory;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Connection hold time per endpoint for every Hikari pool, the primary and the replica alike.
+ * Pools get the tracker before they start, so Spring Boot does not set its own one.
+ */
+@Configuration
+public class DataSourceMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionHoldMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && dataSource.getMetricsTrackerFactory() == null && dataSource.getMetricRegistry() == null) {
+                    dataSource.setMetricsTrackerFactory(new ConnectionHoldMetricsTrackerFactory(meterRegistry::getObject));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package by.iyunski.library.config;
+
+import by.iyunski.library.service.cache.DtoCacheNames;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+
+/**
+ * Local in-process Caffeine caches of ready-made DTOs, bounded by
+ * {@code library.dto-cache.<cache>} settings. Every cached DTO weighs one,
+ * so a list of books weighs as much as the number of books in it.
+ * Puts and evictions made inside a transaction are applied after its commit.
+ */
+@Configuration
+@EnableCaching
+public class DtoCacheConfig {
+
+    @Bean
+    public CacheManager dtoCacheManager(LibraryProperties libraryProperties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        for (String name : DtoCacheNames.ALL) {
+            LibraryProperties.CacheSpec spec = libraryProperties.getDtoCache()
+                    .getOrDefault(name, new LibraryProperties.CacheSpec());
+            cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                    .maximumWeight(spec.getMaximumSize())
+                    .weigher(DtoCacheConfig::weigh)
+                    .expireAfterWrite(spec.getTimeToLive())
+                    .recordStats()
+                    .build());
+        }
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+    private static int weigh(Object key, Object value) {
+        return value instanceof Collection<?> collection ? Math.max(collection.size(), 1) : 1;
+    }
+}
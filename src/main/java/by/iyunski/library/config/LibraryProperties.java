@@ -0,0 +1,127 @@
+package by.iyunski.library.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Application specific settings, bound from {@code library.*} properties.
+ */
+@ConfigurationProperties(prefix = "library")
+@Getter
+@Setter
+public class LibraryProperties {
+
+    /**
+     * Timeout of transactions of filtered queries, a placeholder for {@code @Transactional(timeoutString)}.
+     */
+    public static final String FILTER_QUERY_TIMEOUT = "${library.filter.query-timeout}";
+
+    private final Export export = new Export();
+    private final Bulk bulk = new Bulk();
+    /**
+     * Bounds of Hibernate second-level cache regions by region name.
+     */
+    private final Map<String, CacheSpec> secondLevelCache = new HashMap<>();
+    /**
+     * Bounds of caches of ready-made DTOs by cache name.
+     */
+    private final Map<String, CacheSpec> dtoCache = new HashMap<>();
+    private final Datasource datasource = new Datasource();
+    private final Reconcile reconcile = new Reconcile();
+    private final Filter filter = new Filter();
+    private final Fetch fetch = new Fetch();
+
+    @Getter
+    @Setter
+    public static class Export {
+        /**
+         * Number of exported rows after which the persistence context is cleared.
+         */
+        private int clearInterval = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Bulk {
+        /**
+         * Number of rows sent to the database in one JDBC batch by bulk inserts.
+         */
+        private int batchSize = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Filter {
+        /**
+         * Timeout in seconds of filtered queries of authors and books. A query exceeding it is cancelled, so a filter
+         * that is not selective enough cannot keep scanning an index for long.
+         */
+        private int queryTimeout = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class Fetch {
+        /**
+         * Maximum number of IDs in one {@code IN} query of authors or books fetched by a list of IDs,
+         * a longer list is fetched with several queries.
+         */
+        private int chunkSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Reconcile {
+        /**
+         * Number of authors whose number of books is checked and repaired in one transaction.
+         */
+        private int batchSize = 500;
+        /**
+         * Delay between runs of the job repairing numbers of books of authors, also delay of its first run.
+         */
+        private Duration interval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class CacheSpec {
+        /**
+         * Time after which an entry expires since it was written.
+         */
+        private Duration timeToLive = Duration.ofMinutes(10);
+        /**
+         * Maximum number of entries, for DTO caches a list counts as many entries as it has elements.
+         */
+        private long maximumSize = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Datasource {
+        private final Replica replica = new Replica();
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+        /**
+         * JDBC URL of the read replica, routing of read-only transactions is enabled when it is set.
+         */
+        private String url;
+        private String username;
+        private String password;
+        /**
+         * Maximum replication lag, at which read-only transactions are still routed to the replica.
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+        /**
+         * Delay between checks of the replication lag.
+         */
+        private Duration lagCheckInterval = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,21 @@
+package by.iyunski.library.config;
+
+import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.maintenance.BookCountReconciler;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduled background jobs, every job is configured by its {@code library.*} settings.
+ */
+@Configuration
+@EnableScheduling
+public class MaintenanceConfig {
+
+    @Bean
+    public BookCountReconciler bookCountReconciler(AuthorService authorService, LibraryProperties libraryProperties) {
+        LibraryProperties.Reconcile reconcile = libraryProperties.getReconcile();
+        return new BookCountReconciler(authorService, reconcile.getBatchSize(), reconcile.getInterval());
+    }
+}
@@ -0,0 +1,114 @@
+package by.iyunski.library.config;
+
+import by.iyunski.library.persistence.datasource.ReadWriteRoutingDataSource;
+import by.iyunski.library.persistence.datasource.ReadWriteRoutingTransactionManager;
+import by.iyunski.library.persistence.datasource.ReplicaJpaDialect;
+import by.iyunski.library.persistence.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseDataSource;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Primary and replica connection pools behind a data source, which sends read-only transactions
+ * to the replica. Enabled when {@code library.datasource.replica.url} is set, the primary is still
+ * configured by {@code spring.datasource.*} and Liquibase always runs against it. Read-only transactions
+ * labelled {@link ReadWriteRoutingDataSource#PRIMARY} stay on the primary, see {@link ReadWriteRoutingTransactionManager},
+ * other read-only transactions do not fill the second-level cache, see {@link ReplicaJpaDialect}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+    private final LibraryProperties libraryProperties;
+
+    public ReadReplicaConfig(LibraryProperties libraryProperties) {
+        this.libraryProperties = libraryProperties;
+    }
+
+    @Bean
+    @LiquibaseDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("library.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        LibraryProperties.Replica replica = libraryProperties.getDatasource().getReplica();
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(replica.getUrl())
+                .username(replica.getUsername())
+                .password(replica.getPassword())
+                .build();
+        dataSource.setPoolName(ReadWriteRoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(HikariDataSource replicaDataSource) {
+        LibraryProperties.Replica replica = libraryProperties.getDatasource().getReplica();
+        return new ReplicaLagMonitor(new JdbcTemplate(replicaDataSource), replica.getMaxLag(), replica.getLagCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 HikariDataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(replicaLagMonitor::isReplicaAvailable);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        ReadWriteRoutingTransactionManager transactionManager = new ReadWriteRoutingTransactionManager();
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Sets the dialect before the entity manager factory is initialized, otherwise it takes the default one
+     * from the vendor adapter. The transaction manager takes the dialect from the factory.
+     */
+    @Bean
+    public static BeanPostProcessor replicaJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean entityManagerFactoryBean) {
+                    entityManagerFactoryBean.setJpaDialect(new ReplicaJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package by.iyunski.library.config;
+
+import by.iyunski.library.persistence.cache.CacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.OptionalLong;
+
+/**
+ * Local in-process JCache (Caffeine) cache manager for Hibernate second-level cache.
+ * Every region is bounded by size and time to live from {@code library.second-level-cache.<region>}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    private static final URI CACHE_MANAGER_URI = URI.create("library-second-level-cache");
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(LibraryProperties libraryProperties) {
+        CacheManager cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+        for (String region : CacheRegions.ALL) {
+            LibraryProperties.CacheSpec spec = libraryProperties.getSecondLevelCache()
+                    .getOrDefault(region, new LibraryProperties.CacheSpec());
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(spec.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(spec.getTimeToLive().toNanos()));
+            configuration.setStatisticsEnabled(true);
+            cacheManager.createCache(region, configuration);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+}
@@ -0,0 +1,18 @@
+package by.iyunski.library.persistence.cache;
+
+import java.util.List;
+
+/**
+ * Names of Hibernate second-level cache regions.
+ */
+public final class CacheRegions {
+
+    public static final String AUTHOR = "author";
+    public static final String BOOK = "book";
+    public static final String AUTHOR_BOOKS = "author-books";
+
+    public static final List<String> ALL = List.of(AUTHOR, BOOK, AUTHOR_BOOKS);
+
+    private CacheRegions() {
+    }
+}
@@ -0,0 +1,91 @@
+package by.iyunski.library.persistence.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Records the standard {@code hikari.*} metrics and, in addition, how long each connection was held
+ * as {@code library.db.connection.hold}, tagged by the pool and by the endpoint of the request that held it.
+ * A connection is returned to the pool on the thread that used it, so the endpoint is the handler pattern
+ * of the current request, or {@code none} for work outside of requests, like scheduled jobs.
+ * With open session in view disabled, hold time of an endpoint is well below its {@code http.server.requests}
+ * time, as connections are returned before responses are written.
+ */
+public class ConnectionHoldMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    public static final String CONNECTION_HOLD = "library.db.connection.hold";
+    public static final String NONE = "none";
+    public static final String UNKNOWN = "UNKNOWN";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    /**
+     * @param meterRegistry is asked for the registry only when the pool starts
+     */
+    public ConnectionHoldMetricsTrackerFactory(Supplier<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry registry = meterRegistry.get();
+        IMetricsTracker tracker = new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats);
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                tracker.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                tracker.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                tracker.recordConnectionUsageMillis(elapsedBorrowedMillis);
+                Timer.builder(CONNECTION_HOLD)
+                        .description("Time a connection is held by an endpoint before it is returned to the pool")
+                        .tags(currentEndpoint().and("pool", poolName))
+                        .register(registry)
+                        .record(Duration.ofMillis(elapsedBorrowedMillis));
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                tracker.recordConnectionTimeout();
+            }
+
+            @Override
+            public void close() {
+                tracker.close();
+            }
+        };
+    }
+
+    /**
+     * @return HTTP method and handler pattern of the request of the current thread
+     */
+    private static Tags currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return Tags.of("method", request.getMethod(), "uri", pattern == null ? UNKNOWN : pattern.toString());
+        }
+        return Tags.of("method", NONE, "uri", NONE);
+    }
+}
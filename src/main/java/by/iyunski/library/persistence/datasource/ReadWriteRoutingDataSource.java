@@ -0,0 +1,55 @@
+package by.iyunski.library.persistence.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Routes connections of read-only transactions to the replica while it is available
+ * and all other connections to the primary. Read-only transactions labelled {@link #PRIMARY}
+ * are pinned to the primary by {@link ReadWriteRoutingTransactionManager}. Must be wrapped into
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, so that
+ * a connection is obtained only after the transaction is marked read-only.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> READ_ONLY_ON_PRIMARY = new ThreadLocal<>();
+
+    private final BooleanSupplier replicaAvailable;
+
+    public ReadWriteRoutingDataSource(BooleanSupplier replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    /**
+     * Sends the read-only transaction of the current thread to the primary or lets it go to the replica.
+     *
+     * @return the previous setting, to be restored when the transaction completes
+     */
+    static boolean setReadOnlyOnPrimary(boolean onPrimary) {
+        boolean previous = isReadOnlyOnPrimary();
+        if (onPrimary) {
+            READ_ONLY_ON_PRIMARY.set(Boolean.TRUE);
+        } else {
+            READ_ONLY_ON_PRIMARY.remove();
+        }
+        return previous;
+    }
+
+    static boolean isReadOnlyOnPrimary() {
+        return READ_ONLY_ON_PRIMARY.get() != null;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !isReadOnlyOnPrimary()
+                && replicaAvailable.getAsBoolean()
+                ? REPLICA
+                : PRIMARY;
+    }
+}
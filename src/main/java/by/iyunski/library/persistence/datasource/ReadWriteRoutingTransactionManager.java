@@ -0,0 +1,50 @@
+package by.iyunski.library.persistence.datasource;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+
+/**
+ * Pins read-only transactions labelled {@link ReadWriteRoutingDataSource#PRIMARY} to the primary for
+ * {@link ReadWriteRoutingDataSource}. The labels are read here, as the JPA dialect gets the definition
+ * without them. The setting of a suspended transaction is restored when it is resumed.
+ */
+public class ReadWriteRoutingTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        ReadWriteRoutingDataSource.setReadOnlyOnPrimary(definition.isReadOnly()
+                && definition instanceof TransactionAttribute attribute
+                && attribute.getLabels().contains(ReadWriteRoutingDataSource.PRIMARY));
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException e) {
+            ReadWriteRoutingDataSource.setReadOnlyOnPrimary(false);
+            throw e;
+        }
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        return new SuspendedResources(super.doSuspend(transaction), ReadWriteRoutingDataSource.setReadOnlyOnPrimary(false));
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        SuspendedResources resources = (SuspendedResources) suspendedResources;
+        super.doResume(transaction, resources.resources());
+        ReadWriteRoutingDataSource.setReadOnlyOnPrimary(resources.readOnlyOnPrimary());
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            ReadWriteRoutingDataSource.setReadOnlyOnPrimary(false);
+        }
+    }
+
+    private record SuspendedResources(Object resources, boolean readOnlyOnPrimary) {
+    }
+}
@@ -0,0 +1,47 @@
+package by.iyunski.library.persistence.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import java.sql.SQLException;
+
+/**
+ * Hibernate dialect used together with {@link ReadWriteRoutingDataSource}. Read-only transactions, which may read
+ * a lagging replica, still read the second-level cache, but put nothing into it, otherwise a row read from
+ * the replica before it has caught up would be served from the cache to the transactions on the primary too.
+ * The cache is filled only by transactions on the primary, including the read-only ones pinned to it
+ * by {@link ReadWriteRoutingTransactionManager}.
+ */
+public class ReplicaJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly() || ReadWriteRoutingDataSource.isReadOnlyOnPrimary()) {
+            return transactionData;
+        }
+        Session session = getSession(entityManager);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new ReadOnlyTransactionData(transactionData, session, previousCacheMode);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof ReadOnlyTransactionData readOnlyTransactionData) {
+            readOnlyTransactionData.session().setCacheMode(readOnlyTransactionData.previousCacheMode());
+            super.cleanupTransaction(readOnlyTransactionData.transactionData());
+        } else {
+            super.cleanupTransaction(transactionData);
+        }
+    }
+
+    private record ReadOnlyTransactionData(Object transactionData, Session session, CacheMode previousCacheMode) {
+    }
+}
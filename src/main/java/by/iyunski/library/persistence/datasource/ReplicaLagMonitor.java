@@ -0,0 +1,64 @@
+package by.iyunski.library.persistence.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically checks replication lag of the MySQL replica. The replica is available only while
+ * replication is running and lags behind the source no more than allowed, otherwise
+ * read-only transactions fall back to the primary. Until the first check the replica is unavailable.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements SchedulingConfigurer {
+
+    static final String REPLICA_STATUS_QUERY = "SHOW REPLICA STATUS";
+    static final String SECONDS_BEHIND_SOURCE = "Seconds_Behind_Source";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private volatile boolean replicaAvailable;
+
+    public ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, Duration maxLag, Duration checkInterval) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(this::check, checkInterval);
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    public void check() {
+        boolean available;
+        try {
+            List<Map<String, Object>> status = replicaJdbcTemplate.queryForList(REPLICA_STATUS_QUERY);
+            Object lag = status.isEmpty() ? null : status.get(0).get(SECONDS_BEHIND_SOURCE);
+            available = lag instanceof Number seconds && seconds.longValue() <= maxLag.toSeconds();
+            log.debug("Replica lag is {} seconds", lag);
+        } catch (DataAccessException e) {
+            log.warn("Replica status cannot be checked: {}", e.getMessage());
+            available = false;
+        }
+        if (available != replicaAvailable) {
+            if (available) {
+                log.info("Replica is available, read-only transactions are routed to it");
+            } else {
+                log.warn("Replica is unavailable or lags more than {}, read-only transactions fall back to primary", maxLag);
+            }
+            replicaAvailable = available;
+        }
+    }
+}
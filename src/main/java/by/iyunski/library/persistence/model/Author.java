@@ -1,5 +1,7 @@
 package by.iyunski.library.persistence.model;
 
+import by.iyunski.library.persistence.cache.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -7,9 +9,13 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
@@ -18,11 +24,14 @@ import java.util.Objects;
 
 @Entity
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.AUTHOR)
 @Getter
 @Setter
 public class Author {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "author_seq")
+    @SequenceGenerator(name = "author_seq", sequenceName = "author_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
 
@@ -38,6 +47,18 @@ public class Author {
     @Column(nullable = false, length = 50)
     private String country;
 
+    /**
+     * Number of books of the author, changed together with them on the author locked by {@link
+     * by.iyunski.library.persistence.repository.AuthorRepository#findForUpdateById(Long)}.
+     */
+    @Column(nullable = false)
+    private Integer bookCount = 0;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.AUTHOR_BOOKS)
     @OneToMany(mappedBy = "author", cascade = {CascadeType.ALL})
     private List<Book> books = new ArrayList<>();
 
@@ -62,6 +83,7 @@ public class Author {
                 ", lastName='" + lastName + '\'' +
                 ", dateOfBirth=" + dateOfBirth +
                 ", country='" + country + '\'' +
+                ", bookCount=" + bookCount +
                 ", books=" + books +
                 '}';
     }
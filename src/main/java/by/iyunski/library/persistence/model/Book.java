@@ -1,28 +1,37 @@
 package by.iyunski.library.persistence.model;
 
+import by.iyunski.library.persistence.cache.CacheRegions;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.time.Year;
-import java.util.Objects;
 
 @Entity
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.BOOK)
 @Getter
 @Setter
 public class Book {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     @Column(nullable = false)
     private Long id;
 
@@ -39,24 +48,31 @@ public class Book {
     @Column(nullable = false)
     private Integer numberOfPages;
 
-    @Column(nullable = false, length = 13)
+    @Column(nullable = false, length = 13, unique = true)
     private String isbn;
 
-    @ManyToOne(optional = false)
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
     private Author author;
 
+    /**
+     * Books are equal by their generated ID only, so that neither the lazy author nor other
+     * mutable fields are touched, and a new Book without ID equals only itself.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Book book = (Book) o;
-        return Objects.equals(id, book.id) && Objects.equals(title, book.title) && Objects.equals(genre, book.genre) && Objects.equals(yearOfPublication, book.yearOfPublication) && Objects.equals(numberOfPages, book.numberOfPages) && Objects.equals(isbn, book.isbn) && Objects.equals(author, book.author);
+        if (!(o instanceof Book book)) return false;
+        return id != null && id.equals(book.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, genre, yearOfPublication, numberOfPages, isbn, author);
+        return Book.class.hashCode();
     }
 
     @Override
@@ -0,0 +1,74 @@
+package by.iyunski.library.persistence.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Selects only the requested attributes of entities, so that the database reads and sends only their columns
+ * and no entity is hydrated or kept in the persistence context.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AttributeProjections {
+
+    private static final String PATH_SEPARATOR = "\\.";
+
+    private final EntityManager entityManager;
+
+    /**
+     * @param attributePaths attributes to select, an attribute of an associated entity is given by a path like
+     *                       {@code author.id}, which is read from the foreign key without a join
+     * @return values of the attributes of up to {@code limit} matching entities, keyed by their paths in given order
+     */
+    public <T> List<Map<String, Object>> findAttributes(Class<T> domainClass, List<String> attributePaths,
+                                                        Specification<T> specification, Sort sort, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(domainClass);
+        List<Selection<?>> selections = attributePaths.stream()
+                .<Selection<?>>map(attributePath -> toPath(root, attributePath))
+                .toList();
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, builder));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(tuple -> toMap(attributePaths, tuple))
+                .toList();
+    }
+
+    private static Path<?> toPath(Root<?> root, String attributePath) {
+        Path<?> path = root;
+        for (String attribute : attributePath.split(PATH_SEPARATOR)) {
+            path = path.get(attribute);
+        }
+        return path;
+    }
+
+    private static Map<String, Object> toMap(List<String> attributePaths, Tuple tuple) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (int i = 0; i < attributePaths.size(); i++) {
+            attributes.put(attributePaths.get(i), tuple.get(i));
+        }
+        return attributes;
+    }
+}
@@ -1,7 +1,107 @@
 package by.iyunski.library.persistence.repository;
 
 import by.iyunski.library.persistence.model.Author;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static by.iyunski.library.persistence.repository.QueryHintValues.CACHE_MODE_IGNORE;
+import static by.iyunski.library.persistence.repository.QueryHintValues.EVICTED_BY_CALLER;
+import static by.iyunski.library.persistence.repository.QueryHintValues.STREAMING_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.AvailableHints.HINT_READ_ONLY;
+
+public interface AuthorRepository extends JpaRepository<Author, Long>, JpaSpecificationExecutor<Author> {
+
+    /**
+     * Keyset page of authors: {@code WHERE id > ? ORDER BY id LIMIT ?}, served by the primary key index.
+     * Only {@link Pageable#getPageSize()} is used, so no count query is issued.
+     */
+    List<Author> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Finds the author together with its books with one query joining the book table.
+     */
+    @EntityGraph(attributePaths = "books")
+    Optional<Author> findWithBooksById(Long id);
+
+    /**
+     * Streams all authors ordered by ID, rows are fetched from the driver one by one.
+     * Must be consumed and closed inside a transaction, with {@link org.hibernate.CacheMode#IGNORE} set on the session
+     * too, as the cache mode hint applies only while the query is executed, not while the rows are hydrated.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = CACHE_MODE_IGNORE)})
+    Stream<Author> streamAllByOrderByIdAsc();
+
+    /**
+     * Streams authors with IDs from first to last ordered by ID, like {@link #streamAllByOrderByIdAsc()}.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = CACHE_MODE_IGNORE)})
+    Stream<Author> streamAllByIdBetweenOrderByIdAsc(Long firstId, Long lastId);
+
+    /**
+     * Reads only the version of the author by primary key, without hydrating the entity.
+     */
+    @Query("select a.version from Author a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Deletes the author with single native statement without loading it or cascading to its books,
+     * so the books must be deleted before. No second-level cache region is invalidated, so the caller must evict
+     * the author.
+     *
+     * @return number of deleted rows, {@code 0} if there is no such author
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from author where id = :id", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = EVICTED_BY_CALLER))
+    int deleteAuthorById(@Param("id") Long id);
+
+    /**
+     * Finds the author with {@code SELECT ... FOR UPDATE}, so its row stays locked until the transaction ends
+     * and concurrent changes of books of the same author are serialized and no change of their number is lost.
+     * The author is updated as a managed entity, so Hibernate updates only its entry in the second-level cache.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Author> findForUpdateById(Long id);
+
+    /**
+     * Keyset page of author IDs: {@code WHERE id > ? ORDER BY id LIMIT ?}, read from the primary key index only.
+     */
+    @Query("select a.id from Author a where a.id > :id order by a.id")
+    List<Long> findIdsGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    /**
+     * Finds the authors among the given ones, whose number of books differs from the number of rows in the book
+     * table. Books of every author are counted by IDX_BOOK_AUTHOR_ID_ID.
+     */
+    @Query("select a.id from Author a where a.id in :ids "
+            + "and a.bookCount <> (select count(b.id) from Book b where b.author.id = a.id)")
+    List<Long> findIdsWithWrongBookCount(@Param("ids") List<Long> ids);
+
+    /**
+     * Finds the given authors with {@code SELECT ... FOR UPDATE} in order of ID, so that concurrent transactions
+     * lock them in the same order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Author a where a.id in :ids order by a.id")
+    List<Author> findAllForUpdateByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,83 @@
+package by.iyunski.library.persistence.repository;
+
+import by.iyunski.library.persistence.model.Book;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static by.iyunski.library.persistence.repository.QueryHintValues.CACHE_MODE_IGNORE;
+import static by.iyunski.library.persistence.repository.QueryHintValues.EVICTED_BY_CALLER;
+import static by.iyunski.library.persistence.repository.QueryHintValues.STREAMING_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.AvailableHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.AvailableHints.HINT_NATIVE_SPACES;
+import static org.hibernate.jpa.AvailableHints.HINT_READ_ONLY;
+
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
+
+    Optional<Book> findByIdAndAuthorId(Long id, Long authorId);
+
+    /**
+     * Finds books of all the given authors with one query using IDX_BOOK_AUTHOR_ID_ID, ordered by author and ID.
+     */
+    @Query("select b from Book b where b.author.id in :authorIds order by b.author.id, b.id")
+    List<Book> findAllByAuthorIdIn(@Param("authorIds") Collection<Long> authorIds);
+
+    /**
+     * Finds the book by unique index on ISBN.
+     */
+    Optional<Book> findByIsbn(String isbn);
+
+    /**
+     * Counts books of the author by IDX_BOOK_AUTHOR_ID_ID.
+     */
+    long countByAuthorId(Long authorId);
+
+    /**
+     * Reads IDs of the books of the author from IDX_BOOK_AUTHOR_ID_ID only, without hydrating them.
+     */
+    @Query("select b.id from Book b where b.author.id = :authorId")
+    List<Long> findIdsByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Deletes all books of the author with single native statement using IDX_BOOK_AUTHOR_ID_ID, without loading them.
+     * No second-level cache region is invalidated, so the caller must evict the deleted books and the collection
+     * of books of the author.
+     *
+     * @return number of deleted books
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "delete from book where author_id = :authorId", nativeQuery = true)
+    @QueryHints(@QueryHint(name = HINT_NATIVE_SPACES, value = EVICTED_BY_CALLER))
+    int deleteAllByAuthorId(@Param("authorId") Long authorId);
+
+    /**
+     * Streams all books ordered by ID, rows are fetched from the driver one by one.
+     * Must be consumed and closed inside a transaction, with {@link org.hibernate.CacheMode#IGNORE} set on the session
+     * too, as the cache mode hint applies only while the query is executed, not while the rows are hydrated.
+     */
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = CACHE_MODE_IGNORE)})
+    Stream<Book> streamAllByOrderByIdAsc();
+
+    /**
+     * Aggregates count, maximal ID and sum of versions of the books of the author into one string, which changes
+     * whenever a book is added, deleted or updated, as IDs only grow and every update increments a version.
+     * Books are found by IDX_BOOK_AUTHOR_ID_ID and none of them is hydrated.
+     *
+     * @return empty if the author has no books
+     */
+    @Query("select concat(str(count(b.id)), '-', str(max(b.id)), '-', str(sum(b.version))) "
+            + "from Book b where b.author.id = :authorId")
+    Optional<String> findVersionOfBooksByAuthorId(@Param("authorId") Long authorId);
+}
@@ -0,0 +1,28 @@
+package by.iyunski.library.persistence.repository;
+
+/**
+ * Values of query hints shared by repositories.
+ */
+public final class QueryHintValues {
+
+    /**
+     * MySQL Connector/J streams result set row by row instead of buffering it only with this fetch size.
+     */
+    public static final String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    /**
+     * {@link org.hibernate.CacheMode#IGNORE}: a query streaming whole tables neither reads the second-level cache
+     * nor puts every row into it, evicting the entries of the hot entities.
+     */
+    public static final String CACHE_MODE_IGNORE = "IGNORE";
+
+    /**
+     * Query space of native bulk statements whose affected second-level cache entries are evicted by the caller.
+     * It names no table of a cached entity, so Hibernate invalidates no region after the statement, while without
+     * any query space it would invalidate all of them.
+     */
+    public static final String EVICTED_BY_CALLER = "evicted-by-caller";
+
+    private QueryHintValues() {
+    }
+}
@@ -0,0 +1,59 @@
+package by.iyunski.library.persistence.specification;
+
+import by.iyunski.library.persistence.model.Author;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+/**
+ * Predicates on Authors, each of them can be served by IDX_AUTHOR_COUNTRY_DATE_OF_BIRTH or IDX_AUTHOR_DATE_OF_BIRTH,
+ * which also return Authors in {@link #BY_DATE_OF_BIRTH} order. A {@code null} argument gives no predicate.
+ */
+public final class AuthorSpecifications {
+
+    public static final String ID = "id";
+    public static final String COUNTRY = "country";
+    public static final String DATE_OF_BIRTH = "dateOfBirth";
+    public static final Sort BY_DATE_OF_BIRTH = Sort.by(DATE_OF_BIRTH, ID);
+    public static final Sort BY_ID = Sort.by(ID);
+
+    private AuthorSpecifications() {
+    }
+
+    public static Specification<Author> hasCountry(String country) {
+        return (root, query, builder) -> country == null
+                ? null
+                : builder.equal(root.get(COUNTRY), country);
+    }
+
+    public static Specification<Author> bornAfter(LocalDate date) {
+        return (root, query, builder) -> date == null
+                ? null
+                : builder.greaterThan(root.<LocalDate>get(DATE_OF_BIRTH), date);
+    }
+
+    public static Specification<Author> bornBefore(LocalDate date) {
+        return (root, query, builder) -> date == null
+                ? null
+                : builder.lessThan(root.<LocalDate>get(DATE_OF_BIRTH), date);
+    }
+
+    /**
+     * Keyset position: Authors after the given one in {@link #BY_ID} order, served by the primary key.
+     */
+    public static Specification<Author> afterId(Long id) {
+        return (root, query, builder) -> builder.greaterThan(root.<Long>get(ID), id);
+    }
+
+    /**
+     * Keyset position: Authors after the given one in {@link #BY_DATE_OF_BIRTH} order.
+     */
+    public static Specification<Author> afterDateOfBirthAndId(LocalDate dateOfBirth, Long id) {
+        return (root, query, builder) -> dateOfBirth == null
+                ? null
+                : builder.or(builder.greaterThan(root.<LocalDate>get(DATE_OF_BIRTH), dateOfBirth),
+                builder.and(builder.equal(root.<LocalDate>get(DATE_OF_BIRTH), dateOfBirth),
+                        builder.greaterThan(root.<Long>get(ID), id)));
+    }
+}
@@ -0,0 +1,59 @@
+package by.iyunski.library.persistence.specification;
+
+import by.iyunski.library.persistence.model.Book;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Year;
+
+/**
+ * Predicates on Books. Genre and year of publication are served by IDX_BOOK_GENRE_YEAR_OF_PUBLICATION or
+ * IDX_BOOK_YEAR_OF_PUBLICATION, which also return Books in {@link #BY_YEAR_OF_PUBLICATION} order, while number
+ * of pages is only checked on the rows found by them. A {@code null} argument gives no predicate.
+ */
+public final class BookSpecifications {
+
+    public static final String ID = "id";
+    public static final String GENRE = "genre";
+    public static final String YEAR_OF_PUBLICATION = "yearOfPublication";
+    public static final String NUMBER_OF_PAGES = "numberOfPages";
+    public static final Sort BY_YEAR_OF_PUBLICATION = Sort.by(YEAR_OF_PUBLICATION, ID);
+
+    private BookSpecifications() {
+    }
+
+    public static Specification<Book> hasGenre(String genre) {
+        return (root, query, builder) -> genre == null
+                ? null
+                : builder.equal(root.get(GENRE), genre);
+    }
+
+    public static Specification<Book> publishedFrom(Integer year) {
+        return (root, query, builder) -> year == null
+                ? null
+                : builder.greaterThanOrEqualTo(root.<Year>get(YEAR_OF_PUBLICATION), Year.of(year));
+    }
+
+    public static Specification<Book> publishedTo(Integer year) {
+        return (root, query, builder) -> year == null
+                ? null
+                : builder.lessThanOrEqualTo(root.<Year>get(YEAR_OF_PUBLICATION), Year.of(year));
+    }
+
+    public static Specification<Book> hasAtLeastPages(Integer pages) {
+        return (root, query, builder) -> pages == null
+                ? null
+                : builder.greaterThanOrEqualTo(root.<Integer>get(NUMBER_OF_PAGES), pages);
+    }
+
+    /**
+     * Keyset position: Books after the given one in {@link #BY_YEAR_OF_PUBLICATION} order.
+     */
+    public static Specification<Book> afterYearOfPublicationAndId(Integer year, Long id) {
+        return (root, query, builder) -> year == null
+                ? null
+                : builder.or(builder.greaterThan(root.<Year>get(YEAR_OF_PUBLICATION), Year.of(year)),
+                builder.and(builder.equal(root.<Year>get(YEAR_OF_PUBLICATION), Year.of(year)),
+                        builder.greaterThan(root.<Long>get(ID), id)));
+    }
+}
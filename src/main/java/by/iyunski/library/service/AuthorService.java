@@ -1,30 +1,153 @@
 package by.iyunski.library.service;
 
 import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.AuthorFilterDto;
 import by.iyunski.library.service.dtos.AuthorRequestDto;
+import by.iyunski.library.service.dtos.AuthorWithBooksDto;
 import by.iyunski.library.service.dtos.BookDto;
 import by.iyunski.library.service.dtos.BookRequestDto;
+import by.iyunski.library.service.dtos.BulkResultDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public interface AuthorService {
-    List<AuthorDto> getAllAuthors();
+    CursorPageDto<AuthorDto> getAllAuthors(String after, Integer limit);
+
+    /**
+     * Keyset page of authors matching the filter, ordered by date of birth and then by ID. The query is served
+     * by an index and cancelled if it takes longer than {@code library.filter.query-timeout}.
+     */
+    CursorPageDto<AuthorDto> findAuthors(AuthorFilterDto filter, String after, Integer limit);
+
+    /**
+     * The same page as {@link #getAllAuthors} or {@link #findAuthors} gives for the filter, but only the given fields
+     * of authors are selected from the database, without loading whole authors.
+     */
+    CursorPageDto<Map<String, Object>> findAuthorFields(AuthorFilterDto filter, List<String> fields, String after, Integer limit);
+
+    /**
+     * Pushes all authors ordered by ID to the consumer in constant memory.
+     */
+    void exportAuthors(Consumer<AuthorDto> consumer);
+
+    /**
+     * Pushes authors with IDs from first to last ordered by ID to the consumer in constant memory. Authors are read
+     * on the primary in a new read-only transaction, so all authors of a transaction that has just committed
+     * are seen.
+     */
+    void exportAuthorsByIdRange(Long firstId, Long lastId, Consumer<AuthorDto> consumer);
 
     AuthorDto saveNewAuthor(AuthorRequestDto authorDto);
 
+    /**
+     * Saves all authors in one transaction, sending inserts to the database in JDBC batches.
+     * Neither the authors nor their DTOs are kept until the transaction commits, the indexes reload them
+     * by the range of their IDs published in one {@link by.iyunski.library.service.events.AuthorsImportedEvent}.
+     */
+    BulkResultDto saveNewAuthors(Stream<AuthorRequestDto> authorRequestDtos);
+
+    /**
+     * Reads the author on the primary, as it is cached and a lagging replica could return it as it was
+     * before the last change.
+     */
     AuthorDto getAuthorById(Long id);
 
-    AuthorDto updateAuthor(Long id, AuthorRequestDto authorRequestDto);
+    /**
+     * The author from the DTO cache, without a transaction or a query, so that a request answered from the cache
+     * does not reach the database even to read the version.
+     *
+     * @return empty if the author is not cached
+     */
+    Optional<AuthorDto> getCachedAuthorById(Long id);
+
+    /**
+     * Authors with the given IDs in order of the IDs, missing ones are skipped. Cached authors are not queried,
+     * the rest are loaded from the primary with one {@code IN} query per {@code library.fetch.chunk-size} IDs
+     * and cached.
+     */
+    List<AuthorDto> getAuthorsByIds(List<Long> ids);
+
+    /**
+     * Author with all its books, loaded with one query.
+     */
+    AuthorWithBooksDto getAuthorWithBooksById(Long id);
 
-    Long deleteAuthorById(Long id);
+    /**
+     * Adds all books to the authors, books of all of them are loaded with one {@code IN} query
+     * per {@code library.fetch.chunk-size} authors.
+     */
+    List<AuthorWithBooksDto> includeBooks(List<AuthorDto> authors);
 
+    /**
+     * Reads the version of the author without loading it, so that an unchanged author is not loaded at all.
+     * The version is read on the primary, so that a client is never told that the author it has just changed
+     * is not modified.
+     */
+    Long getAuthorVersion(Long id);
+
+    /**
+     * Updates the author if its version equals the expected one, a null expected version matches any version.
+     */
+    AuthorDto updateAuthor(Long id, AuthorRequestDto authorRequestDto, Long expectedVersion);
+
+    /**
+     * Deletes the author and all its books with two set-based statements.
+     *
+     * @return number of deleted books
+     */
+    int deleteAuthorById(Long id);
+
+    /**
+     * Reads the books on the primary, as they are cached.
+     */
     List<BookDto> getAllBooksOfAuthorByAuthorId(Long id);
 
+    /**
+     * The books of the author from the DTO cache, without a transaction or a query, like
+     * {@link #getCachedAuthorById(Long)}.
+     *
+     * @return empty if the books are not cached
+     */
+    Optional<List<BookDto>> getCachedBooksOfAuthorByAuthorId(Long id);
+
+    /**
+     * Reads a value that changes with any change of the books of the author, without loading them,
+     * on the primary like {@link #getAuthorVersion(Long)}.
+     *
+     * @return null if the author has no books or does not exist
+     */
+    String getVersionOfBooksOfAuthor(Long id);
+
     BookDto getBookOfAuthorByBookId(Long authorId, Long bookId);
 
+    /**
+     * Saves the book of the author locked for update and increments its number of books,
+     * the books of the author are not loaded.
+     */
     BookDto saveNewBookOfAuthorByAuthorId(Long id, BookRequestDto bookRequestDto);
 
-    BookDto updateAuthorsBook(Long authorId, Long bookId, BookRequestDto bookRequestDto);
+    /**
+     * Saves all books of the author in one transaction, sending inserts to the database in JDBC batches.
+     */
+    List<BookDto> saveNewBooksOfAuthorByAuthorId(Long id, List<BookRequestDto> bookRequestDtos);
+
+    /**
+     * Updates the book if its version equals the expected one, a null expected version matches any version.
+     */
+    BookDto updateAuthorsBook(Long authorId, Long bookId, BookRequestDto bookRequestDto, Long expectedVersion);
 
     Long deleteAuthorsBookById(Long authorId, Long bookId);
+
+    /**
+     * Sets the number of books of the next {@code limit} authors after the cursor to the number of their rows
+     * in the book table, wherever it has drifted, e.g. after changes made directly in the database.
+     *
+     * @return IDs of repaired authors and the cursor of the next batch, which is null after the last one
+     */
+    CursorPageDto<Long> reconcileBookCounts(String after, Integer limit);
 }
@@ -0,0 +1,36 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.BookFilterDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public interface BookService {
+    /**
+     * Pushes all books of all authors ordered by ID to the consumer in constant memory.
+     */
+    void exportBooks(Consumer<BookDto> consumer);
+
+    BookDto getBookByIsbn(String isbn);
+
+    /**
+     * Books with the given IDs in order of the IDs, missing ones are skipped.
+     * They are loaded with one {@code IN} query per {@code library.fetch.chunk-size} IDs.
+     */
+    List<BookDto> getBooksByIds(List<Long> ids);
+
+    /**
+     * Keyset page of books of all authors matching the filter, ordered by year of publication and then by ID.
+     * The query is served by an index and cancelled if it takes longer than {@code library.filter.query-timeout}.
+     */
+    CursorPageDto<BookDto> findBooks(BookFilterDto filter, String after, Integer limit);
+
+    /**
+     * The same page as {@link #findBooks} gives for the filter, but only the given fields of books are selected
+     * from the database, without loading whole books.
+     */
+    CursorPageDto<Map<String, Object>> findBookFields(BookFilterDto filter, List<String> fields, String after, Integer limit);
+}
@@ -0,0 +1,13 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.service.dtos.FacetFilterDto;
+import by.iyunski.library.service.dtos.FacetResultDto;
+
+public interface FacetService {
+    /**
+     * Keyset page of Books matching all selected facets ordered by ID, and numbers of matching Books per genre,
+     * decade of publication and country of Author. Matching and counting are done in memory, only the Books
+     * of the page are loaded from the database by their IDs.
+     */
+    FacetResultDto getFacets(FacetFilterDto filter, String after, Integer limit);
+}
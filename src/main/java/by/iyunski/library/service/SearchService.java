@@ -0,0 +1,11 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.service.dtos.SearchResultDto;
+
+public interface SearchService {
+    /**
+     * Finds up to {@code limit} Authors by names and up to {@code limit} Books by titles and genres
+     * containing any word of the query, ranked by relevance.
+     */
+    SearchResultDto search(String query, Integer limit);
+}
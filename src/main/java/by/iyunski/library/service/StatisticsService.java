@@ -0,0 +1,16 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.service.dtos.AuthorStatisticsDto;
+import by.iyunski.library.service.dtos.StatisticsDto;
+
+public interface StatisticsService {
+    /**
+     * Returns statistics of Books kept in memory, without querying the database.
+     */
+    StatisticsDto getStatistics();
+
+    /**
+     * Returns statistics of Books of the Author kept in memory, without querying the database.
+     */
+    AuthorStatisticsDto getAuthorStatistics(Long authorId);
+}
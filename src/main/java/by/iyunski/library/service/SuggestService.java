@@ -0,0 +1,13 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+
+import java.util.List;
+
+public interface SuggestService {
+    /**
+     * Finds up to {@code limit} Authors whose last name, first name or full name starts with the prefix
+     * without a database round trip.
+     */
+    List<AuthorDto> suggestAuthors(String prefix, Integer limit);
+}
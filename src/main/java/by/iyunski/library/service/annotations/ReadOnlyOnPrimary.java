@@ -0,0 +1,22 @@
+package by.iyunski.library.service.annotations;
+
+import by.iyunski.library.persistence.datasource.ReadWriteRoutingDataSource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Read-only transaction, which reads the primary even while the replica is available. Used by reads that
+ * fill caches or answer conditional requests, which must see the latest writes. Without a replica it is
+ * a plain read-only transaction.
+ */
+@Documented
+@Transactional(readOnly = true, label = ReadWriteRoutingDataSource.PRIMARY)
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyOnPrimary {
+}
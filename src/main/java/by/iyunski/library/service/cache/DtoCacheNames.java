@@ -0,0 +1,17 @@
+package by.iyunski.library.service.cache;
+
+import java.util.List;
+
+/**
+ * Names of caches of ready-made DTOs, all of them are keyed by author ID.
+ */
+public final class DtoCacheNames {
+
+    public static final String AUTHORS = "authors";
+    public static final String BOOKS_OF_AUTHOR = "books-of-author";
+
+    public static final List<String> ALL = List.of(AUTHORS, BOOKS_OF_AUTHOR);
+
+    private DtoCacheNames() {
+    }
+}
@@ -10,5 +10,12 @@ public record AuthorDto(Long id,
                         String firstName,
                         String lastName,
                         LocalDate dateOfBirth,
-                        String country) implements Serializable {
-}
\ No newline at end of file
+                        String country,
+                        Integer bookCount,
+                        Long version) implements Serializable {
+
+    /**
+     * Fields that can be requested in a sparse fieldset.
+     */
+    public static final String FIELDS_PATTERN = "id|firstName|lastName|dateOfBirth|country|bookCount|version";
+}
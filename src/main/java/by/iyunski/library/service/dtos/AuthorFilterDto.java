@@ -0,0 +1,30 @@
+package by.iyunski.library.service.dtos;
+
+import java.time.LocalDate;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Filter of Authors, every {@code null} field matches any Author. Filtered Authors are served by indexes ordered by
+ * date of birth, so only unfiltered Authors can be sorted by ID.
+ */
+public record AuthorFilterDto(String country,
+                              LocalDate bornAfter,
+                              LocalDate bornBefore,
+                              String sort) {
+
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_DATE_OF_BIRTH = "dateOfBirth";
+    public static final String SORT_PATTERN = SORT_BY_ID + "|" + SORT_BY_DATE_OF_BIRTH;
+
+    public boolean hasPredicates() {
+        return !isNull(country) || !isNull(bornAfter) || !isNull(bornBefore);
+    }
+
+    /**
+     * @return true if the filter selects the page of all Authors ordered by ID
+     */
+    public boolean isEmpty() {
+        return !hasPredicates() && (isNull(sort) || SORT_BY_ID.equals(sort));
+    }
+}
@@ -0,0 +1,11 @@
+package by.iyunski.library.service.dtos;
+
+import java.io.Serializable;
+
+/**
+ * Number of Books of Author and their total pages.
+ */
+public record AuthorStatisticsDto(Long authorId,
+                                  long books,
+                                  long pages) implements Serializable {
+}
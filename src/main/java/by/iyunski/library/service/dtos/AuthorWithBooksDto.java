@@ -0,0 +1,23 @@
+package by.iyunski.library.service.dtos;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO for {@link by.iyunski.library.persistence.model.Author} with all its books
+ */
+public record AuthorWithBooksDto(Long id,
+                                 String firstName,
+                                 String lastName,
+                                 LocalDate dateOfBirth,
+                                 String country,
+                                 Integer bookCount,
+                                 Long version,
+                                 List<BookDto> books) implements Serializable {
+
+    public static AuthorWithBooksDto of(AuthorDto author, List<BookDto> books) {
+        return new AuthorWithBooksDto(author.id(), author.firstName(), author.lastName(), author.dateOfBirth(),
+                author.country(), author.bookCount(), author.version(), books);
+    }
+}
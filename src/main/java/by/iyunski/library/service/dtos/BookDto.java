@@ -10,5 +10,12 @@ public record BookDto(Long id,
                       String genre,
                       Integer yearOfPublication,
                       Integer numberOfPages,
-                      String isbn) implements Serializable {
+                      String isbn,
+                      Long authorId,
+                      Long version) implements Serializable {
+
+    /**
+     * Fields that can be requested in a sparse fieldset.
+     */
+    public static final String FIELDS_PATTERN = "id|title|genre|yearOfPublication|numberOfPages|isbn|authorId|version";
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package by.iyunski.library.service.dtos;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Filter of Books of all Authors, every {@code null} field matches any Book. Filtered Books are ordered
+ * by year of publication and then by ID.
+ */
+public record BookFilterDto(String genre,
+                            Integer yearFrom,
+                            Integer yearTo,
+                            Integer minPages) {
+
+    public boolean hasPredicates() {
+        return hasIndexedPredicates() || !isNull(minPages);
+    }
+
+    /**
+     * @return true if the filter has a predicate on genre or year of publication, which can be served by an index
+     */
+    public boolean hasIndexedPredicates() {
+        return !isNull(genre) || !isNull(yearFrom) || !isNull(yearTo);
+    }
+}
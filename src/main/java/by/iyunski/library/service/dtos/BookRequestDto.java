@@ -26,8 +26,10 @@ public record BookRequestDto(@Size(max = 255)
                              @Min(1)
                              @Max(9999)
                              Integer numberOfPages,
-                             @Pattern(regexp = "^97[89][0-9]{10}$",
+                             @Pattern(regexp = ISBN_PATTERN,
                                      message = "ISBN must contain only digits, be a length of 13 digits and start with 978 or 979")
                              @NotNull
                              String isbn) implements Serializable {
+
+    public static final String ISBN_PATTERN = "^97[89][0-9]{10}$";
 }
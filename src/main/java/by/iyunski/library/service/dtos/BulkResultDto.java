@@ -0,0 +1,9 @@
+package by.iyunski.library.service.dtos;
+
+import java.io.Serializable;
+
+/**
+ * Result of bulk creation
+ */
+public record BulkResultDto(Long created) implements Serializable {
+}
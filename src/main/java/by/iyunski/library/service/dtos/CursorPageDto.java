@@ -0,0 +1,12 @@
+package by.iyunski.library.service.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * One keyset page of results and the opaque cursor of the next page,
+ * {@code nextCursor} is {@code null} when there are no more results
+ */
+public record CursorPageDto<T>(List<T> content,
+                               String nextCursor) implements Serializable {
+}
@@ -0,0 +1,10 @@
+package by.iyunski.library.service.dtos;
+
+/**
+ * Selected values of facets of Books, every {@code null} field matches any Book.
+ * {@code decade} is the first year of a decade, like 1990.
+ */
+public record FacetFilterDto(String genre,
+                             Integer decade,
+                             String country) {
+}
@@ -0,0 +1,18 @@
+package by.iyunski.library.service.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of Books matching selected facets ordered by ID, the cursor of the next page, which is {@code null}
+ * on the last page, the number of all matching Books, and their numbers per genre, decade of publication
+ * and country of Author.
+ */
+public record FacetResultDto(List<BookDto> books,
+                             String nextCursor,
+                             long total,
+                             Map<String, Long> booksByGenre,
+                             Map<Integer, Long> booksByDecade,
+                             Map<String, Long> booksByCountry) implements Serializable {
+}
@@ -0,0 +1,11 @@
+package by.iyunski.library.service.dtos;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Authors and Books matching a full-text query, the most relevant first.
+ */
+public record SearchResultDto(List<AuthorDto> authors,
+                              List<BookDto> books) implements Serializable {
+}
@@ -0,0 +1,12 @@
+package by.iyunski.library.service.dtos;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Numbers of Books per genre, year of publication and country of Author.
+ */
+public record StatisticsDto(Map<String, Long> booksByGenre,
+                            Map<Integer, Long> booksByYearOfPublication,
+                            Map<String, Long> booksByCountry) implements Serializable {
+}
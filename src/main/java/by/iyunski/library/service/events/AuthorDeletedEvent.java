@@ -0,0 +1,7 @@
+package by.iyunski.library.service.events;
+
+/**
+ * Published when Author is deleted together with all of its Books.
+ */
+public record AuthorDeletedEvent(Long authorId) {
+}
@@ -0,0 +1,8 @@
+package by.iyunski.library.service.events;
+
+/**
+ * Published once when Authors are imported in bulk, with the range of their IDs rather than the Authors.
+ * Other Authors may have IDs in the range too.
+ */
+public record AuthorsImportedEvent(Long firstId, Long lastId) {
+}
@@ -0,0 +1,11 @@
+package by.iyunski.library.service.events;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+
+import java.util.List;
+
+/**
+ * Published when Authors are created or updated.
+ */
+public record AuthorsSavedEvent(List<AuthorDto> authors) {
+}
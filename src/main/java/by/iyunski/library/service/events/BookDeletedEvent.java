@@ -0,0 +1,7 @@
+package by.iyunski.library.service.events;
+
+/**
+ * Published when Book of Author is deleted.
+ */
+public record BookDeletedEvent(Long authorId, Long bookId) {
+}
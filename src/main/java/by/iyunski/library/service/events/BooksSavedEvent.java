@@ -0,0 +1,11 @@
+package by.iyunski.library.service.events;
+
+import by.iyunski.library.service.dtos.BookDto;
+
+import java.util.List;
+
+/**
+ * Published when Books are created or updated.
+ */
+public record BooksSavedEvent(List<BookDto> books) {
+}
@@ -0,0 +1,316 @@
+package by.iyunski.library.service.facet;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.FacetFilterDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
+import by.iyunski.library.service.index.RebuildableIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.ContainerPointer;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Compressed bitmaps of Book IDs per genre, decade of publication, country of Author and Author.
+ * Books matching selected facets are the intersection of their bitmaps, and the count of every facet value
+ * is the cardinality of its intersection with them, so browsing never queries the database.
+ * Its estimated size is reported as {@code library.facets.memory} and
+ * {@code library.facets.memory.per.million.books} gauges.
+ * Facet values of a Book are not stored apart from the bitmaps, so the index takes a few bytes per Book.
+ * Book IDs are kept as 32-bit integers, which is enough for IDs generated by the database.
+ */
+@Component
+@Slf4j
+public class BookFacetIndex extends RebuildableIndex<BookFacetIndex.Bitmaps> {
+
+    /**
+     * Rough size in bytes of a map entry of a country of Author.
+     */
+    private static final int ENTRY_BYTES = 100;
+    /**
+     * Rough sizes in bytes of what {@link RoaringBitmap#getLongSizeInBytes()} leaves out, as it counts only
+     * the serialized data of containers: a {@code HashMap} entry with its node, boxed key and table slot,
+     * the objects of a bitmap itself and the object of each of its containers. Measured for bitmaps of a few
+     * random Book IDs on a 64-bit JVM with compressed references, where a bitmap of one Book in a map
+     * takes about 200 bytes while reporting 16.
+     */
+    private static final int MAP_ENTRY_BYTES = 56;
+    private static final int BITMAP_BYTES = 88;
+    private static final int CONTAINER_BYTES = 48;
+    private static final int YEARS_IN_DECADE = 10;
+    private static final double MILLION = 1_000_000d;
+
+    /**
+     * IDs of a page of matching Books, the number of all matching Books and their numbers per facet value.
+     */
+    public record Facets(List<Long> bookIds,
+                         long total,
+                         Map<String, Long> booksByGenre,
+                         Map<Integer, Long> booksByDecade,
+                         Map<String, Long> booksByCountry) {
+    }
+
+    /**
+     * Bitmaps of all Books and of every facet value, and countries of Authors to find the bitmap of a new Book.
+     */
+    static class Bitmaps {
+        private final RoaringBitmap allBooks = new RoaringBitmap();
+        private final Map<String, RoaringBitmap> booksByGenre = new HashMap<>();
+        private final Map<Integer, RoaringBitmap> booksByDecade = new HashMap<>();
+        private final Map<String, RoaringBitmap> booksByCountry = new HashMap<>();
+        private final Map<Long, RoaringBitmap> booksByAuthor = new HashMap<>();
+        private final Map<Long, String> countryOfAuthor = new HashMap<>();
+
+        /**
+         * Intersects bitmaps of the selected facets, a facet value without Books matches nothing.
+         */
+        private RoaringBitmap match(FacetFilterDto filter) {
+            List<RoaringBitmap> selected = new ArrayList<>();
+            if (filter.genre() != null) {
+                selected.add(booksByGenre.getOrDefault(filter.genre(), new RoaringBitmap()));
+            }
+            if (filter.decade() != null) {
+                selected.add(booksByDecade.getOrDefault(decadeOf(filter.decade()), new RoaringBitmap()));
+            }
+            if (filter.country() != null) {
+                selected.add(booksByCountry.getOrDefault(filter.country(), new RoaringBitmap()));
+            }
+            return switch (selected.size()) {
+                case 0 -> allBooks;
+                case 1 -> selected.get(0);
+                default -> FastAggregation.and(selected.iterator());
+            };
+        }
+
+        private void putAuthor(AuthorDto author) {
+            String oldCountry = countryOfAuthor.put(author.id(), author.country());
+            RoaringBitmap booksOfAuthor = booksByAuthor.get(author.id());
+            if (!Objects.equals(oldCountry, author.country()) && booksOfAuthor != null) {
+                if (oldCountry != null) {
+                    booksByCountry.computeIfPresent(oldCountry, (country, bitmap) -> {
+                        bitmap.andNot(booksOfAuthor);
+                        return bitmap.isEmpty() ? null : bitmap;
+                    });
+                }
+                booksByCountry.computeIfAbsent(author.country(), country -> new RoaringBitmap()).or(booksOfAuthor);
+            }
+        }
+
+        private void removeAuthor(Long authorId) {
+            RoaringBitmap booksOfAuthor = booksByAuthor.remove(authorId);
+            if (booksOfAuthor != null) {
+                allBooks.andNot(booksOfAuthor);
+                Stream.of(booksByGenre, booksByDecade, booksByCountry)
+                        .forEach(bitmaps -> bitmaps.values().removeIf(bitmap -> {
+                            bitmap.andNot(booksOfAuthor);
+                            return bitmap.isEmpty();
+                        }));
+            }
+            countryOfAuthor.remove(authorId);
+        }
+
+        /**
+         * Book never changes its Author, so a saved Book is only taken back from the bitmaps of its Author.
+         */
+        private void putBook(BookDto book) {
+            int bookId = Math.toIntExact(book.id());
+            removeBook(book.authorId(), bookId);
+            allBooks.add(bookId);
+            add(booksByGenre, book.genre(), bookId);
+            add(booksByDecade, decadeOf(book.yearOfPublication()), bookId);
+            add(booksByAuthor, book.authorId(), bookId);
+            String country = countryOfAuthor.get(book.authorId());
+            if (country != null) {
+                add(booksByCountry, country, bookId);
+            }
+        }
+
+        /**
+         * Genre and decade of the Book are not stored, so it is removed from every bitmap of them that contains it.
+         */
+        private void removeBook(Long authorId, int bookId) {
+            if (allBooks.checkedRemove(bookId)) {
+                Stream.of(booksByGenre, booksByDecade)
+                        .forEach(bitmaps -> bitmaps.values().removeIf(bitmap -> bitmap.checkedRemove(bookId) && bitmap.isEmpty()));
+                remove(booksByAuthor, authorId, bookId);
+                String country = countryOfAuthor.get(authorId);
+                if (country != null) {
+                    remove(booksByCountry, country, bookId);
+                }
+            }
+        }
+
+        private Stream<RoaringBitmap> bitmaps() {
+            return Stream.of(Stream.of(allBooks),
+                            booksByGenre.values().stream(),
+                            booksByDecade.values().stream(),
+                            booksByCountry.values().stream(),
+                            booksByAuthor.values().stream())
+                    .flatMap(bitmaps -> bitmaps);
+        }
+
+        /**
+         * Bitmaps of Authors are the most numerous ones and small, so their per-entry overhead
+         * takes more than their data and is counted along with it.
+         */
+        private long estimateBytes() {
+            long mapEntries = booksByGenre.size() + booksByDecade.size() + booksByCountry.size() + booksByAuthor.size();
+            return bitmaps().mapToLong(BookFacetIndex::estimateBytes).sum()
+                    + MAP_ENTRY_BYTES * mapEntries
+                    + (long) ENTRY_BYTES * countryOfAuthor.size();
+        }
+
+        /**
+         * Counts matching Books per facet value, ordered by values, leaving out values without matching Books.
+         * When all Books match, the counts are cardinalities of the bitmaps, which are kept by them.
+         */
+        private <K> Map<K, Long> count(Map<K, RoaringBitmap> bitmaps, RoaringBitmap matches) {
+            Map<K, Long> counts = new TreeMap<>();
+            bitmaps.forEach((value, bitmap) -> {
+                long count = matches == allBooks
+                        ? bitmap.getLongCardinality()
+                        : RoaringBitmap.andCardinality(bitmap, matches);
+                if (count > 0) {
+                    counts.put(value, count);
+                }
+            });
+            return counts;
+        }
+    }
+
+    public BookFacetIndex(MeterRegistry meterRegistry) {
+        super(new Bitmaps());
+        Gauge.builder("library.facets.memory", this, BookFacetIndex::estimateBytes)
+                .description("Estimated memory occupied by the book facet index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("library.facets.memory.per.million.books", this, BookFacetIndex::estimateBytesPerMillionBooks)
+                .description("Estimated memory occupied by the book facet index per million indexed books")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the first year of the decade of the year, like 1990 for 1998
+     */
+    public static int decadeOf(int year) {
+        return Math.floorDiv(year, YEARS_IN_DECADE) * YEARS_IN_DECADE;
+    }
+
+    /**
+     * Finds up to {@code limit} Books with IDs greater than {@code afterId} matching all selected facets,
+     * in order of IDs, and counts values of every facet among all matching Books.
+     */
+    public Facets facets(FacetFilterDto filter, long afterId, int limit) {
+        return read(bitmaps -> {
+            RoaringBitmap matches = bitmaps.match(filter);
+            List<Long> bookIds = new ArrayList<>(limit);
+            if (afterId < Integer.MAX_VALUE) {
+                PeekableIntIterator iterator = matches.getIntIterator();
+                iterator.advanceIfNeeded((int) afterId + 1);
+                while (iterator.hasNext() && bookIds.size() < limit) {
+                    bookIds.add((long) iterator.next());
+                }
+            }
+            return new Facets(bookIds,
+                    matches.getLongCardinality(),
+                    bitmaps.count(bitmaps.booksByGenre, matches),
+                    bitmaps.count(bitmaps.booksByDecade, matches),
+                    bitmaps.count(bitmaps.booksByCountry, matches));
+        });
+    }
+
+    public long estimateBytes() {
+        return read(Bitmaps::estimateBytes);
+    }
+
+    public double estimateBytesPerMillionBooks() {
+        return read(bitmaps -> bitmaps.allBooks.isEmpty()
+                ? 0
+                : bitmaps.estimateBytes() * MILLION / bitmaps.allBooks.getLongCardinality());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsSaved(AuthorsSavedEvent event) {
+        change(bitmaps -> event.authors().forEach(bitmaps::putAuthor));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        change(bitmaps -> bitmaps.removeAuthor(event.authorId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksSaved(BooksSavedEvent event) {
+        change(bitmaps -> event.books().forEach(bitmaps::putBook));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        change(bitmaps -> bitmaps.removeBook(event.authorId(), Math.toIntExact(event.bookId())));
+    }
+
+    @Override
+    protected Bitmaps newState() {
+        return new Bitmaps();
+    }
+
+    @Override
+    protected void putAuthor(Bitmaps bitmaps, AuthorDto author) {
+        bitmaps.putAuthor(author);
+    }
+
+    @Override
+    protected void putBook(Bitmaps bitmaps, BookDto book) {
+        bitmaps.putBook(book);
+    }
+
+    /**
+     * Bitmaps filled in order of IDs compress well into runs, which are found once the index is built.
+     */
+    @Override
+    protected void built(Bitmaps bitmaps) {
+        bitmaps.bitmaps().forEach(RoaringBitmap::runOptimize);
+        log.info("Facet index is built with {} books of {} authors",
+                bitmaps.allBooks.getLongCardinality(), bitmaps.countryOfAuthor.size());
+    }
+
+    private static long estimateBytes(RoaringBitmap bitmap) {
+        long containers = 0;
+        for (ContainerPointer pointer = bitmap.getContainerPointer(); pointer.getContainer() != null; pointer.advance()) {
+            containers++;
+        }
+        return bitmap.getLongSizeInBytes() + BITMAP_BYTES + CONTAINER_BYTES * containers;
+    }
+
+    private static <K> void add(Map<K, RoaringBitmap> bitmaps, K key, int bookId) {
+        bitmaps.computeIfAbsent(key, value -> new RoaringBitmap()).add(bookId);
+    }
+
+    /**
+     * Removes the Book from the bitmap, removing the bitmap when it becomes empty.
+     */
+    private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K key, int bookId) {
+        bitmaps.computeIfPresent(key, (value, bitmap) -> {
+            bitmap.remove(bookId);
+            return bitmap.isEmpty() ? null : bitmap;
+        });
+    }
+}
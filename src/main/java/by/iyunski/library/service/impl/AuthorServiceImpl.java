@@ -1,24 +1,74 @@
 package by.iyunski.library.service.impl;
 
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.persistence.datasource.ReadWriteRoutingDataSource;
 import by.iyunski.library.persistence.model.Author;
 import by.iyunski.library.persistence.model.Book;
+import by.iyunski.library.persistence.repository.AttributeProjections;
 import by.iyunski.library.persistence.repository.AuthorRepository;
+import by.iyunski.library.persistence.repository.BookRepository;
+import by.iyunski.library.persistence.specification.AuthorSpecifications;
 import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.annotations.ReadOnlyOnPrimary;
+import by.iyunski.library.service.cache.DtoCacheNames;
 import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.AuthorFilterDto;
 import by.iyunski.library.service.dtos.AuthorRequestDto;
+import by.iyunski.library.service.dtos.AuthorWithBooksDto;
 import by.iyunski.library.service.dtos.BookDto;
 import by.iyunski.library.service.dtos.BookRequestDto;
+import by.iyunski.library.service.dtos.BulkResultDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsImportedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
 import by.iyunski.library.service.mapper.AuthorMapper;
 import by.iyunski.library.service.mapper.BookMapper;
+import by.iyunski.library.service.util.CacheModes;
+import by.iyunski.library.service.util.CursorCodec;
+import by.iyunski.library.service.util.FieldSets;
+import by.iyunski.library.service.util.IdBatches;
+import by.iyunski.library.service.util.KeysetPages;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.ErrorResponseException;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static by.iyunski.library.persistence.specification.AuthorSpecifications.afterDateOfBirthAndId;
+import static by.iyunski.library.persistence.specification.AuthorSpecifications.afterId;
+import static by.iyunski.library.persistence.specification.AuthorSpecifications.bornAfter;
+import static by.iyunski.library.persistence.specification.AuthorSpecifications.bornBefore;
+import static by.iyunski.library.persistence.specification.AuthorSpecifications.hasCountry;
+import static org.springframework.data.jpa.domain.Specification.where;
 
 @Service
 @Slf4j
@@ -26,33 +76,121 @@ import java.util.Optional;
 public class AuthorServiceImpl implements AuthorService {
 
     private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
     private final AuthorMapper authorMapper;
     private final BookMapper bookMapper;
+    private final EntityManager entityManager;
+    private final LibraryProperties libraryProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheManager cacheManager;
+    private final AttributeProjections attributeProjections;
 
     public static final String AUTHOR_WITH_ID_NOT_FOUND = "Author with ID: {} not found";
     public static final String BOOK_WITH_ID_OF_AUTHOR_WITH_ID_NOT_FOUND = "Book with ID: {} of author with ID: {} not found";
+    private static final String AUTHOR_BOOKS_ROLE = Author.class.getName() + ".books";
 
     @Override
-    public List<AuthorDto> getAllAuthors() {
-        List<Author> authors = authorRepository.findAll();
+    @Transactional(readOnly = true)
+    public CursorPageDto<AuthorDto> getAllAuthors(String after, Integer limit) {
+        Long lastId = CursorCodec.decode(after);
+        List<Author> authors = authorRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.ofSize(limit + 1));
         if (authors.isEmpty()) {
-            log.warn("There is no authors in DB");
+            log.warn("There is no authors in DB after ID: {}", lastId);
             throw new ErrorResponseException(HttpStatus.NO_CONTENT);
         } else {
-            return authors.stream()
-                    .map(authorMapper::toDto)
-                    .toList();
+            return KeysetPages.toPage(authors, limit, authorMapper::toDto, last -> CursorCodec.encode(last.getId()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = LibraryProperties.FILTER_QUERY_TIMEOUT)
+    public CursorPageDto<AuthorDto> findAuthors(AuthorFilterDto filter, String after, Integer limit) {
+        List<Author> authors = KeysetPages.findPage(authorRepository, toSpecification(filter, after),
+                AuthorSpecifications.BY_DATE_OF_BIRTH, limit);
+        if (authors.isEmpty()) {
+            log.warn("There is no authors in DB matching {} after cursor: {}", filter, after);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            return KeysetPages.toPage(authors, limit, authorMapper::toDto,
+                    last -> CursorCodec.encode(last.getDateOfBirth(), last.getId()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = LibraryProperties.FILTER_QUERY_TIMEOUT)
+    public CursorPageDto<Map<String, Object>> findAuthorFields(AuthorFilterDto filter, List<String> fields,
+                                                               String after, Integer limit) {
+        Specification<Author> specification = filter.isEmpty()
+                ? afterId(CursorCodec.decode(after))
+                : toSpecification(filter, after);
+        Sort sort = filter.isEmpty() ? AuthorSpecifications.BY_ID : AuthorSpecifications.BY_DATE_OF_BIRTH;
+        List<Map<String, Object>> rows = attributeProjections.findAttributes(Author.class,
+                FieldSets.attributePaths(fields, Map.of(), sort), specification, sort, limit + 1);
+        if (rows.isEmpty()) {
+            log.warn("There is no authors in DB matching {} after cursor: {}", filter, after);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            return KeysetPages.toPage(rows, limit, row -> FieldSets.fieldsOf(row, fields, Map.of()), last -> {
+                Long lastId = (Long) last.get(AuthorSpecifications.ID);
+                return filter.isEmpty()
+                        ? CursorCodec.encode(lastId)
+                        : CursorCodec.encode(last.get(AuthorSpecifications.DATE_OF_BIRTH), lastId);
+            });
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAuthors(Consumer<AuthorDto> consumer) {
+        CacheModes.ignoringSecondLevelCache(entityManager, () -> {
+            try (Stream<Author> authors = authorRepository.streamAllByOrderByIdAsc()) {
+                exportAuthors(authors, consumer);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW, label = ReadWriteRoutingDataSource.PRIMARY)
+    public void exportAuthorsByIdRange(Long firstId, Long lastId, Consumer<AuthorDto> consumer) {
+        CacheModes.ignoringSecondLevelCache(entityManager, () -> {
+            try (Stream<Author> authors = authorRepository.streamAllByIdBetweenOrderByIdAsc(firstId, lastId)) {
+                exportAuthors(authors, consumer);
+            }
+        });
+    }
+
     @Override
     public AuthorDto saveNewAuthor(AuthorRequestDto authorRequestDto) {
         Author author = authorMapper.toEntity(authorRequestDto);
         Author savedAuthor = authorRepository.save(author);
-        return authorMapper.toDto(savedAuthor);
+        AuthorDto authorDto = authorMapper.toDto(savedAuthor);
+        eventPublisher.publishEvent(new AuthorsSavedEvent(List.of(authorDto)));
+        return authorDto;
     }
 
     @Override
+    @Transactional
+    public BulkResultDto saveNewAuthors(Stream<AuthorRequestDto> authorRequestDtos) {
+        int batchSize = libraryProperties.getBulk().getBatchSize();
+        LongSummaryStatistics savedIds = new LongSummaryStatistics();
+        Iterator<AuthorRequestDto> iterator = authorRequestDtos.iterator();
+        while (iterator.hasNext()) {
+            savedIds.accept(authorRepository.save(authorMapper.toEntity(iterator.next())).getId());
+            if (savedIds.getCount() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        if (savedIds.getCount() > 0) {
+            eventPublisher.publishEvent(new AuthorsImportedEvent(savedIds.getMin(), savedIds.getMax()));
+        }
+        log.debug("Saved {} new authors", savedIds.getCount());
+        return new BulkResultDto(savedIds.getCount());
+    }
+
+    @Override
+    @Cacheable(cacheNames = DtoCacheNames.AUTHORS, key = "#id", sync = true)
+    @ReadOnlyOnPrimary
     public AuthorDto getAuthorById(Long id) {
         Optional<Author> author = authorRepository.findById(id);
         if (author.isPresent()) {
@@ -64,13 +202,78 @@ public class AuthorServiceImpl implements AuthorService {
     }
 
     @Override
+    public Optional<AuthorDto> getCachedAuthorById(Long id) {
+        Cache authorsCache = cacheManager.getCache(DtoCacheNames.AUTHORS);
+        return Optional.ofNullable(authorsCache == null ? null : authorsCache.get(id, AuthorDto.class));
+    }
+
+    @Override
+    @ReadOnlyOnPrimary
+    public List<AuthorDto> getAuthorsByIds(List<Long> ids) {
+        Cache authorsCache = cacheManager.getCache(DtoCacheNames.AUTHORS);
+        List<AuthorDto> authors = IdBatches.loadInOrder(ids, libraryProperties.getFetch().getChunkSize(),
+                chunk -> loadAuthors(chunk, authorsCache), AuthorDto::id);
+        if (authors.isEmpty()) {
+            log.warn("There is no authors in DB with IDs: {}", ids);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        }
+        return authors;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuthorWithBooksDto getAuthorWithBooksById(Long id) {
+        Optional<Author> author = authorRepository.findWithBooksById(id);
+        if (author.isPresent()) {
+            List<BookDto> books = author.get().getBooks().stream()
+                    .map(bookMapper::toDto)
+                    .toList();
+            return AuthorWithBooksDto.of(authorMapper.toDto(author.get()), books);
+        } else {
+            log.warn("There is no author in DB with ID: {}", id);
+            throw new ErrorResponseException(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuthorWithBooksDto> includeBooks(List<AuthorDto> authors) {
+        List<Long> authorIds = authors.stream()
+                .map(AuthorDto::id)
+                .toList();
+        Map<Long, List<BookDto>> booksByAuthorId = IdBatches.loadInChunks(authorIds,
+                        libraryProperties.getFetch().getChunkSize(), bookRepository::findAllByAuthorIdIn).stream()
+                .map(bookMapper::toDto)
+                .collect(Collectors.groupingBy(BookDto::authorId));
+        return authors.stream()
+                .map(author -> AuthorWithBooksDto.of(author, booksByAuthorId.getOrDefault(author.id(), List.of())))
+                .toList();
+    }
+
+    @Override
+    @ReadOnlyOnPrimary
+    public Long getAuthorVersion(Long id) {
+        Optional<Long> version = authorRepository.findVersionById(id);
+        if (version.isPresent()) {
+            return version.get();
+        } else {
+            log.warn("There is no author in DB with ID: {}", id);
+            throw new ErrorResponseException(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Override
+    @CachePut(cacheNames = DtoCacheNames.AUTHORS, key = "#id")
     @Transactional
-    public AuthorDto updateAuthor(Long id, AuthorRequestDto authorRequestDto) {
+    public AuthorDto updateAuthor(Long id, AuthorRequestDto authorRequestDto, Long expectedVersion) {
         Optional<Author> author = authorRepository.findById(id);
         if (author.isPresent()) {
+            checkVersion(expectedVersion, author.get().getVersion());
             Author updatedAuthor = authorMapper.partialUpdate(authorRequestDto, author.get());
-            Author savedAuthor = authorRepository.save(updatedAuthor);
-            return authorMapper.toDto(savedAuthor);
+            Author savedAuthor = authorRepository.saveAndFlush(updatedAuthor);
+            AuthorDto authorDto = authorMapper.toDto(savedAuthor);
+            eventPublisher.publishEvent(new AuthorsSavedEvent(List.of(authorDto)));
+            return authorDto;
         } else {
             log.warn("Author cannot be updated, because there is no author in DB with ID: {}", id);
             throw new ErrorResponseException(HttpStatus.NOT_FOUND);
@@ -78,12 +281,19 @@ public class AuthorServiceImpl implements AuthorService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DtoCacheNames.AUTHORS, key = "#id"),
+            @CacheEvict(cacheNames = DtoCacheNames.BOOKS_OF_AUTHOR, key = "#id")
+    })
     @Transactional
-    public Long deleteAuthorById(Long id) {
-        Optional<Author> author = authorRepository.findById(id);
-        if (author.isPresent()) {
-            authorRepository.delete(author.get());
-            return id;
+    public int deleteAuthorById(Long id) {
+        List<Long> bookIds = bookRepository.findIdsByAuthorId(id);
+        int deletedBooks = bookRepository.deleteAllByAuthorId(id);
+        if (authorRepository.deleteAuthorById(id) > 0) {
+            evictDeletedAuthor(id, bookIds, deletedBooks);
+            log.debug("Deleted author with ID: {} and its {} books", id, deletedBooks);
+            eventPublisher.publishEvent(new AuthorDeletedEvent(id));
+            return deletedBooks;
         } else {
             log.warn("Author cannot be deleted, because there is no author in DB with ID: {}", id);
             throw new ErrorResponseException(HttpStatus.NOT_FOUND);
@@ -91,7 +301,8 @@ public class AuthorServiceImpl implements AuthorService {
     }
 
     @Override
-    @Transactional
+    @Cacheable(cacheNames = DtoCacheNames.BOOKS_OF_AUTHOR, key = "#id", sync = true)
+    @ReadOnlyOnPrimary
     public List<BookDto> getAllBooksOfAuthorByAuthorId(Long id) {
         Optional<Author> author = authorRepository.findById(id);
         List<Book> books;
@@ -112,10 +323,22 @@ public class AuthorServiceImpl implements AuthorService {
     }
 
     @Override
-    @Transactional
+    @SuppressWarnings("unchecked")
+    public Optional<List<BookDto>> getCachedBooksOfAuthorByAuthorId(Long id) {
+        Cache booksOfAuthorCache = cacheManager.getCache(DtoCacheNames.BOOKS_OF_AUTHOR);
+        return Optional.ofNullable(booksOfAuthorCache == null ? null : booksOfAuthorCache.get(id, List.class));
+    }
+
+    @Override
+    @ReadOnlyOnPrimary
+    public String getVersionOfBooksOfAuthor(Long id) {
+        return bookRepository.findVersionOfBooksByAuthorId(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public BookDto getBookOfAuthorByBookId(Long authorId, Long bookId) {
-        Optional<Author> author = authorRepository.findById(authorId);
-        Optional<Book> optionalBook = getOptionalBook(authorId, bookId, author);
+        Optional<Book> optionalBook = bookRepository.findByIdAndAuthorId(bookId, authorId);
         if (optionalBook.isPresent()) {
             return bookMapper.toDto(optionalBook.get());
         } else {
@@ -125,31 +348,56 @@ public class AuthorServiceImpl implements AuthorService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DtoCacheNames.AUTHORS, key = "#id"),
+            @CacheEvict(cacheNames = DtoCacheNames.BOOKS_OF_AUTHOR, key = "#id")
+    })
     @Transactional
     public BookDto saveNewBookOfAuthorByAuthorId(Long id, BookRequestDto bookRequestDto) {
-        Optional<Author> author = authorRepository.findById(id);
-        if (author.isPresent()) {
-            List<Book> books = author.get().getBooks();
+        Author author = changeBookCount(id, 1);
+        Book book = bookMapper.toEntity(bookRequestDto);
+        book.setAuthor(author);
+        BookDto bookDto = bookMapper.toDto(bookRepository.save(book));
+        eventPublisher.publishEvent(new BooksSavedEvent(List.of(bookDto)));
+        return bookDto;
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DtoCacheNames.AUTHORS, key = "#id"),
+            @CacheEvict(cacheNames = DtoCacheNames.BOOKS_OF_AUTHOR, key = "#id")
+    })
+    @Transactional
+    public List<BookDto> saveNewBooksOfAuthorByAuthorId(Long id, List<BookRequestDto> bookRequestDtos) {
+        changeBookCount(id, bookRequestDtos.size());
+        int batchSize = libraryProperties.getBulk().getBatchSize();
+        List<BookDto> savedBooks = new ArrayList<>(bookRequestDtos.size());
+        for (BookRequestDto bookRequestDto : bookRequestDtos) {
             Book book = bookMapper.toEntity(bookRequestDto);
-            book.setAuthor(author.get());
-            books.add(book);
-            authorRepository.save(author.get());
-            return bookMapper.toDto(book);
-        } else {
-            log.warn(AUTHOR_WITH_ID_NOT_FOUND, id);
-            throw new ErrorResponseException(HttpStatus.NOT_FOUND);
+            book.setAuthor(authorRepository.getReferenceById(id));
+            savedBooks.add(bookMapper.toDto(bookRepository.save(book)));
+            if (savedBooks.size() % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
         }
+        log.debug("Saved {} new books of author with ID: {}", savedBooks.size(), id);
+        eventPublisher.publishEvent(new BooksSavedEvent(savedBooks));
+        return savedBooks;
     }
 
     @Override
+    @CacheEvict(cacheNames = DtoCacheNames.BOOKS_OF_AUTHOR, key = "#authorId")
     @Transactional
-    public BookDto updateAuthorsBook(Long authorId, Long bookId, BookRequestDto bookRequestDto) {
-        Optional<Author> author = authorRepository.findById(authorId);
-        Optional<Book> optionalBook = getOptionalBook(authorId, bookId, author);
+    public BookDto updateAuthorsBook(Long authorId, Long bookId, BookRequestDto bookRequestDto, Long expectedVersion) {
+        Optional<Book> optionalBook = bookRepository.findByIdAndAuthorId(bookId, authorId);
         if (optionalBook.isPresent()) {
+            checkVersion(expectedVersion, optionalBook.get().getVersion());
             bookMapper.partialUpdate(bookRequestDto, optionalBook.get());
-            authorRepository.save(author.get());
-            return bookMapper.toDto(optionalBook.get());
+            Book savedBook = bookRepository.saveAndFlush(optionalBook.get());
+            BookDto bookDto = bookMapper.toDto(savedBook);
+            eventPublisher.publishEvent(new BooksSavedEvent(List.of(bookDto)));
+            return bookDto;
         } else {
             log.warn(BOOK_WITH_ID_OF_AUTHOR_WITH_ID_NOT_FOUND, bookId, authorId);
             throw new ErrorResponseException(HttpStatus.NOT_FOUND);
@@ -157,30 +405,171 @@ public class AuthorServiceImpl implements AuthorService {
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = DtoCacheNames.AUTHORS, key = "#authorId"),
+            @CacheEvict(cacheNames = DtoCacheNames.BOOKS_OF_AUTHOR, key = "#authorId")
+    })
     @Transactional
     public Long deleteAuthorsBookById(Long authorId, Long bookId) {
-        Optional<Author> author = authorRepository.findById(authorId);
-        Optional<Book> optionalBook = getOptionalBook(authorId, bookId, author);
+        changeBookCount(authorId, -1);
+        Optional<Book> optionalBook = bookRepository.findByIdAndAuthorId(bookId, authorId);
         if (optionalBook.isPresent()) {
-            author.get().getBooks().remove(optionalBook.get());
-            authorRepository.save(author.get());
-            return (optionalBook.get()).getId();
+            bookRepository.delete(optionalBook.get());
+            eventPublisher.publishEvent(new BookDeletedEvent(authorId, bookId));
+            return bookId;
         } else {
             log.warn(BOOK_WITH_ID_OF_AUTHOR_WITH_ID_NOT_FOUND, bookId, authorId);
             throw new ErrorResponseException(HttpStatus.NOT_FOUND);
         }
     }
 
-    private static Optional<Book> getOptionalBook(Long authorId, Long bookId, Optional<Author> author) {
-        Optional<Book> optionalBook;
-        if (author.isPresent()) {
-            optionalBook = author.get().getBooks().stream()
-                    .filter(b -> bookId.equals(b.getId()))
-                    .findFirst();
+    @Override
+    @Transactional
+    public CursorPageDto<Long> reconcileBookCounts(String after, Integer limit) {
+        Long lastId = CursorCodec.decode(after);
+        List<Long> ids = authorRepository.findIdsGreaterThan(lastId, PageRequest.ofSize(limit));
+        if (ids.isEmpty()) {
+            return new CursorPageDto<>(List.of(), null);
+        }
+        List<Long> repairedIds = authorRepository.findIdsWithWrongBookCount(ids);
+        if (!repairedIds.isEmpty()) {
+            List<Author> authors = authorRepository.findAllForUpdateByIdIn(repairedIds);
+            authors.forEach(author ->
+                    author.setBookCount(Math.toIntExact(bookRepository.countByAuthorId(author.getId()))));
+            authorRepository.flush();
+            Cache authorsCache = cacheManager.getCache(DtoCacheNames.AUTHORS);
+            if (authorsCache != null) {
+                repairedIds.forEach(authorsCache::evict);
+            }
+            List<AuthorDto> repairedAuthors = authors.stream()
+                    .map(authorMapper::toDto)
+                    .toList();
+            eventPublisher.publishEvent(new AuthorsSavedEvent(repairedAuthors));
+            log.warn("Repaired number of books of authors with IDs: {}", repairedIds);
+        }
+        String nextCursor = ids.size() == limit
+                ? CursorCodec.encode(ids.get(ids.size() - 1))
+                : null;
+        return new CursorPageDto<>(repairedIds, nextCursor);
+    }
+
+    /**
+     * Filtered authors after the cursor, which can only be ordered by date of birth and ID.
+     */
+    private Specification<Author> toSpecification(AuthorFilterDto filter, String after) {
+        if (AuthorFilterDto.SORT_BY_ID.equals(filter.sort())) {
+            log.warn("Authors filtered by {} cannot be sorted by ID, there is no such index", filter);
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+        }
+        CursorCodec.Position<LocalDate> position = CursorCodec.decode(after, LocalDate::parse);
+        return where(hasCountry(filter.country()))
+                .and(bornAfter(filter.bornAfter()))
+                .and(bornBefore(filter.bornBefore()))
+                .and(position == null ? null : afterDateOfBirthAndId(position.value(), position.id()));
+    }
+
+    /**
+     * Takes cached authors from the cache and loads the rest with one query, putting them into the cache
+     * the same way {@link #getAuthorById} does.
+     */
+    private List<AuthorDto> loadAuthors(List<Long> ids, Cache authorsCache) {
+        List<AuthorDto> authors = new ArrayList<>(ids.size());
+        List<Long> missedIds = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            AuthorDto cached = authorsCache == null ? null : authorsCache.get(id, AuthorDto.class);
+            if (cached == null) {
+                missedIds.add(id);
+            } else {
+                authors.add(cached);
+            }
+        }
+        if (!missedIds.isEmpty()) {
+            authorRepository.findAllById(missedIds).stream()
+                    .map(authorMapper::toDto)
+                    .forEach(author -> {
+                        authors.add(author);
+                        if (authorsCache != null) {
+                            authorsCache.put(author.id(), author);
+                        }
+                    });
+        }
+        return authors;
+    }
+
+    private void exportAuthors(Stream<Author> authors, Consumer<AuthorDto> consumer) {
+        int clearInterval = libraryProperties.getExport().getClearInterval();
+        long exported = 0;
+        Iterator<Author> iterator = authors.iterator();
+        while (iterator.hasNext()) {
+            consumer.accept(authorMapper.toDto(iterator.next()));
+            if (++exported % clearInterval == 0) {
+                entityManager.clear();
+            }
+        }
+        log.debug("Exported {} authors", exported);
+    }
+
+    /**
+     * Evicts the deleted author, its books and the collection of them from the second-level cache once
+     * the transaction completes, as the native deletes invalidate no region and a concurrent read could put
+     * them back before the commit. If a book was added after its IDs were read, the IDs are incomplete
+     * and the whole Book region is evicted instead.
+     */
+    private void evictDeletedAuthor(Long id, List<Long> bookIds, int deletedBooks) {
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().getCache()
+                .unwrap(org.hibernate.Cache.class);
+        Runnable eviction = () -> {
+            cache.evictEntityData(Author.class, id);
+            cache.evictCollectionData(AUTHOR_BOOKS_ROLE, id);
+            if (deletedBooks > bookIds.size()) {
+                cache.evictEntityData(Book.class);
+            } else {
+                bookIds.forEach(bookId -> cache.evictEntityData(Book.class, bookId));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
         } else {
+            eviction.run();
+        }
+    }
+
+    /**
+     * Changes the number of books of the author before its books are touched, so that all transactions
+     * changing books of the same author lock the author row first and wait for each other without deadlocks.
+     * Nothing is changed if the transaction is rolled back afterwards, e.g. when the book is not found.
+     * The author is updated as a managed entity rather than by a bulk update, which would evict the whole
+     * Author region of the second-level cache, and the indexes get its new state rather than the delta,
+     * as a change may be applied to them twice during a rebuild.
+     *
+     * @return the locked author
+     */
+    private Author changeBookCount(Long authorId, int delta) {
+        Optional<Author> optionalAuthor = authorRepository.findForUpdateById(authorId);
+        if (optionalAuthor.isEmpty()) {
             log.warn(AUTHOR_WITH_ID_NOT_FOUND, authorId);
             throw new ErrorResponseException(HttpStatus.NOT_FOUND);
         }
-        return optionalBook;
+        Author author = optionalAuthor.get();
+        author.setBookCount(author.getBookCount() + delta);
+        Author savedAuthor = authorRepository.saveAndFlush(author);
+        eventPublisher.publishEvent(new AuthorsSavedEvent(List.of(authorMapper.toDto(savedAuthor))));
+        return savedAuthor;
+    }
+
+    /**
+     * Rejects the update if the client has seen another version. A concurrent update committed after this check
+     * is caught by Hibernate, which updates the row only while it still has the version that was read.
+     */
+    private static void checkVersion(Long expectedVersion, Long actualVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(actualVersion)) {
+            log.warn("Expected version {} does not match current version {}", expectedVersion, actualVersion);
+            throw new ErrorResponseException(HttpStatus.PRECONDITION_FAILED);
+        }
     }
 }
@@ -0,0 +1,155 @@
+package by.iyunski.library.service.impl;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.persistence.model.Book;
+import by.iyunski.library.persistence.repository.AttributeProjections;
+import by.iyunski.library.persistence.repository.BookRepository;
+import by.iyunski.library.persistence.specification.BookSpecifications;
+import by.iyunski.library.service.BookService;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.BookFilterDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.mapper.BookMapper;
+import by.iyunski.library.service.util.CacheModes;
+import by.iyunski.library.service.util.CursorCodec;
+import by.iyunski.library.service.util.FieldSets;
+import by.iyunski.library.service.util.IdBatches;
+import by.iyunski.library.service.util.KeysetPages;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.ErrorResponseException;
+
+import java.time.Year;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static by.iyunski.library.persistence.specification.BookSpecifications.afterYearOfPublicationAndId;
+import static by.iyunski.library.persistence.specification.BookSpecifications.hasAtLeastPages;
+import static by.iyunski.library.persistence.specification.BookSpecifications.hasGenre;
+import static by.iyunski.library.persistence.specification.BookSpecifications.publishedFrom;
+import static by.iyunski.library.persistence.specification.BookSpecifications.publishedTo;
+import static org.springframework.data.jpa.domain.Specification.where;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BookServiceImpl implements BookService {
+
+    /**
+     * Attributes of fields of {@link BookDto} named differently, ID of the author is read from the foreign key.
+     */
+    private static final Map<String, String> ATTRIBUTE_PATHS_OF_FIELDS = Map.of("authorId", "author.id");
+
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+    private final EntityManager entityManager;
+    private final LibraryProperties libraryProperties;
+    private final AttributeProjections attributeProjections;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportBooks(Consumer<BookDto> consumer) {
+        CacheModes.ignoringSecondLevelCache(entityManager, () -> {
+            try (Stream<Book> books = bookRepository.streamAllByOrderByIdAsc()) {
+                exportBooks(books, consumer);
+            }
+        });
+    }
+
+    private void exportBooks(Stream<Book> books, Consumer<BookDto> consumer) {
+        int clearInterval = libraryProperties.getExport().getClearInterval();
+        long exported = 0;
+        Iterator<Book> iterator = books.iterator();
+        while (iterator.hasNext()) {
+            consumer.accept(bookMapper.toDto(iterator.next()));
+            if (++exported % clearInterval == 0) {
+                entityManager.clear();
+            }
+        }
+        log.debug("Exported {} books", exported);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookDto getBookByIsbn(String isbn) {
+        Optional<Book> optionalBook = bookRepository.findByIsbn(isbn);
+        if (optionalBook.isPresent()) {
+            return bookMapper.toDto(optionalBook.get());
+        } else {
+            log.warn("There is no book in DB with ISBN: {}", isbn);
+            throw new ErrorResponseException(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookDto> getBooksByIds(List<Long> ids) {
+        List<BookDto> books = IdBatches.loadInOrder(ids, libraryProperties.getFetch().getChunkSize(),
+                        bookRepository::findAllById, Book::getId).stream()
+                .map(bookMapper::toDto)
+                .toList();
+        if (books.isEmpty()) {
+            log.warn("There is no books in DB with IDs: {}", ids);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        }
+        return books;
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = LibraryProperties.FILTER_QUERY_TIMEOUT)
+    public CursorPageDto<BookDto> findBooks(BookFilterDto filter, String after, Integer limit) {
+        List<Book> books = KeysetPages.findPage(bookRepository, toSpecification(filter, after),
+                BookSpecifications.BY_YEAR_OF_PUBLICATION, limit);
+        if (books.isEmpty()) {
+            log.warn("There is no books in DB matching {} after cursor: {}", filter, after);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            return KeysetPages.toPage(books, limit, bookMapper::toDto,
+                    last -> CursorCodec.encode(last.getYearOfPublication().getValue(), last.getId()));
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = LibraryProperties.FILTER_QUERY_TIMEOUT)
+    public CursorPageDto<Map<String, Object>> findBookFields(BookFilterDto filter, List<String> fields,
+                                                             String after, Integer limit) {
+        Sort sort = BookSpecifications.BY_YEAR_OF_PUBLICATION;
+        List<Map<String, Object>> rows = attributeProjections.findAttributes(Book.class,
+                FieldSets.attributePaths(fields, ATTRIBUTE_PATHS_OF_FIELDS, sort), toSpecification(filter, after),
+                sort, limit + 1);
+        if (rows.isEmpty()) {
+            log.warn("There is no books in DB matching {} after cursor: {}", filter, after);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            return KeysetPages.toPage(rows, limit, row -> FieldSets.fieldsOf(row, fields, ATTRIBUTE_PATHS_OF_FIELDS),
+                    last -> CursorCodec.encode(((Year) last.get(BookSpecifications.YEAR_OF_PUBLICATION)).getValue(),
+                            (Long) last.get(BookSpecifications.ID)));
+        }
+    }
+
+    /**
+     * Filtered books after the cursor, number of pages alone is rejected as it has no index.
+     */
+    private Specification<Book> toSpecification(BookFilterDto filter, String after) {
+        if (filter.minPages() != null && !filter.hasIndexedPredicates()) {
+            log.warn("Books cannot be filtered only by number of pages, there is no such index");
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+        }
+        CursorCodec.Position<Integer> position = CursorCodec.decode(after, Integer::valueOf);
+        return where(hasGenre(filter.genre()))
+                .and(publishedFrom(filter.yearFrom()))
+                .and(publishedTo(filter.yearTo()))
+                .and(hasAtLeastPages(filter.minPages()))
+                .and(position == null ? null : afterYearOfPublicationAndId(position.value(), position.id()));
+    }
+}
@@ -0,0 +1,53 @@
+package by.iyunski.library.service.impl;
+
+import by.iyunski.library.persistence.model.Book;
+import by.iyunski.library.persistence.repository.BookRepository;
+import by.iyunski.library.service.FacetService;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.FacetFilterDto;
+import by.iyunski.library.service.dtos.FacetResultDto;
+import by.iyunski.library.service.facet.BookFacetIndex;
+import by.iyunski.library.service.mapper.BookMapper;
+import by.iyunski.library.service.util.CursorCodec;
+import by.iyunski.library.service.util.IdBatches;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FacetServiceImpl implements FacetService {
+
+    private final BookFacetIndex bookFacetIndex;
+    private final BookRepository bookRepository;
+    private final BookMapper bookMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetResultDto getFacets(FacetFilterDto filter, String after, Integer limit) {
+        BookFacetIndex.Facets facets = bookFacetIndex.facets(filter, CursorCodec.decode(after), limit + 1);
+        if (facets.total() == 0) {
+            log.warn("There is no books matching facets {}", filter);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            List<Long> pageIds = facets.bookIds().stream()
+                    .limit(limit)
+                    .toList();
+            List<BookDto> books = IdBatches.loadInOrder(pageIds, pageIds.size(),
+                            bookRepository::findAllById, Book::getId).stream()
+                    .map(bookMapper::toDto)
+                    .toList();
+            String nextCursor = facets.bookIds().size() > limit
+                    ? CursorCodec.encode(pageIds.get(pageIds.size() - 1))
+                    : null;
+            return new FacetResultDto(books, nextCursor, facets.total(),
+                    facets.booksByGenre(), facets.booksByDecade(), facets.booksByCountry());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package by.iyunski.library.service.impl;
+
+import by.iyunski.library.service.SearchService;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.SearchResultDto;
+import by.iyunski.library.service.search.InvertedIndex;
+import by.iyunski.library.service.search.SearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    private final SearchIndex searchIndex;
+
+    @Override
+    public SearchResultDto search(String query, Integer limit) {
+        List<String> terms = InvertedIndex.tokenize(query);
+        List<AuthorDto> authors = searchIndex.searchAuthors(terms, limit);
+        List<BookDto> books = searchIndex.searchBooks(terms, limit);
+        if (authors.isEmpty() && books.isEmpty()) {
+            log.warn("Nothing found by query: {}", query);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            return new SearchResultDto(authors, books);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package by.iyunski.library.service.impl;
+
+import by.iyunski.library.service.StatisticsService;
+import by.iyunski.library.service.dtos.AuthorStatisticsDto;
+import by.iyunski.library.service.dtos.StatisticsDto;
+import by.iyunski.library.service.statistics.LibraryStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.ErrorResponseException;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StatisticsServiceImpl implements StatisticsService {
+
+    private final LibraryStatistics libraryStatistics;
+
+    @Override
+    public StatisticsDto getStatistics() {
+        StatisticsDto statisticsDto = libraryStatistics.snapshot();
+        if (statisticsDto.booksByGenre().isEmpty()) {
+            log.warn("There is no books in library to count");
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            return statisticsDto;
+        }
+    }
+
+    @Override
+    public AuthorStatisticsDto getAuthorStatistics(Long authorId) {
+        return libraryStatistics.authorStatistics(authorId).orElseThrow(() -> {
+            log.warn("There is no author with ID: {} to get statistics of", authorId);
+            return new ErrorResponseException(HttpStatus.NOT_FOUND);
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package by.iyunski.library.service.impl;
+
+import by.iyunski.library.service.SuggestService;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.search.AuthorSuggestIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class SuggestServiceImpl implements SuggestService {
+
+    private final AuthorSuggestIndex authorSuggestIndex;
+
+    @Override
+    public List<AuthorDto> suggestAuthors(String prefix, Integer limit) {
+        List<AuthorDto> authors = authorSuggestIndex.suggest(prefix, limit);
+        if (authors.isEmpty()) {
+            log.warn("There is no authors with names starting with: {}", prefix);
+            throw new ErrorResponseException(HttpStatus.NO_CONTENT);
+        } else {
+            return authors;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package by.iyunski.library.service.index;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.BookService;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.events.AuthorsImportedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds all in-memory indexes when the application is ready. Authors and then Books are exported once
+ * and every exported row is put into the new state of each index, so the tables are read once
+ * however many indexes there are, and no index blocks its readers while the tables are read.
+ * Authors imported in bulk are reloaded into all indexes the same way once the import has committed.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class IndexRebuilder {
+
+    private final AuthorService authorService;
+    private final BookService bookService;
+    private final List<RebuildableIndex<?>> indexes;
+    private final LibraryProperties libraryProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<RebuildableIndex.Rebuild> rebuilds = indexes.stream()
+                .<RebuildableIndex.Rebuild>map(RebuildableIndex::startRebuild)
+                .toList();
+        try {
+            authorService.exportAuthors(author -> rebuilds.forEach(rebuild -> rebuild.putAuthor(author)));
+            bookService.exportBooks(book -> rebuilds.forEach(rebuild -> rebuild.putBook(book)));
+        } catch (RuntimeException exception) {
+            log.error("Indexes cannot be rebuilt, the current ones are kept", exception);
+            rebuilds.forEach(RebuildableIndex.Rebuild::abandon);
+            throw exception;
+        }
+        rebuilds.forEach(RebuildableIndex.Rebuild::swapIn);
+    }
+
+    /**
+     * Puts the imported authors into all indexes in chunks of {@code library.bulk.batch-size}.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsImported(AuthorsImportedEvent event) {
+        int chunkSize = libraryProperties.getBulk().getBatchSize();
+        List<AuthorDto> chunk = new ArrayList<>(chunkSize);
+        authorService.exportAuthorsByIdRange(event.firstId(), event.lastId(), author -> {
+            chunk.add(author);
+            if (chunk.size() == chunkSize) {
+                putAuthors(chunk);
+                chunk.clear();
+            }
+        });
+        putAuthors(chunk);
+    }
+
+    private void putAuthors(List<AuthorDto> authors) {
+        if (!authors.isEmpty()) {
+            List<AuthorDto> copy = List.copyOf(authors);
+            indexes.forEach(index -> index.putAuthors(copy));
+        }
+    }
+}
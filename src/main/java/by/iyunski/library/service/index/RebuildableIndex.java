@@ -0,0 +1,139 @@
+package by.iyunski.library.service.index;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory index of Authors and Books, whose data is one state object read and changed under a read-write lock.
+ * {@link IndexRebuilder} fills a new state from the exported tables without taking the lock, and swaps it in
+ * after replaying the changes made to the current state since the rebuild started, which the export may have missed.
+ *
+ * @param <S> type of the state of the index, not thread-safe itself
+ */
+public abstract class RebuildableIndex<S> {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private S state;
+    private List<Consumer<S>> changesSinceRebuild;
+
+    protected RebuildableIndex(S emptyState) {
+        this.state = emptyState;
+    }
+
+    /**
+     * New state of the index, filled while the current one goes on serving readers.
+     */
+    public interface Rebuild {
+
+        void putAuthor(AuthorDto author);
+
+        void putBook(BookDto book);
+
+        /**
+         * Replays the changes made since the rebuild started and replaces the current state by the new one.
+         */
+        void swapIn();
+
+        /**
+         * Keeps the current state and stops recording its changes.
+         */
+        void abandon();
+    }
+
+    /**
+     * Starts recording changes of the current state, so that they are replayed on the new one.
+     */
+    Rebuild startRebuild() {
+        S newState = newState();
+        lock.writeLock().lock();
+        try {
+            changesSinceRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new Rebuild() {
+            @Override
+            public void putAuthor(AuthorDto author) {
+                RebuildableIndex.this.putAuthor(newState, author);
+            }
+
+            @Override
+            public void putBook(BookDto book) {
+                RebuildableIndex.this.putBook(newState, book);
+            }
+
+            @Override
+            public void swapIn() {
+                built(newState);
+                lock.writeLock().lock();
+                try {
+                    changesSinceRebuild.forEach(change -> change.accept(newState));
+                    changesSinceRebuild = null;
+                    state = newState;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+
+            @Override
+            public void abandon() {
+                lock.writeLock().lock();
+                try {
+                    changesSinceRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        };
+    }
+
+    /**
+     * Puts the authors into the current state as one change.
+     */
+    public void putAuthors(List<AuthorDto> authors) {
+        change(state -> authors.forEach(author -> putAuthor(state, author)));
+    }
+
+    protected <R> R read(Function<S, R> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the change to the current state, and to the new one when it is being rebuilt.
+     * A change may be applied to the new state after the export has already seen it, so it must be idempotent.
+     */
+    protected void change(Consumer<S> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (changesSinceRebuild != null) {
+                changesSinceRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    protected abstract S newState();
+
+    protected abstract void putAuthor(S state, AuthorDto author);
+
+    protected abstract void putBook(S state, BookDto book);
+
+    /**
+     * Called with the new state filled from the export, before the lock is taken to swap it in.
+     */
+    protected abstract void built(S state);
+}
@@ -0,0 +1,53 @@
+package by.iyunski.library.service.maintenance;
+
+import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.time.Duration;
+
+/**
+ * Periodically walks through all authors in batches and repairs their numbers of books, which can drift
+ * from the book table only when it is changed bypassing the application. Every batch is a short transaction
+ * of its own, so the job never holds locks on many authors at once.
+ */
+@Slf4j
+public class BookCountReconciler implements SchedulingConfigurer {
+
+    private final AuthorService authorService;
+    private final int batchSize;
+    private final Duration interval;
+
+    public BookCountReconciler(AuthorService authorService, int batchSize, Duration interval) {
+        this.authorService = authorService;
+        this.batchSize = batchSize;
+        this.interval = interval;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+        taskRegistrar.addFixedDelayTask(new FixedDelayTask(this::reconcile, interval, interval));
+    }
+
+    /**
+     * @return number of repaired authors
+     */
+    public long reconcile() {
+        long repaired = 0;
+        String cursor = null;
+        do {
+            CursorPageDto<Long> batch = authorService.reconcileBookCounts(cursor, batchSize);
+            repaired += batch.content().size();
+            cursor = batch.nextCursor();
+        } while (cursor != null);
+        if (repaired > 0) {
+            log.warn("Numbers of books of {} authors have been repaired", repaired);
+        } else {
+            log.debug("Numbers of books of all authors are correct");
+        }
+        return repaired;
+    }
+}
@@ -15,6 +15,7 @@ import java.time.Year;
 @Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE, componentModel = "spring")
 public interface BookMapper {
     @Mapping(target = "yearOfPublication", expression = "java(yearToInteger(book.getYearOfPublication()))")
+    @Mapping(target = "authorId", source = "author.id")
     BookDto toDto(Book book);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
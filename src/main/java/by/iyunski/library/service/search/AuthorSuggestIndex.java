@@ -0,0 +1,137 @@
+package by.iyunski.library.service.search;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.index.RebuildableIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Prefix index of Authors by last name, first name and both of them in either order.
+ * Names are matched after trimming, collapsing spaces and lowering case, and a matching Author is returned
+ * as it was last saved, without loading it. Its estimated size is reported as
+ * {@code library.suggest.memory} and {@code library.suggest.memory.per.author} gauges.
+ */
+@Component
+@Slf4j
+public class AuthorSuggestIndex extends RebuildableIndex<AuthorSuggestIndex.Names> {
+
+    /**
+     * Rough size in bytes of a stored Author without its strings.
+     */
+    private static final int AUTHOR_BYTES = 120;
+
+    /**
+     * Trie of normalized names and the Authors its IDs refer to.
+     */
+    static class Names {
+        private final RadixTrie trie = new RadixTrie();
+        private final Map<Long, AuthorDto> authors = new HashMap<>();
+
+        private void putAuthor(AuthorDto author) {
+            removeAuthor(author.id());
+            authors.put(author.id(), author);
+            keysOf(author).forEach(key -> trie.insert(key, author.id()));
+        }
+
+        private void removeAuthor(Long id) {
+            AuthorDto author = authors.remove(id);
+            if (author != null) {
+                keysOf(author).forEach(key -> trie.remove(key, id));
+            }
+        }
+
+        private long estimateBytes() {
+            long bytes = trie.estimateBytes();
+            for (AuthorDto author : authors.values()) {
+                bytes += AUTHOR_BYTES + author.firstName().length() + author.lastName().length()
+                        + author.country().length();
+            }
+            return bytes;
+        }
+    }
+
+    public AuthorSuggestIndex(MeterRegistry meterRegistry) {
+        super(new Names());
+        Gauge.builder("library.suggest.memory", this, AuthorSuggestIndex::estimateBytes)
+                .description("Estimated memory occupied by the author suggest index")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("library.suggest.memory.per.author", this, AuthorSuggestIndex::estimateBytesPerAuthor)
+                .description("Estimated memory occupied by the author suggest index per indexed author")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds up to {@code limit} Authors whose names start with the prefix, in alphabetical order of names.
+     */
+    public List<AuthorDto> suggest(String prefix, int limit) {
+        return read(names -> names.trie.findByPrefix(normalize(prefix), limit).stream()
+                .map(names.authors::get)
+                .filter(Objects::nonNull)
+                .toList());
+    }
+
+    public long estimateBytes() {
+        return read(Names::estimateBytes);
+    }
+
+    public double estimateBytesPerAuthor() {
+        return read(names -> names.authors.isEmpty() ? 0 : (double) names.estimateBytes() / names.authors.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsSaved(AuthorsSavedEvent event) {
+        change(names -> event.authors().forEach(names::putAuthor));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        change(names -> names.removeAuthor(event.authorId()));
+    }
+
+    @Override
+    protected Names newState() {
+        return new Names();
+    }
+
+    @Override
+    protected void putAuthor(Names names, AuthorDto author) {
+        names.putAuthor(author);
+    }
+
+    /**
+     * Books are not suggested.
+     */
+    @Override
+    protected void putBook(Names names, BookDto book) {
+    }
+
+    @Override
+    protected void built(Names names) {
+        log.info("Suggest index is built with {} authors", names.authors.size());
+    }
+
+    private static List<String> keysOf(AuthorDto author) {
+        String lastName = normalize(author.lastName());
+        String firstName = normalize(author.firstName());
+        return List.of(lastName, firstName, lastName + " " + firstName, firstName + " " + lastName);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
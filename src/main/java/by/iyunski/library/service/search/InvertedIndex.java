@@ -0,0 +1,130 @@
+package by.iyunski.library.service.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Thread-safe in-memory inverted index of documents identified by ID.
+ * Every field of a document is split into lower-case terms and each term contributes
+ * the weight of its field to the score of the document. Writers are serialized,
+ * readers never block.
+ *
+ * @param <T> type of indexed documents
+ */
+public class InvertedIndex<T> {
+
+    private static final Pattern TERM_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Comparator<Map.Entry<Long, Double>> BEST_FIRST =
+            Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey());
+
+    private final Function<T, Long> idExtractor;
+    private final List<Field<T>> fields;
+    private final Map<Long, T> documents = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Double>> postings = new ConcurrentHashMap<>();
+
+    public InvertedIndex(Function<T, Long> idExtractor, List<Field<T>> fields) {
+        this.idExtractor = idExtractor;
+        this.fields = fields;
+    }
+
+    /**
+     * Adds the document or replaces the previous version of the document with the same ID.
+     */
+    public synchronized void put(T document) {
+        Long id = idExtractor.apply(document);
+        remove(id);
+        documents.put(id, document);
+        weighTerms(document).forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new ConcurrentHashMap<>()).put(id, weight));
+    }
+
+    public synchronized void remove(Long id) {
+        T document = documents.remove(id);
+        if (document != null) {
+            weighTerms(document).keySet().forEach(term ->
+                    postings.computeIfPresent(term, (key, posting) -> {
+                        posting.remove(id);
+                        return posting.isEmpty() ? null : posting;
+                    }));
+        }
+    }
+
+    public synchronized void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    /**
+     * Finds documents containing any of the terms, the best scored first and then by ID.
+     * Only the best {@code limit} candidates are kept in a heap, so the candidates are never sorted as a whole.
+     */
+    public List<T> search(List<String> terms, int limit) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            postings.getOrDefault(term, Map.of())
+                    .forEach((id, weight) -> scores.merge(id, weight, Double::sum));
+        }
+        PriorityQueue<Map.Entry<Long, Double>> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+        for (Map.Entry<Long, Double> candidate : scores.entrySet()) {
+            if (documents.containsKey(candidate.getKey())) {
+                best.add(candidate);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        List<T> found = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            T document = documents.get(best.poll().getKey());
+            if (document != null) {
+                found.add(document);
+            }
+        }
+        Collections.reverse(found);
+        return found;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Splits the text into distinct lower-case terms of letters and digits.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text != null) {
+            for (String term : TERM_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (!term.isEmpty() && !terms.contains(term)) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private Map<String, Double> weighTerms(T document) {
+        Map<String, Double> weights = new HashMap<>();
+        for (Field<T> field : fields) {
+            tokenize(field.value().apply(document))
+                    .forEach(term -> weights.merge(term, field.weight(), Double::sum));
+        }
+        return weights;
+    }
+
+    /**
+     * Indexed text field of document and the weight of its terms in score.
+     */
+    public record Field<T>(Function<T, String> value, double weight) {
+    }
+}
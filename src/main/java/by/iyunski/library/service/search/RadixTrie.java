@@ -0,0 +1,227 @@
+package by.iyunski.library.service.search;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Path-compressed prefix tree mapping string keys to sorted sets of IDs.
+ * Children of every node are kept in the order of their labels, so that a prefix
+ * lookup visits matching keys alphabetically and stops as soon as enough IDs are found.
+ * Not thread-safe.
+ */
+public class RadixTrie {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    /**
+     * Rough sizes in bytes of objects on a 64-bit JVM with compressed references.
+     */
+    private static final int NODE_BYTES = 24;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int STRING_BYTES = 24;
+    private static final int REFERENCE_BYTES = 4;
+
+    private final Node root = new Node("");
+
+    public void insert(String key, long id) {
+        if (!key.isEmpty()) {
+            insert(root, key, id);
+        }
+    }
+
+    public void remove(String key, long id) {
+        if (!key.isEmpty()) {
+            remove(root, key, id);
+        }
+    }
+
+    /**
+     * Collects up to {@code limit} distinct IDs of keys starting with the prefix in the order of keys.
+     */
+    public Set<Long> findByPrefix(String prefix, int limit) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = findChild(node, rest.charAt(0));
+            if (child == null) {
+                return ids;
+            }
+            if (rest.length() <= child.label.length()) {
+                if (!child.label.startsWith(rest)) {
+                    return ids;
+                }
+                rest = "";
+            } else {
+                if (!rest.startsWith(child.label)) {
+                    return ids;
+                }
+                rest = rest.substring(child.label.length());
+            }
+            node = child;
+        }
+        collect(node, ids, limit);
+        return ids;
+    }
+
+    /**
+     * Estimates memory occupied by nodes, labels and ID arrays of the trie.
+     */
+    public long estimateBytes() {
+        return estimateBytes(root);
+    }
+
+    private static void insert(Node node, String key, long id) {
+        int index = childIndex(node, key.charAt(0));
+        if (index < 0) {
+            Node leaf = new Node(key);
+            leaf.ids = new long[]{id};
+            addChild(node, -(index + 1), leaf);
+            return;
+        }
+        Node child = node.children[index];
+        int common = commonPrefixLength(child.label, key);
+        if (common < child.label.length()) {
+            Node split = new Node(child.label.substring(0, common));
+            child.label = child.label.substring(common);
+            split.children = new Node[]{child};
+            node.children[index] = split;
+            child = split;
+        }
+        if (common == key.length()) {
+            child.ids = addId(child.ids, id);
+        } else {
+            insert(child, key.substring(common), id);
+        }
+    }
+
+    private static boolean remove(Node node, String key, long id) {
+        int index = childIndex(node, key.charAt(0));
+        if (index < 0 || !key.startsWith(node.children[index].label)) {
+            return false;
+        }
+        Node child = node.children[index];
+        boolean removed = key.length() == child.label.length()
+                ? removeId(child, id)
+                : remove(child, key.substring(child.label.length()), id);
+        if (removed) {
+            if (child.ids.length == 0 && child.children.length == 0) {
+                removeChild(node, index);
+            } else if (child.ids.length == 0 && child.children.length == 1) {
+                Node grandChild = child.children[0];
+                grandChild.label = child.label + grandChild.label;
+                node.children[index] = grandChild;
+            }
+        }
+        return removed;
+    }
+
+    private static void collect(Node node, Set<Long> ids, int limit) {
+        for (long id : node.ids) {
+            if (ids.size() >= limit) {
+                return;
+            }
+            ids.add(id);
+        }
+        for (Node child : node.children) {
+            if (ids.size() >= limit) {
+                return;
+            }
+            collect(child, ids, limit);
+        }
+    }
+
+    private static long estimateBytes(Node node) {
+        long bytes = NODE_BYTES
+                + STRING_BYTES + ARRAY_HEADER_BYTES + node.label.length()
+                + ARRAY_HEADER_BYTES + (long) REFERENCE_BYTES * node.children.length
+                + ARRAY_HEADER_BYTES + (long) Long.BYTES * node.ids.length;
+        for (Node child : node.children) {
+            bytes += estimateBytes(child);
+        }
+        return bytes;
+    }
+
+    private static Node findChild(Node node, char first) {
+        int index = childIndex(node, first);
+        return index >= 0 ? node.children[index] : null;
+    }
+
+    private static int childIndex(Node node, char first) {
+        int low = 0;
+        int high = node.children.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char middleFirst = node.children[middle].label.charAt(0);
+            if (middleFirst < first) {
+                low = middle + 1;
+            } else if (middleFirst > first) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void addChild(Node node, int index, Node child) {
+        Node[] children = new Node[node.children.length + 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        children[index] = child;
+        System.arraycopy(node.children, index, children, index + 1, node.children.length - index);
+        node.children = children;
+    }
+
+    private static void removeChild(Node node, int index) {
+        Node[] children = new Node[node.children.length - 1];
+        System.arraycopy(node.children, 0, children, 0, index);
+        System.arraycopy(node.children, index + 1, children, index, children.length - index);
+        node.children = children.length == 0 ? NO_CHILDREN : children;
+    }
+
+    private static long[] addId(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertion = -(index + 1);
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, insertion);
+        result[insertion] = id;
+        System.arraycopy(ids, insertion, result, insertion + 1, ids.length - insertion);
+        return result;
+    }
+
+    private static boolean removeId(Node node, long id) {
+        int index = Arrays.binarySearch(node.ids, id);
+        if (index < 0) {
+            return false;
+        }
+        long[] result = new long[node.ids.length - 1];
+        System.arraycopy(node.ids, 0, result, 0, index);
+        System.arraycopy(node.ids, index + 1, result, index, result.length - index);
+        node.ids = result.length == 0 ? NO_IDS : result;
+        return true;
+    }
+
+    private static int commonPrefixLength(String first, String second) {
+        int length = Math.min(first.length(), second.length());
+        int index = 0;
+        while (index < length && first.charAt(index) == second.charAt(index)) {
+            index++;
+        }
+        return index;
+    }
+
+    private static final class Node {
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private long[] ids = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package by.iyunski.library.service.search;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
+import by.iyunski.library.service.index.RebuildableIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntConsumer;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Full-text index of Authors by names and of Books by titles and genres, where a last name
+ * and a title weigh more than a first name and a genre. Deleting an Author drops its Books from the index too,
+ * as they are deleted with it by one statement and no event is published for each of them. IDs of the Books
+ * of every Author are kept, so that only they are removed, not all Books scanned.
+ */
+@Component
+@Slf4j
+public class SearchIndex extends RebuildableIndex<SearchIndex.Documents> {
+
+    /**
+     * Indexed Authors and Books and IDs of the Books of every Author. A Book never changes its Author.
+     */
+    record Documents(InvertedIndex<AuthorDto> authors, InvertedIndex<BookDto> books,
+                     Map<Long, RoaringBitmap> booksByAuthor) {
+
+        void putBook(BookDto book) {
+            books.put(book);
+            booksByAuthor.computeIfAbsent(book.authorId(), authorId -> new RoaringBitmap())
+                    .add(Math.toIntExact(book.id()));
+        }
+
+        void removeBook(Long authorId, Long bookId) {
+            books.remove(bookId);
+            booksByAuthor.computeIfPresent(authorId, (id, bookIds) ->
+                    bookIds.checkedRemove(Math.toIntExact(bookId)) && bookIds.isEmpty() ? null : bookIds);
+        }
+
+        void removeAuthor(Long authorId) {
+            authors.remove(authorId);
+            RoaringBitmap bookIds = booksByAuthor.remove(authorId);
+            if (bookIds != null) {
+                bookIds.forEach((IntConsumer) bookId -> books.remove((long) bookId));
+            }
+        }
+    }
+
+    public SearchIndex() {
+        super(emptyDocuments());
+    }
+
+    public List<AuthorDto> searchAuthors(List<String> terms, int limit) {
+        return read(documents -> documents.authors().search(terms, limit));
+    }
+
+    public List<BookDto> searchBooks(List<String> terms, int limit) {
+        return read(documents -> documents.books().search(terms, limit));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsSaved(AuthorsSavedEvent event) {
+        change(documents -> event.authors().forEach(documents.authors()::put));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        change(documents -> documents.removeAuthor(event.authorId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksSaved(BooksSavedEvent event) {
+        change(documents -> event.books().forEach(documents::putBook));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        change(documents -> documents.removeBook(event.authorId(), event.bookId()));
+    }
+
+    @Override
+    protected Documents newState() {
+        return emptyDocuments();
+    }
+
+    @Override
+    protected void putAuthor(Documents documents, AuthorDto author) {
+        documents.authors().put(author);
+    }
+
+    @Override
+    protected void putBook(Documents documents, BookDto book) {
+        documents.putBook(book);
+    }
+
+    @Override
+    protected void built(Documents documents) {
+        log.info("Search index is built with {} authors and {} books",
+                documents.authors().size(), documents.books().size());
+    }
+
+    private static Documents emptyDocuments() {
+        return new Documents(
+                new InvertedIndex<>(AuthorDto::id, List.of(
+                        new InvertedIndex.Field<>(AuthorDto::lastName, 2.0),
+                        new InvertedIndex.Field<>(AuthorDto::firstName, 1.5))),
+                new InvertedIndex<>(BookDto::id, List.of(
+                        new InvertedIndex.Field<>(BookDto::title, 2.0),
+                        new InvertedIndex.Field<>(BookDto::genre, 1.0))),
+                new HashMap<>());
+    }
+}
@@ -0,0 +1,181 @@
+package by.iyunski.library.service.statistics;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.AuthorStatisticsDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.StatisticsDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
+import by.iyunski.library.service.index.RebuildableIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Counters of Books per genre, year of publication and country of Author, and total pages per Author.
+ * Every counted Book is remembered with the fields it was counted by, so that a changed or deleted Book
+ * is taken back from the right counters and reading them never scans the tables. IDs of the Books of every
+ * Author are kept too, so that deleting an Author takes back only its Books.
+ */
+@Component
+@Slf4j
+public class LibraryStatistics extends RebuildableIndex<LibraryStatistics.Counters> {
+
+    /**
+     * Fields of a counted Book, needed to take it back from the counters when it changes or is deleted.
+     */
+    private record CountedBook(Long authorId, String genre, Integer yearOfPublication, long pages) {
+    }
+
+    /**
+     * Counted Books and countries of their Authors, with the counters computed from them.
+     */
+    static class Counters {
+        private final Map<Long, String> countryOfAuthor = new HashMap<>();
+        private final Map<Long, CountedBook> books = new HashMap<>();
+        private final Map<Long, Set<Long>> booksOfAuthor = new HashMap<>();
+        private final Map<String, Long> booksByGenre = new HashMap<>();
+        private final Map<Integer, Long> booksByYearOfPublication = new HashMap<>();
+        private final Map<String, Long> booksByCountry = new HashMap<>();
+        private final Map<Long, Long> booksByAuthor = new HashMap<>();
+        private final Map<Long, Long> pagesByAuthor = new HashMap<>();
+
+        private void putAuthor(AuthorDto author) {
+            String oldCountry = countryOfAuthor.put(author.id(), author.country());
+            long booksOfAuthor = booksByAuthor.getOrDefault(author.id(), 0L);
+            if (!Objects.equals(oldCountry, author.country()) && booksOfAuthor > 0) {
+                if (oldCountry != null) {
+                    add(booksByCountry, oldCountry, -booksOfAuthor);
+                }
+                add(booksByCountry, author.country(), booksOfAuthor);
+            }
+        }
+
+        private void removeAuthor(Long authorId) {
+            Set<Long> bookIds = booksOfAuthor.remove(authorId);
+            if (bookIds != null) {
+                bookIds.forEach(this::uncountBook);
+            }
+            countryOfAuthor.remove(authorId);
+        }
+
+        private void putBook(BookDto book) {
+            removeBook(book.id());
+            CountedBook countedBook = new CountedBook(book.authorId(), book.genre(), book.yearOfPublication(),
+                    book.numberOfPages());
+            books.put(book.id(), countedBook);
+            booksOfAuthor.computeIfAbsent(book.authorId(), authorId -> new HashSet<>()).add(book.id());
+            count(countedBook, 1);
+        }
+
+        private void removeBook(Long id) {
+            CountedBook countedBook = uncountBook(id);
+            if (countedBook != null) {
+                booksOfAuthor.computeIfPresent(countedBook.authorId(), (authorId, bookIds) ->
+                        bookIds.remove(id) && bookIds.isEmpty() ? null : bookIds);
+            }
+        }
+
+        private CountedBook uncountBook(Long id) {
+            CountedBook countedBook = books.remove(id);
+            if (countedBook != null) {
+                count(countedBook, -1);
+            }
+            return countedBook;
+        }
+
+        private void count(CountedBook book, long sign) {
+            add(booksByGenre, book.genre(), sign);
+            add(booksByYearOfPublication, book.yearOfPublication(), sign);
+            add(booksByAuthor, book.authorId(), sign);
+            add(pagesByAuthor, book.authorId(), sign * book.pages());
+            String country = countryOfAuthor.get(book.authorId());
+            if (country != null) {
+                add(booksByCountry, country, sign);
+            }
+        }
+    }
+
+    public LibraryStatistics() {
+        super(new Counters());
+    }
+
+    /**
+     * Copies the counters of genres, years and countries, ordered by their keys. Their number is bounded
+     * by the distinct values of these fields, while counters of Authors are only read one by one.
+     */
+    public StatisticsDto snapshot() {
+        return read(counters -> new StatisticsDto(new TreeMap<>(counters.booksByGenre),
+                new TreeMap<>(counters.booksByYearOfPublication),
+                new TreeMap<>(counters.booksByCountry)));
+    }
+
+    /**
+     * @return counters of the Author, empty if there is no such Author
+     */
+    public Optional<AuthorStatisticsDto> authorStatistics(Long authorId) {
+        return read(counters -> counters.countryOfAuthor.containsKey(authorId)
+                ? Optional.of(new AuthorStatisticsDto(authorId,
+                counters.booksByAuthor.getOrDefault(authorId, 0L),
+                counters.pagesByAuthor.getOrDefault(authorId, 0L)))
+                : Optional.empty());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorsSaved(AuthorsSavedEvent event) {
+        change(counters -> event.authors().forEach(counters::putAuthor));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorDeleted(AuthorDeletedEvent event) {
+        change(counters -> counters.removeAuthor(event.authorId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBooksSaved(BooksSavedEvent event) {
+        change(counters -> event.books().forEach(counters::putBook));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookDeleted(BookDeletedEvent event) {
+        change(counters -> counters.removeBook(event.bookId()));
+    }
+
+    @Override
+    protected Counters newState() {
+        return new Counters();
+    }
+
+    @Override
+    protected void putAuthor(Counters counters, AuthorDto author) {
+        counters.putAuthor(author);
+    }
+
+    @Override
+    protected void putBook(Counters counters, BookDto book) {
+        counters.putBook(book);
+    }
+
+    @Override
+    protected void built(Counters counters) {
+        log.info("Statistics are counted for {} authors and {} books",
+                counters.countryOfAuthor.size(), counters.books.size());
+    }
+
+    /**
+     * Adds the delta to the counter, removing the counter when it drops to zero.
+     */
+    private static <K> void add(Map<K, Long> counters, K key, long delta) {
+        counters.merge(key, delta, (counter, added) -> counter + added == 0 ? null : counter + added);
+    }
+}
@@ -0,0 +1,32 @@
+package by.iyunski.library.service.util;
+
+import by.iyunski.library.service.dtos.BookDto;
+
+import java.util.List;
+
+/**
+ * Version of a list of books, which changes whenever a book is added, deleted or updated.
+ */
+public final class BookVersions {
+
+    private static final String SEPARATOR = "-";
+
+    private BookVersions() {
+    }
+
+    /**
+     * Computes count, maximal ID and sum of versions of the books the way
+     * {@link by.iyunski.library.persistence.repository.BookRepository#findVersionOfBooksByAuthorId(Long)}
+     * aggregates them in the database.
+     *
+     * @return null if there are no books
+     */
+    public static String of(List<BookDto> books) {
+        if (books.isEmpty()) {
+            return null;
+        }
+        long maxId = books.stream().mapToLong(BookDto::id).max().orElseThrow();
+        long versionSum = books.stream().mapToLong(BookDto::version).sum();
+        return books.size() + SEPARATOR + maxId + SEPARATOR + versionSum;
+    }
+}
@@ -0,0 +1,31 @@
+package by.iyunski.library.service.util;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+/**
+ * Cache modes of the session for reads that go through whole tables.
+ */
+public final class CacheModes {
+
+    private CacheModes() {
+    }
+
+    /**
+     * Runs the export with {@link CacheMode#IGNORE}, restoring the previous cache mode of the session after it.
+     * A streamed query applies its cache mode hint only while it is executed, but its rows are hydrated later,
+     * while the stream is consumed, with the cache mode of the session. Without this every exported row would be
+     * put into the second-level cache, evicting the entries of the hot entities.
+     */
+    public static void ignoringSecondLevelCache(EntityManager entityManager, Runnable export) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previousCacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try {
+            export.run();
+        } finally {
+            session.setCacheMode(previousCacheMode);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package by.iyunski.library.service.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+import java.util.function.Function;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Encodes keyset positions into opaque URL-safe cursors and back.
+ */
+@Slf4j
+public final class CursorCodec {
+
+    private static final String SEPARATOR = ",";
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Position after the last row of a page sorted by some value and then by ID.
+     */
+    public record Position<V>(V value, Long id) {
+    }
+
+    public static String encode(Long lastId) {
+        return toBase64(String.valueOf(lastId));
+    }
+
+    public static String encode(Object lastValue, Long lastId) {
+        return toBase64(lastValue + SEPARATOR + lastId);
+    }
+
+    /**
+     * @return last seen ID, or {@code 0} for a missing cursor which means the first page
+     * @throws ErrorResponseException with {@link HttpStatus#BAD_REQUEST} if cursor is malformed
+     */
+    public static Long decode(String cursor) {
+        if (isNull(cursor) || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.valueOf(fromBase64(cursor));
+        } catch (IllegalArgumentException e) {
+            log.warn("Malformed cursor: {}", cursor);
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * @return last seen value and ID, or {@code null} for a missing cursor which means the first page
+     * @throws ErrorResponseException with {@link HttpStatus#BAD_REQUEST} if cursor is malformed
+     */
+    public static <V> Position<V> decode(String cursor, Function<String, V> valueParser) {
+        if (isNull(cursor) || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = fromBase64(cursor);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("No separator in cursor");
+            }
+            return new Position<>(valueParser.apply(decoded.substring(0, separator)),
+                    Long.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            log.warn("Malformed cursor: {}", cursor);
+            throw new ErrorResponseException(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static String toBase64(String position) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromBase64(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
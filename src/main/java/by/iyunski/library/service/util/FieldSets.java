@@ -0,0 +1,43 @@
+package by.iyunski.library.service.util;
+
+import org.springframework.data.domain.Sort;
+
+import java.time.Year;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Translates sparse fieldsets, the fields of DTOs requested by clients, into attributes of entities and back.
+ * A field is read from the attribute of the same name, unless another path is given for it.
+ */
+public final class FieldSets {
+
+    private FieldSets() {
+    }
+
+    /**
+     * @return paths of the attributes of the fields followed by the properties of the sort missing among them,
+     * which are needed for the cursor of the next page
+     */
+    public static List<String> attributePaths(List<String> fields, Map<String, String> attributePathsOfFields, Sort sort) {
+        return Stream.concat(fields.stream().map(field -> attributePathsOfFields.getOrDefault(field, field)),
+                        sort.stream().map(Sort.Order::getProperty))
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * @return values of the fields in the requested order, a year is written as a number as it is in DTOs
+     */
+    public static Map<String, Object> fieldsOf(Map<String, Object> attributes, List<String> fields,
+                                               Map<String, String> attributePathsOfFields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : fields) {
+            Object value = attributes.get(attributePathsOfFields.getOrDefault(field, field));
+            values.put(field, value instanceof Year year ? year.getValue() : value);
+        }
+        return values;
+    }
+}
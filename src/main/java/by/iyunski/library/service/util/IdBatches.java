@@ -0,0 +1,50 @@
+package by.iyunski.library.service.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Loads rows by a list of IDs with one {@code IN} query per chunk of IDs.
+ */
+public final class IdBatches {
+
+    private IdBatches() {
+    }
+
+    /**
+     * @param loader loads rows with the given IDs in any order, called once per chunk of at most {@code chunkSize} IDs
+     * @return rows in order of the first occurrence of their IDs, IDs without rows are skipped
+     */
+    public static <T> List<T> loadInOrder(Collection<Long> ids, int chunkSize,
+                                          Function<List<Long>, ? extends Collection<T>> loader,
+                                          Function<T, Long> idOf) {
+        List<Long> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, T> rowsById = new HashMap<>(distinctIds.size());
+        loadInChunks(distinctIds, chunkSize, loader).forEach(row -> rowsById.put(idOf.apply(row), row));
+        return distinctIds.stream()
+                .map(rowsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * @param loader loads rows by the given IDs, called once per chunk of at most {@code chunkSize} IDs
+     * @return rows of all chunks in order of the chunks
+     */
+    public static <T> List<T> loadInChunks(List<Long> ids, int chunkSize,
+                                           Function<List<Long>, ? extends Collection<T>> loader) {
+        List<T> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            rows.addAll(loader.apply(ids.subList(from, Math.min(from + chunkSize, ids.size()))));
+        }
+        return rows;
+    }
+}
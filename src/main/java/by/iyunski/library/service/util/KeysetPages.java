@@ -0,0 +1,49 @@
+package by.iyunski.library.service.util;
+
+import by.iyunski.library.service.dtos.CursorPageDto;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Reads keyset pages. One row more than the page is selected, so that the extra row tells
+ * whether there is a next page without counting the rest.
+ */
+public final class KeysetPages {
+
+    private KeysetPages() {
+    }
+
+    /**
+     * @return up to {@code limit + 1} rows matching the specification in order of the sort
+     */
+    public static <E> List<E> findPage(JpaSpecificationExecutor<E> repository, Specification<E> specification,
+                                       Sort sort, int limit) {
+        return repository.findBy(specification, query -> query
+                // limit goes first: Spring Data JPA 3.1 appends a sort given before limit once more
+                // and the query gets every ORDER BY column twice
+                .limit(limit + 1)
+                .sortBy(sort)
+                .all());
+    }
+
+    /**
+     * @param rows     up to {@code limit + 1} rows, the extra one only tells that there is a next page
+     * @param cursorOf cursor after the given row, taken from the last row of the page
+     * @return the first {@code limit} rows mapped to the content of the page
+     */
+    public static <R, T> CursorPageDto<T> toPage(List<R> rows, int limit,
+                                                 Function<R, T> mapper, Function<R, String> cursorOf) {
+        List<T> content = rows.stream()
+                .limit(limit)
+                .map(mapper)
+                .toList();
+        String nextCursor = rows.size() > limit
+                ? cursorOf.apply(rows.get(limit - 1))
+                : null;
+        return new CursorPageDto<>(content, nextCursor);
+    }
+}
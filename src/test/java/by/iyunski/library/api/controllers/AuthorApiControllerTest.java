@@ -1,10 +1,19 @@
 package by.iyunski.library.api.controllers;
 
+import by.iyunski.library.persistence.model.Author;
 import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.SuggestService;
 import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.AuthorFilterDto;
 import by.iyunski.library.service.dtos.AuthorRequestDto;
+import by.iyunski.library.service.dtos.AuthorWithBooksDto;
 import by.iyunski.library.service.dtos.BookDto;
 import by.iyunski.library.service.dtos.BookRequestDto;
+import by.iyunski.library.service.dtos.BulkResultDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.util.BookVersions;
+import by.iyunski.library.service.util.CursorCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
 import org.hamcrest.core.Is;
@@ -14,38 +23,61 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.ErrorResponseException;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import static by.iyunski.library.util.AuthorTestData.*;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {AuthorApiController.class})
 @AutoConfigureMockMvc(addFilters = false)
 class AuthorApiControllerTest {
     public static final String API_V_1_AUTHORS = "/api/v1/authors";
+    public static final String API_V_1_AUTHORS_BULK = "/api/v1/authors/bulk";
+    public static final String API_V_1_AUTHORS_EXPORT = "/api/v1/authors/export";
+    public static final String API_V_1_AUTHORS_SUGGEST = "/api/v1/authors/suggest";
     public static final String API_V_1_AUTHORS_ID = "/api/v1/authors/{id}";
     public static final String API_V_1_AUTHORS_ID_BOOKS = "/api/v1/authors/{id}/books";
+    public static final String API_V_1_AUTHORS_ID_BOOKS_BULK = "/api/v1/authors/{id}/books/bulk";
     public static final String API_V_1_AUTHORS_ID_BOOKS_ID = "/api/v1/authors/{id}/books/{id}";
     public static final String ISBN_VALIDATION_ERROR_MESSAGE = "ISBN must contain only digits, be a length of 13 digits and start with 978 or 979";
     public static final String MUST_BE_A_PAST_DATE = "must be a past date";
@@ -53,6 +85,7 @@ class AuthorApiControllerTest {
     public static final String MUST_NOT_BE_NULL = "must not be null";
     public static final String MUST_NOT_BE_EMPTY = "must not be empty";
     public static final String SIZE_MUST_BE_BETWEEN_0_AND_50 = "size must be between 0 and 50";
+    public static final String SIZE_MUST_BE_BETWEEN_0_AND_1000 = "size must be between 0 and 1000";
     public static final String YEAR_VALIDATION_ERROR_MESSAGE = "must be a past date and be in range from the first to the current year";
     public static final String MUST_BE_LESS_THAN_OR_EQUAL_TO_9999 = "must be less than or equal to 9999";
     public static final String MUST_BE_GREATER_THAN_OR_EQUAL_TO_1 = "must be greater than or equal to 1";
@@ -66,6 +99,9 @@ class AuthorApiControllerTest {
     @MockBean
     private AuthorService authorService;
 
+    @MockBean
+    private SuggestService suggestService;
+
     @Nested
     class GetAll {
         @Test
@@ -73,26 +109,191 @@ class AuthorApiControllerTest {
 
             List<AuthorDto> authorDtoList = getAuthorDtoList();
 
-            when(authorService.getAllAuthors()).thenReturn(authorDtoList);
+            when(authorService.getAllAuthors(null, PAGE_SIZE)).thenReturn(new CursorPageDto<>(authorDtoList, null));
 
             MvcResult mvcResult = mockMvc.perform(
                     get(
                             API_V_1_AUTHORS
                     ).contentType(MediaType.APPLICATION_JSON)
                             .content(objectMapper.writeValueAsBytes(authorDtoList))
-            ).andExpect(status().isOk()).andReturn();
+            ).andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(AuthorApiController.NEXT_CURSOR_HEADER))
+                    .andReturn();
 
-            verify(authorService, times(1)).getAllAuthors();
+            verify(authorService, times(1)).getAllAuthors(null, PAGE_SIZE);
 
             String contentAsString = mvcResult.getResponse().getContentAsString();
 
             assertThat(contentAsString).isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(authorDtoList));
         }
 
+        @Test
+        void shouldReturnNextCursorHeaderWhenThereAreMoreAuthors() throws Exception {
+
+            List<AuthorDto> authorDtoList = getAuthorDtoList();
+            String cursor = CursorCodec.encode(ID_1);
+            String nextCursor = CursorCodec.encode(ID_2);
+
+            when(authorService.getAllAuthors(cursor, 2)).thenReturn(new CursorPageDto<>(authorDtoList, nextCursor));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("after", cursor)
+                                    .param("limit", "2")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(AuthorApiController.NEXT_CURSOR_HEADER, nextCursor));
+
+            verify(authorService, times(1)).getAllAuthors(cursor, 2);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"0", "-1", "101"})
+        void shouldReturn400WhenLimitIsOutOfRange(String limit) throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("limit", limit)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("limit").exists());
+
+            verify(authorService, never()).getAllAuthors(any(), any());
+        }
+
+        @Test
+        void shouldFindAuthorsByFilterWhenFilterParamsAreSent() throws Exception {
+
+            List<AuthorDto> authorDtoList = getAuthorDtoList();
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, VALID_DATE_OF_BIRTH, null,
+                    AuthorFilterDto.SORT_BY_DATE_OF_BIRTH);
+            String nextCursor = CursorCodec.encode(ANOTHER_DATE_OF_BIRTH, ID_2);
+
+            when(authorService.findAuthors(filter, null, PAGE_SIZE)).thenReturn(new CursorPageDto<>(authorDtoList, nextCursor));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("country", VALID_COUNTRY)
+                                    .param("bornAfter", VALID_DATE_OF_BIRTH.toString())
+                                    .param("sort", AuthorFilterDto.SORT_BY_DATE_OF_BIRTH)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(AuthorApiController.NEXT_CURSOR_HEADER, nextCursor))
+                    .andExpect(jsonPath("$[1].id").value(ID_2));
+
+            verify(authorService, times(1)).findAuthors(filter, null, PAGE_SIZE);
+            verify(authorService, never()).getAllAuthors(any(), any());
+        }
+
+        @Test
+        void shouldGetAllAuthorsByIdWhenOnlySortByIdIsSent() throws Exception {
+
+            when(authorService.getAllAuthors(null, PAGE_SIZE)).thenReturn(new CursorPageDto<>(getAuthorDtoList(), null));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("sort", AuthorFilterDto.SORT_BY_ID)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk());
+
+            verify(authorService, times(1)).getAllAuthors(null, PAGE_SIZE);
+            verify(authorService, never()).findAuthors(any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenSortIsUnknown() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("sort", "lastName")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("sort").exists());
+
+            verify(authorService, never()).getAllAuthors(any(), any());
+            verify(authorService, never()).findAuthors(any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn503WhenFilterIsNotAnsweredInTime() throws Exception {
+
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+
+            when(authorService.findAuthors(filter, null, PAGE_SIZE))
+                    .thenThrow(new QueryTimeoutException("Statement cancelled"));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("country", VALID_COUNTRY)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isServiceUnavailable());
+        }
+
+        @Test
+        void shouldGetAuthorsByIdsWhenIdsAreSent() throws Exception {
+
+            List<AuthorDto> authorDtoList = new ArrayList<>(getAuthorDtoList());
+            Collections.reverse(authorDtoList);
+
+            when(authorService.getAuthorsByIds(List.of(ID_2, ID_1))).thenReturn(authorDtoList);
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("ids", ID_2 + "," + ID_1)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(AuthorApiController.NEXT_CURSOR_HEADER))
+                    .andExpect(jsonPath("$[0].id").value(ID_2))
+                    .andExpect(jsonPath("$[1].id").value(ID_1));
+
+            verify(authorService, times(1)).getAuthorsByIds(List.of(ID_2, ID_1));
+            verify(authorService, never()).getAllAuthors(any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenIdsAreCombinedWithFilter() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("ids", String.valueOf(ID_1))
+                                    .param("country", VALID_COUNTRY)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verify(authorService, never()).getAuthorsByIds(any());
+            verify(authorService, never()).findAuthors(any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenTooManyIdsAreSent() throws Exception {
+
+            String ids = LongStream.rangeClosed(1, AuthorApiController.MAX_IDS + 1)
+                    .mapToObj(String::valueOf)
+                    .collect(Collectors.joining(","));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("ids", ids)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("ids").exists());
+
+            verify(authorService, never()).getAuthorsByIds(any());
+        }
+
         @Test
         void shouldReturn204IfThereIsNoAuthorsInDb() throws Exception {
 
-            when(authorService.getAllAuthors())
+            when(authorService.getAllAuthors(null, PAGE_SIZE))
                     .thenThrow(new ErrorResponseException(HttpStatus.NO_CONTENT));
 
             mockMvc.perform(
@@ -101,7 +302,110 @@ class AuthorApiControllerTest {
                             ).contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isNoContent());
 
-            verify(authorService, times(1)).getAllAuthors();
+            verify(authorService, times(1)).getAllAuthors(null, PAGE_SIZE);
+        }
+    }
+
+    @Nested
+    class ExportAuthors {
+        @Test
+        void shouldStreamAllAuthorsAsNdjsonWhenExportAuthorsInvoke() throws Exception {
+
+            List<AuthorDto> authorDtoList = getAuthorDtoList();
+
+            doAnswer(invocation -> {
+                Consumer<AuthorDto> consumer = invocation.getArgument(0);
+                authorDtoList.forEach(consumer);
+                return null;
+            }).when(authorService).exportAuthors(any());
+
+            MvcResult mvcResult = mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_EXPORT
+                            ).accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String contentAsString = mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(authorService, times(1)).exportAuthors(any());
+
+            assertThat(contentAsString.lines().toList()).containsExactly(
+                    objectMapper.writeValueAsString(authorDtoList.get(0)),
+                    objectMapper.writeValueAsString(authorDtoList.get(1)));
+        }
+    }
+
+    @Nested
+    class SuggestAuthors {
+        @Test
+        void shouldReturn200AndCallBusinessLogicWhenSuggestAuthorsInvoke() throws Exception {
+
+            List<AuthorDto> authorDtoList = List.of(getAuthorDto());
+
+            when(suggestService.suggestAuthors("smi", 10)).thenReturn(authorDtoList);
+
+            String contentAsString = mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_SUGGEST
+                            ).param("prefix", "smi")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(suggestService, times(1)).suggestAuthors("smi", 10);
+            verify(authorService, never()).getAuthorById(any());
+
+            Assertions.assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(authorDtoList));
+        }
+
+        @Test
+        void shouldReturn204IfThereIsNoSuchAuthors() throws Exception {
+
+            when(suggestService.suggestAuthors("xyz", 10))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NO_CONTENT));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_SUGGEST
+                            ).param("prefix", "xyz")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"0", "51"})
+        void shouldReturn400WhenSuggestLimitIsOutOfRange(String limit) throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_SUGGEST
+                            ).param("prefix", "smi")
+                                    .param("limit", limit)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("limit").exists());
+
+            verify(suggestService, never()).suggestAuthors(any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenPrefixIsBlank() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_SUGGEST
+                            ).param("prefix", " ")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("prefix").value(MUST_NOT_BE_BLANK));
+
+            verify(suggestService, never()).suggestAuthors(any(), any());
         }
     }
 
@@ -125,7 +429,8 @@ class AuthorApiControllerTest {
                     .andExpect(jsonPath("firstName").value(authorDto.firstName()))
                     .andExpect(jsonPath("lastName").value(authorDto.lastName()))
                     .andExpect(jsonPath("dateOfBirth").value(authorDto.dateOfBirth().toString()))
-                    .andExpect(jsonPath("country").value(authorDto.country())).andReturn();
+                    .andExpect(jsonPath("country").value(authorDto.country()))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + authorDto.version() + "\"")).andReturn();
 
             verify(authorService, times(1)).getAuthorById(ID_1);
 
@@ -148,7 +453,269 @@ class AuthorApiControllerTest {
                             ).contentType(MediaType.APPLICATION_JSON))
                     .andExpect(status().isNotFound());
 
-            verify(authorService, times(1)).getAuthorById(INVALID_ID);
+            verify(authorService, times(1)).getAuthorById(INVALID_ID);
+        }
+
+        @Test
+        void shouldReturn304WithoutLoadingAuthorWhenIfNoneMatchHasCurrentVersion() throws Exception {
+
+            when(authorService.getAuthorVersion(ID_1)).thenReturn(VERSION_1);
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID,
+                                    ID_1
+                            ).header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION_1 + "\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + VERSION_1 + "\""))
+                    .andExpect(content().string(""));
+
+            verify(authorService, times(1)).getAuthorVersion(ID_1);
+            verify(authorService, never()).getAuthorById(any(Long.class));
+        }
+
+        @Test
+        void shouldReturn304WithoutReadingDatabaseWhenCachedAuthorHasCurrentVersion() throws Exception {
+
+            AuthorDto authorDto = getAuthorDto();
+
+            when(authorService.getCachedAuthorById(ID_1)).thenReturn(Optional.of(authorDto));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID,
+                                    ID_1
+                            ).header(HttpHeaders.IF_NONE_MATCH, "\"" + authorDto.version() + "\""))
+                    .andExpect(status().isNotModified());
+
+            verify(authorService, never()).getAuthorVersion(any(Long.class));
+            verify(authorService, never()).getAuthorById(any(Long.class));
+        }
+
+        @Test
+        void shouldReturn200WithCachedAuthorWithoutReadingDatabaseWhenAuthorIsCached() throws Exception {
+
+            AuthorDto authorDto = getAuthorDto();
+
+            when(authorService.getCachedAuthorById(ID_1)).thenReturn(Optional.of(authorDto));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID,
+                                    ID_1
+                            ).contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + authorDto.version() + "\""))
+                    .andExpect(jsonPath("id").value(authorDto.id()));
+
+            verify(authorService, never()).getAuthorVersion(any(Long.class));
+            verify(authorService, never()).getAuthorById(any(Long.class));
+        }
+
+        @Test
+        void shouldReturn200WhenIfNoneMatchHasStaleVersion() throws Exception {
+
+            AuthorDto authorDto = getAuthorDto();
+
+            when(authorService.getAuthorVersion(ID_1)).thenReturn(VERSION_1);
+            when(authorService.getAuthorById(ID_1)).thenReturn(authorDto);
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID,
+                                    ID_1
+                            ).header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION_0 + "\""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("id").value(authorDto.id()));
+
+            verify(authorService, times(1)).getAuthorById(ID_1);
+        }
+
+        @Test
+        void shouldReturn404WithoutLoadingAuthorWhenVersionOfInvalidIdIsRequested() throws Exception {
+
+            when(authorService.getAuthorVersion(INVALID_ID))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID,
+                                    INVALID_ID
+                            ).header(HttpHeaders.IF_NONE_MATCH, "\"" + VERSION_0 + "\""))
+                    .andExpect(status().isNotFound());
+
+            verify(authorService, never()).getAuthorById(any(Long.class));
+        }
+    }
+
+    @Nested
+    class GetAuthorsWithBooks {
+        @Test
+        void shouldReturnPageOfAuthorsWithBooksWhenIncludeBooksIsSent() throws Exception {
+
+            List<AuthorDto> authorDtoList = getAuthorDtoList();
+            List<AuthorWithBooksDto> authorsWithBooks = List.of(
+                    AuthorWithBooksDto.of(authorDtoList.get(0), getBookDtoList()),
+                    AuthorWithBooksDto.of(authorDtoList.get(1), List.of()));
+            String nextCursor = CursorCodec.encode(ID_2);
+
+            when(authorService.getAllAuthors(null, 2)).thenReturn(new CursorPageDto<>(authorDtoList, nextCursor));
+            when(authorService.includeBooks(authorDtoList)).thenReturn(authorsWithBooks);
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("include", "books")
+                                    .param("limit", "2")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(AuthorApiController.NEXT_CURSOR_HEADER, nextCursor))
+                    .andExpect(jsonPath("$[0].books.length()").value(getBookDtoList().size()))
+                    .andExpect(jsonPath("$[0].books[0].id").value(ID_1))
+                    .andExpect(jsonPath("$[1].books").isEmpty());
+
+            verify(authorService, times(1)).includeBooks(authorDtoList);
+        }
+
+        @Test
+        void shouldReturnAuthorWithBooksWhenIncludeBooksIsSent() throws Exception {
+
+            AuthorWithBooksDto authorWithBooksDto = AuthorWithBooksDto.of(getAuthorDto(), getBookDtoList());
+
+            when(authorService.getAuthorWithBooksById(ID_1)).thenReturn(authorWithBooksDto);
+
+            String contentAsString = mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID,
+                                    ID_1
+                            ).param("include", "books")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(authorService, never()).getAuthorById(any());
+            verify(authorService, never()).getAllBooksOfAuthorByAuthorId(any());
+
+            Assertions.assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(authorWithBooksDto));
+        }
+
+        @Test
+        void shouldReturn404WhenGetAuthorWithBooksWithInvalidId() throws Exception {
+
+            when(authorService.getAuthorWithBooksById(INVALID_ID))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID,
+                                    INVALID_ID
+                            ).param("include", "books")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    class GetAuthorFields {
+        @Test
+        void shouldReturnOnlyRequestedFieldsWhenFieldsIsSent() throws Exception {
+
+            List<String> fields = List.of("id", "lastName");
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+            List<Map<String, Object>> authorFields = List.of(
+                    Map.of("id", ID_1, "lastName", VALID_LAST_NAME),
+                    Map.of("id", ID_2, "lastName", VALID_LAST_NAME));
+            String nextCursor = CursorCodec.encode(VALID_DATE_OF_BIRTH, ID_2);
+
+            when(authorService.findAuthorFields(filter, fields, null, PAGE_SIZE))
+                    .thenReturn(new CursorPageDto<>(authorFields, nextCursor));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("fields", "id,lastName")
+                                    .param("country", VALID_COUNTRY)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(AuthorApiController.NEXT_CURSOR_HEADER, nextCursor))
+                    .andExpect(jsonPath("$[0].id").value(ID_1))
+                    .andExpect(jsonPath("$[0].lastName").value(VALID_LAST_NAME))
+                    .andExpect(jsonPath("$[0].firstName").doesNotExist());
+
+            verify(authorService, never()).findAuthors(any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenFieldIsUnknown() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("fields", "id,books")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verify(authorService, never()).findAuthorFields(any(), any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenFieldsIsCombinedWithIds() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("fields", "id")
+                                    .param("ids", String.valueOf(ID_1))
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(authorService);
+        }
+
+        @Test
+        void shouldReturn400WhenFieldsIsCombinedWithInclude() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("fields", "id")
+                                    .param("include", "books")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(authorService);
+        }
+
+        @Test
+        void shouldReturn400WhenFieldsIsSentForOneAuthor() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID, ID_1
+                            ).param("fields", "id")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(authorService);
+        }
+
+        @Test
+        void shouldReturn204WhenNoAuthorsMatchWithFields() throws Exception {
+
+            List<String> fields = List.of("id");
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+
+            when(authorService.findAuthorFields(filter, fields, null, PAGE_SIZE))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NO_CONTENT));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS
+                            ).param("fields", "id")
+                                    .param("country", VALID_COUNTRY)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
         }
     }
 
@@ -178,6 +745,129 @@ class AuthorApiControllerTest {
         }
     }
 
+    @Nested
+    class PostAuthorsBulk {
+        @Test
+        void shouldReturn201AndNumberOfSavedAuthorsWhenSaveValidAuthorsArray() throws Exception {
+
+            List<AuthorRequestDto> authorRequestDtos = List.of(getValidAuthorRequestDto(), getValidAuthorRequestDto());
+            BulkResultDto bulkResultDto = new BulkResultDto((long) authorRequestDtos.size());
+
+            when(authorService.saveNewAuthors(any())).thenReturn(bulkResultDto);
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_BULK
+                            ).contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsBytes(authorRequestDtos)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("created").value(authorRequestDtos.size()));
+
+            verify(authorService, times(1)).saveNewAuthors(any());
+        }
+
+        @Test
+        void shouldReturn400WhenSaveAuthorsArrayWithInvalidAuthor() throws Exception {
+
+            List<AuthorRequestDto> authorRequestDtos = List.of(getValidAuthorRequestDto(),
+                    new AuthorRequestDto(NULL_STRING, VALID_LAST_NAME, VALID_DATE_OF_BIRTH, VALID_COUNTRY));
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_BULK
+                            ).contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsBytes(authorRequestDtos)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("['authorRequestDtos[1].firstName']", Is.is(MUST_NOT_BE_BLANK)));
+
+            verify(authorService, never()).saveNewAuthors(any());
+        }
+
+        @Test
+        void shouldReturn400WhenSaveAuthorsArrayLargerThanMaxBulkSize() throws Exception {
+
+            List<AuthorRequestDto> authorRequestDtos =
+                    Collections.nCopies(AuthorApiController.MAX_BULK_SIZE + 1, getValidAuthorRequestDto());
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_BULK
+                            ).contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsBytes(authorRequestDtos)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("authorRequestDtos", Is.is(SIZE_MUST_BE_BETWEEN_0_AND_1000)));
+
+            verify(authorService, never()).saveNewAuthors(any());
+        }
+
+        @Test
+        void shouldReturn201AndSaveEveryLineWhenSaveValidAuthorsNdjson() throws Exception {
+
+            List<AuthorRequestDto> authorRequestDtos = List.of(getValidAuthorRequestDto(), getValidAuthorRequestDto());
+            List<AuthorRequestDto> savedAuthorRequestDtos = new ArrayList<>();
+
+            when(authorService.saveNewAuthors(any())).thenAnswer(invocation -> {
+                Stream<AuthorRequestDto> stream = invocation.getArgument(0);
+                stream.forEach(savedAuthorRequestDtos::add);
+                return new BulkResultDto((long) savedAuthorRequestDtos.size());
+            });
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_BULK
+                            ).contentType(MediaType.APPLICATION_NDJSON)
+                                    .content(toNdjson(authorRequestDtos)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("created").value(authorRequestDtos.size()));
+
+            assertThat(savedAuthorRequestDtos).isEqualTo(authorRequestDtos);
+        }
+
+        @Test
+        void shouldReturn400WhenSaveAuthorsNdjsonWithInvalidAuthor() throws Exception {
+
+            List<AuthorRequestDto> authorRequestDtos = List.of(getValidAuthorRequestDto(),
+                    new AuthorRequestDto(VALID_FIRST_NAME, VALID_LAST_NAME, VALID_DATE_OF_BIRTH, NULL_STRING));
+
+            when(authorService.saveNewAuthors(any())).thenAnswer(invocation -> {
+                Stream<AuthorRequestDto> stream = invocation.getArgument(0);
+                return new BulkResultDto(stream.count());
+            });
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_BULK
+                            ).contentType(MediaType.APPLICATION_NDJSON)
+                                    .content(toNdjson(authorRequestDtos)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("country", Is.is(MUST_NOT_BE_BLANK)));
+        }
+
+        @Test
+        void shouldReturn400WhenSaveMalformedAuthorsNdjson() throws Exception {
+
+            when(authorService.saveNewAuthors(any())).thenAnswer(invocation -> {
+                Stream<AuthorRequestDto> stream = invocation.getArgument(0);
+                return new BulkResultDto(stream.count());
+            });
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_BULK
+                            ).contentType(MediaType.APPLICATION_NDJSON)
+                                    .content("{\"firstName\": \"John\"\n"))
+                    .andExpect(status().isBadRequest());
+        }
+
+        private String toNdjson(List<?> items) throws JsonProcessingException {
+            StringBuilder ndjson = new StringBuilder();
+            for (Object item : items) {
+                ndjson.append(objectMapper.writeValueAsString(item)).append('\n');
+            }
+            return ndjson.toString();
+        }
+    }
+
     @Nested
     class ValidationPostAuthor {
         @Test
@@ -310,7 +1000,7 @@ class AuthorApiControllerTest {
             AuthorRequestDto validAuthorRequestDto = getValidAuthorRequestDto();
             AuthorDto authorDto = getAuthorDtoByAuthorRequestDto(validAuthorRequestDto);
 
-            when(authorService.updateAuthor(ID_1, validAuthorRequestDto)).thenReturn(authorDto);
+            when(authorService.updateAuthor(ID_1, validAuthorRequestDto, null)).thenReturn(authorDto);
 
             MvcResult mvcResult = mockMvc.perform(
                     put(
@@ -321,7 +1011,7 @@ class AuthorApiControllerTest {
                             .content(objectMapper.writeValueAsBytes(validAuthorRequestDto))
             ).andExpect(status().isOk()).andReturn();
 
-            verify(authorService, times(1)).updateAuthor(ID_1, validAuthorRequestDto);
+            verify(authorService, times(1)).updateAuthor(ID_1, validAuthorRequestDto, null);
 
             String contentAsString = mvcResult.getResponse().getContentAsString();
 
@@ -333,7 +1023,7 @@ class AuthorApiControllerTest {
 
             AuthorRequestDto validAuthorRequestDto = getValidAuthorRequestDto();
 
-            when(authorService.updateAuthor(INVALID_ID, validAuthorRequestDto))
+            when(authorService.updateAuthor(INVALID_ID, validAuthorRequestDto, null))
                     .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
 
             mockMvc.perform(
@@ -345,7 +1035,64 @@ class AuthorApiControllerTest {
                             .content(objectMapper.writeValueAsBytes(validAuthorRequestDto))
             ).andExpect(status().isNotFound());
 
-            verify(authorService, times(1)).updateAuthor(INVALID_ID, validAuthorRequestDto);
+            verify(authorService, times(1)).updateAuthor(INVALID_ID, validAuthorRequestDto, null);
+        }
+
+        @Test
+        void shouldPassVersionFromIfMatchAndReturnNewETagWhenUpdateAuthor() throws Exception {
+
+            AuthorRequestDto validAuthorRequestDto = getValidAuthorRequestDto();
+            AuthorDto authorDto = getAuthorDtoByAuthorRequestDto(validAuthorRequestDto);
+
+            when(authorService.updateAuthor(ID_1, validAuthorRequestDto, VERSION_0)).thenReturn(authorDto);
+
+            mockMvc.perform(
+                    put(
+                            API_V_1_AUTHORS_ID,
+                            ID_1
+                    ).contentType(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_MATCH, "\"" + VERSION_0 + "\"")
+                            .content(objectMapper.writeValueAsBytes(validAuthorRequestDto))
+            ).andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + authorDto.version() + "\""));
+
+            verify(authorService, times(1)).updateAuthor(ID_1, validAuthorRequestDto, VERSION_0);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"W/\"0\"", "\"abc\"", "0"})
+        void shouldReturn412WhenUpdateAuthorWithIfMatchThatCanNotMatch(String ifMatch) throws Exception {
+
+            AuthorRequestDto validAuthorRequestDto = getValidAuthorRequestDto();
+
+            mockMvc.perform(
+                    put(
+                            API_V_1_AUTHORS_ID,
+                            ID_1
+                    ).contentType(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_MATCH, ifMatch)
+                            .content(objectMapper.writeValueAsBytes(validAuthorRequestDto))
+            ).andExpect(status().isPreconditionFailed());
+
+            verify(authorService, never()).updateAuthor(any(Long.class), any(AuthorRequestDto.class), any());
+        }
+
+        @Test
+        void shouldReturn412WhenAuthorIsUpdatedConcurrently() throws Exception {
+
+            AuthorRequestDto validAuthorRequestDto = getValidAuthorRequestDto();
+
+            when(authorService.updateAuthor(ID_1, validAuthorRequestDto, VERSION_0))
+                    .thenThrow(new ObjectOptimisticLockingFailureException(Author.class, ID_1));
+
+            mockMvc.perform(
+                    put(
+                            API_V_1_AUTHORS_ID,
+                            ID_1
+                    ).contentType(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_MATCH, "\"" + VERSION_0 + "\"")
+                            .content(objectMapper.writeValueAsBytes(validAuthorRequestDto))
+            ).andExpect(status().isPreconditionFailed());
         }
     }
 
@@ -486,14 +1233,16 @@ class AuthorApiControllerTest {
         @Test
         void shouldReturn200AndCallBusinessLogicWhenDeleteAuthorByIdInvoke() throws Exception {
 
-            when(authorService.deleteAuthorById(ID_1)).thenReturn(ID_1);
+            when(authorService.deleteAuthorById(ID_1)).thenReturn(DELETED_BOOKS);
 
             MvcResult mvcResult = mockMvc.perform(
                             delete(
                                     API_V_1_AUTHORS_ID,
                                     ID_1
                             ).contentType(MediaType.APPLICATION_JSON))
-                    .andExpect(status().isOk()).andReturn();
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(AuthorApiController.DELETED_BOOKS_HEADER, String.valueOf(DELETED_BOOKS)))
+                    .andReturn();
 
             verify(authorService, times(1)).deleteAuthorById(ID_1);
 
@@ -543,6 +1292,19 @@ class AuthorApiControllerTest {
                     .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(bookDtoList));
         }
 
+        @Test
+        void shouldReturn400WhenFieldsIsSentForBooksOfAuthor() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_AUTHORS_ID_BOOKS, ID_1
+                            ).param("fields", "id")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(authorService);
+        }
+
         @Test
         void shouldReturn204IfAuthorHasNoBooksInDb() throws Exception {
 
@@ -574,6 +1336,83 @@ class AuthorApiControllerTest {
 
             verify(authorService, times(1)).getAllBooksOfAuthorByAuthorId(INVALID_ID);
         }
+
+        @Test
+        void shouldReturn304WithoutLoadingBooksWhenIfNoneMatchHasCurrentVersion() throws Exception {
+
+            String version = "2-2-0";
+
+            when(authorService.getVersionOfBooksOfAuthor(ID_1)).thenReturn(version);
+
+            mockMvc.perform(
+                    get(
+                            API_V_1_AUTHORS_ID_BOOKS,
+                            ID_1
+                    ).header(HttpHeaders.IF_NONE_MATCH, "\"" + version + "\"")
+            ).andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(authorService, never()).getAllBooksOfAuthorByAuthorId(any(Long.class));
+        }
+
+        @Test
+        void shouldReturn200WithETagWhenBooksAreModified() throws Exception {
+
+            List<BookDto> bookDtoList = getBookDtoList();
+            String version = "2-2-1";
+
+            when(authorService.getVersionOfBooksOfAuthor(ID_1)).thenReturn(version);
+            when(authorService.getAllBooksOfAuthorByAuthorId(ID_1)).thenReturn(bookDtoList);
+
+            mockMvc.perform(
+                    get(
+                            API_V_1_AUTHORS_ID_BOOKS,
+                            ID_1
+                    ).header(HttpHeaders.IF_NONE_MATCH, "\"2-2-0\"")
+            ).andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + version + "\""));
+
+            verify(authorService, times(1)).getAllBooksOfAuthorByAuthorId(ID_1);
+        }
+
+        @Test
+        void shouldReturn304WithoutReadingDatabaseWhenCachedBooksHaveCurrentVersion() throws Exception {
+
+            List<BookDto> bookDtoList = getBookDtoList();
+            String version = BookVersions.of(bookDtoList);
+
+            when(authorService.getCachedBooksOfAuthorByAuthorId(ID_1)).thenReturn(Optional.of(bookDtoList));
+
+            mockMvc.perform(
+                    get(
+                            API_V_1_AUTHORS_ID_BOOKS,
+                            ID_1
+                    ).header(HttpHeaders.IF_NONE_MATCH, "\"" + version + "\"")
+            ).andExpect(status().isNotModified());
+
+            verify(authorService, never()).getVersionOfBooksOfAuthor(any(Long.class));
+            verify(authorService, never()).getAllBooksOfAuthorByAuthorId(any(Long.class));
+        }
+
+        @Test
+        void shouldReturn200WithCachedBooksWithoutReadingDatabaseWhenBooksAreCached() throws Exception {
+
+            List<BookDto> bookDtoList = getBookDtoList();
+
+            when(authorService.getCachedBooksOfAuthorByAuthorId(ID_1)).thenReturn(Optional.of(bookDtoList));
+
+            mockMvc.perform(
+                    get(
+                            API_V_1_AUTHORS_ID_BOOKS,
+                            ID_1
+                    ).contentType(MediaType.APPLICATION_JSON)
+            ).andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + BookVersions.of(bookDtoList) + "\""))
+                    .andExpect(jsonPath("$.length()").value(bookDtoList.size()));
+
+            verify(authorService, never()).getVersionOfBooksOfAuthor(any(Long.class));
+            verify(authorService, never()).getAllBooksOfAuthorByAuthorId(any(Long.class));
+        }
     }
 
     @Nested
@@ -681,6 +1520,120 @@ class AuthorApiControllerTest {
 
             verify(authorService, times(1)).saveNewBookOfAuthorByAuthorId(INVALID_ID, validBookRequestDto);
         }
+
+        @Test
+        void shouldReturn409WhenSaveBookWithExistingIsbn() throws Exception {
+
+            BookRequestDto validBookRequestDto = getValidBookRequestDto();
+
+            when(authorService.saveNewBookOfAuthorByAuthorId(ID_1, validBookRequestDto))
+                    .thenThrow(new DataIntegrityViolationException("Duplicate entry for key 'UK_BOOK_ISBN'"));
+
+            mockMvc.perform(
+                    post(
+                            API_V_1_AUTHORS_ID_BOOKS,
+                            ID_1
+                    ).contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsBytes(validBookRequestDto))
+            ).andExpect(status().isConflict());
+
+            verify(authorService, times(1)).saveNewBookOfAuthorByAuthorId(ID_1, validBookRequestDto);
+        }
+    }
+
+    @Nested
+    class PostBooksOfAuthorBulk {
+        @Test
+        void shouldReturn201AndAddedBooksWhenSaveValidBooks() throws Exception {
+
+            List<BookRequestDto> bookRequestDtos = List.of(getValidBookRequestDto(), getValidBookRequestDto());
+            List<BookDto> bookDtoList = getBookDtoList();
+
+            when(authorService.saveNewBooksOfAuthorByAuthorId(ID_1, bookRequestDtos))
+                    .thenReturn(bookDtoList);
+
+            MvcResult mvcResult = mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_ID_BOOKS_BULK,
+                                    ID_1
+                            ).contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsBytes(bookRequestDtos)))
+                    .andExpect(status().isCreated()).andReturn();
+
+            verify(authorService, times(1)).saveNewBooksOfAuthorByAuthorId(ID_1, bookRequestDtos);
+
+            String contentAsString = mvcResult.getResponse().getContentAsString();
+
+            assertThat(contentAsString).isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(bookDtoList));
+        }
+
+        @Test
+        void shouldReturn400AndSaveNothingWhenOneOfBooksIsInvalid() throws Exception {
+
+            List<BookRequestDto> bookRequestDtos = List.of(getValidBookRequestDto(),
+                    new BookRequestDto(VALID_TITLE, VALID_GENRE, VALID_YEAR_OF_PUBLICATION, VALID_NUMBER_OF_PAGES, EMPTY_STRING));
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_ID_BOOKS_BULK,
+                                    ID_1
+                            ).contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsBytes(bookRequestDtos)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("['bookRequestDtos[1].isbn']", Is.is(ISBN_VALIDATION_ERROR_MESSAGE)));
+
+            verify(authorService, never()).saveNewBooksOfAuthorByAuthorId(any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenSaveMoreBooksThanMaxBulkSize() throws Exception {
+
+            List<BookRequestDto> bookRequestDtos =
+                    Collections.nCopies(AuthorApiController.MAX_BULK_SIZE + 1, getValidBookRequestDto());
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_ID_BOOKS_BULK,
+                                    ID_1
+                            ).contentType(MediaType.APPLICATION_JSON)
+                                    .content(objectMapper.writeValueAsBytes(bookRequestDtos)))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("bookRequestDtos", Is.is(SIZE_MUST_BE_BETWEEN_0_AND_1000)));
+
+            verify(authorService, never()).saveNewBooksOfAuthorByAuthorId(any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenSaveEmptyListOfBooks() throws Exception {
+
+            mockMvc.perform(
+                            post(
+                                    API_V_1_AUTHORS_ID_BOOKS_BULK,
+                                    ID_1
+                            ).contentType(MediaType.APPLICATION_JSON)
+                                    .content("[]"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("bookRequestDtos", Is.is(MUST_NOT_BE_EMPTY)));
+
+            verify(authorService, never()).saveNewBooksOfAuthorByAuthorId(any(), any());
+        }
+
+        @Test
+        void shouldReturn404WhenSaveBooksOfAuthorWithInvalidAuthorId() throws Exception {
+
+            List<BookRequestDto> bookRequestDtos = List.of(getValidBookRequestDto());
+
+            when(authorService.saveNewBooksOfAuthorByAuthorId(INVALID_ID, bookRequestDtos))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
+
+            mockMvc.perform(
+                    post(
+                            API_V_1_AUTHORS_ID_BOOKS_BULK,
+                            INVALID_ID
+                    ).contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsBytes(bookRequestDtos))
+            ).andExpect(status().isNotFound());
+        }
     }
 
     @Nested
@@ -889,7 +1842,7 @@ class AuthorApiControllerTest {
 
             BookDto bookDto = getBookDtoByBookRequestDto(validBookRequestDto);
 
-            when(authorService.updateAuthorsBook(ID_1, ID_1, validBookRequestDto)).thenReturn(bookDto);
+            when(authorService.updateAuthorsBook(ID_1, ID_1, validBookRequestDto, null)).thenReturn(bookDto);
 
             MvcResult mvcResult = mockMvc.perform(
                     put(
@@ -901,7 +1854,7 @@ class AuthorApiControllerTest {
                             .content(objectMapper.writeValueAsBytes(validBookRequestDto))
             ).andExpect(status().isOk()).andReturn();
 
-            verify(authorService, times(1)).updateAuthorsBook(ID_1, ID_1, validBookRequestDto);
+            verify(authorService, times(1)).updateAuthorsBook(ID_1, ID_1, validBookRequestDto, null);
 
             String contentAsString = mvcResult.getResponse().getContentAsString();
 
@@ -913,7 +1866,7 @@ class AuthorApiControllerTest {
 
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorService.updateAuthorsBook(INVALID_ID, ID_1, validBookRequestDto))
+            when(authorService.updateAuthorsBook(INVALID_ID, ID_1, validBookRequestDto, null))
                     .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
 
             mockMvc.perform(
@@ -926,7 +1879,7 @@ class AuthorApiControllerTest {
                             .content(objectMapper.writeValueAsBytes(validBookRequestDto))
             ).andExpect(status().isNotFound());
 
-            verify(authorService, times(1)).updateAuthorsBook(INVALID_ID, ID_1, validBookRequestDto);
+            verify(authorService, times(1)).updateAuthorsBook(INVALID_ID, ID_1, validBookRequestDto, null);
         }
 
         @Test
@@ -934,7 +1887,7 @@ class AuthorApiControllerTest {
 
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorService.updateAuthorsBook(ID_1, INVALID_ID, validBookRequestDto))
+            when(authorService.updateAuthorsBook(ID_1, INVALID_ID, validBookRequestDto, null))
                     .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
 
             mockMvc.perform(
@@ -947,7 +1900,28 @@ class AuthorApiControllerTest {
                             .content(objectMapper.writeValueAsBytes(validBookRequestDto))
             ).andExpect(status().isNotFound());
 
-            verify(authorService, times(1)).updateAuthorsBook(ID_1, INVALID_ID, validBookRequestDto);
+            verify(authorService, times(1)).updateAuthorsBook(ID_1, INVALID_ID, validBookRequestDto, null);
+        }
+
+        @Test
+        void shouldReturn412WhenUpdateBookOfAuthorWithStaleVersion() throws Exception {
+
+            BookRequestDto validBookRequestDto = getValidBookRequestDto();
+
+            when(authorService.updateAuthorsBook(ID_1, ID_1, validBookRequestDto, VERSION_1))
+                    .thenThrow(new ErrorResponseException(HttpStatus.PRECONDITION_FAILED));
+
+            mockMvc.perform(
+                    put(
+                            API_V_1_AUTHORS_ID_BOOKS_ID,
+                            ID_1,
+                            ID_1
+                    ).contentType(MediaType.APPLICATION_JSON)
+                            .header(HttpHeaders.IF_MATCH, "\"" + VERSION_1 + "\"")
+                            .content(objectMapper.writeValueAsBytes(validBookRequestDto))
+            ).andExpect(status().isPreconditionFailed());
+
+            verify(authorService, times(1)).updateAuthorsBook(ID_1, ID_1, validBookRequestDto, VERSION_1);
         }
     }
 
@@ -0,0 +1,74 @@
+package by.iyunski.library.api.controllers;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts SQL statements prepared for authors with their books, the count must not depend on the number of authors.
+ * Skipped when Docker is not available.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@Testcontainers(disabledWithoutDocker = true)
+class AuthorWithBooksStatementCountTest {
+    public static final String API_V_1_AUTHORS = "/api/v1/authors";
+    public static final String API_V_1_AUTHORS_ID = "/api/v1/authors/{id}";
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void shouldLoadPageOfAuthorsAndBooksOfAllOfThemWithTwoStatements() throws Exception {
+
+        mockMvc.perform(get(API_V_1_AUTHORS).param("include", "books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].books").isNotEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    void shouldLoadAuthorWithBooksWithOneStatement() throws Exception {
+
+        mockMvc.perform(get(API_V_1_AUTHORS_ID, ID_1).param("include", "books"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("id").value(ID_1))
+                .andExpect(jsonPath("books").isNotEmpty());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
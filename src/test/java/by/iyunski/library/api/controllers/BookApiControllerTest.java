@@ -0,0 +1,339 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.api.support.CursorPageSupport;
+import by.iyunski.library.service.BookService;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.BookFilterDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.util.CursorCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.INVALID_ISBN;
+import static by.iyunski.library.util.AuthorTestData.PAGE_SIZE;
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_ISBN;
+import static by.iyunski.library.util.AuthorTestData.VALID_NUMBER_OF_PAGES;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VALID_YEAR_OF_PUBLICATION;
+import static by.iyunski.library.util.AuthorTestData.getBookDto;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {BookApiController.class})
+@AutoConfigureMockMvc(addFilters = false)
+class BookApiControllerTest {
+    public static final String API_V_1_BOOKS = "/api/v1/books";
+    public static final String API_V_1_BOOKS_EXPORT = "/api/v1/books/export";
+    public static final String API_V_1_BOOKS_ISBN = "/api/v1/books/isbn/{isbn}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private BookService bookService;
+
+    @Nested
+    class GetBooks {
+        @Test
+        void shouldReturn200AndNextCursorWhenGetBooksInvoke() throws Exception {
+
+            List<BookDto> bookDtoList = getBookDtoList();
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, VALID_YEAR_OF_PUBLICATION, null, VALID_NUMBER_OF_PAGES);
+            String nextCursor = CursorCodec.encode(bookDtoList.get(1).yearOfPublication(), ID_2);
+
+            when(bookService.findBooks(filter, null, PAGE_SIZE)).thenReturn(new CursorPageDto<>(bookDtoList, nextCursor));
+
+            String contentAsString = mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("genre", VALID_GENRE)
+                                    .param("yearFrom", VALID_YEAR_OF_PUBLICATION.toString())
+                                    .param("minPages", String.valueOf(VALID_NUMBER_OF_PAGES))
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(CursorPageSupport.NEXT_CURSOR_HEADER, nextCursor))
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(bookService, times(1)).findBooks(filter, null, PAGE_SIZE);
+
+            assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(bookDtoList));
+        }
+
+        @Test
+        void shouldReturn400WhenMinPagesIsNotPositive() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("genre", VALID_GENRE)
+                                    .param("minPages", "0")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("minPages").exists());
+
+            verify(bookService, never()).findBooks(any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenFilterCannotBeServedByIndex() throws Exception {
+
+            BookFilterDto filter = new BookFilterDto(null, null, null, VALID_NUMBER_OF_PAGES);
+
+            when(bookService.findBooks(filter, null, PAGE_SIZE))
+                    .thenThrow(new ErrorResponseException(HttpStatus.BAD_REQUEST));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("minPages", String.valueOf(VALID_NUMBER_OF_PAGES))
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        void shouldGetBooksByIdsWhenIdsAreSent() throws Exception {
+
+            List<BookDto> bookDtoList = getBookDtoList();
+
+            when(bookService.getBooksByIds(List.of(ID_1, ID_2))).thenReturn(bookDtoList);
+
+            String contentAsString = mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("ids", ID_1 + "," + ID_2)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(bookService, never()).findBooks(any(), any(), any());
+
+            assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(bookDtoList));
+        }
+
+        @Test
+        void shouldReturn400WhenIdsAreCombinedWithCursor() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("ids", String.valueOf(ID_1))
+                                    .param("after", CursorCodec.encode(VALID_YEAR_OF_PUBLICATION, ID_1))
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookService, never()).getBooksByIds(any());
+        }
+
+        @Test
+        void shouldReturn204WhenNoBooksMatch() throws Exception {
+
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, null, null, null);
+
+            when(bookService.findBooks(filter, null, PAGE_SIZE))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NO_CONTENT));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("genre", VALID_GENRE)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
+        }
+    }
+
+    @Nested
+    class GetBookFields {
+        @Test
+        void shouldReturnOnlyRequestedFieldsWhenFieldsIsSent() throws Exception {
+
+            List<String> fields = List.of("id", "title", "authorId");
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, null, null, null);
+            List<Map<String, Object>> bookFields = List.of(
+                    Map.of("id", ID_1, "title", VALID_TITLE, "authorId", ID_1));
+
+            when(bookService.findBookFields(filter, fields, null, PAGE_SIZE))
+                    .thenReturn(new CursorPageDto<>(bookFields, null));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("fields", "id,title,authorId")
+                                    .param("genre", VALID_GENRE)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(CursorPageSupport.NEXT_CURSOR_HEADER))
+                    .andExpect(jsonPath("$[0].title").value(VALID_TITLE))
+                    .andExpect(jsonPath("$[0].authorId").value(ID_1))
+                    .andExpect(jsonPath("$[0].isbn").doesNotExist());
+
+            verify(bookService, never()).findBooks(any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenFieldIsUnknown() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("fields", "id,author")
+                                    .param("genre", VALID_GENRE)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verify(bookService, never()).findBookFields(any(), any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn400WhenFieldsIsCombinedWithIds() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS
+                            ).param("fields", "id")
+                                    .param("ids", String.valueOf(ID_1))
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(bookService);
+        }
+
+        @Test
+        void shouldReturn400WhenFieldsIsSentForOneBook() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS_ISBN, VALID_ISBN
+                            ).param("fields", "id")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verifyNoInteractions(bookService);
+        }
+    }
+
+    @Nested
+    class ExportBooks {
+        @Test
+        void shouldStreamAllBooksAsNdjsonWhenExportBooksInvoke() throws Exception {
+
+            List<BookDto> bookDtoList = getBookDtoList();
+
+            doAnswer(invocation -> {
+                Consumer<BookDto> consumer = invocation.getArgument(0);
+                bookDtoList.forEach(consumer);
+                return null;
+            }).when(bookService).exportBooks(any());
+
+            MvcResult mvcResult = mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS_EXPORT
+                            ).accept(MediaType.APPLICATION_NDJSON))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String contentAsString = mockMvc.perform(asyncDispatch(mvcResult))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(bookService, times(1)).exportBooks(any());
+
+            assertThat(contentAsString.lines().toList()).containsExactly(
+                    objectMapper.writeValueAsString(bookDtoList.get(0)),
+                    objectMapper.writeValueAsString(bookDtoList.get(1)));
+        }
+    }
+
+    @Nested
+    class GetBookByIsbn {
+        @Test
+        void shouldReturn200AndCallBusinessLogicWhenGetBookByIsbnInvoke() throws Exception {
+
+            BookDto bookDto = getBookDto();
+
+            when(bookService.getBookByIsbn(VALID_ISBN)).thenReturn(bookDto);
+
+            String contentAsString = mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS_ISBN,
+                                    VALID_ISBN
+                            ).contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("isbn").value(VALID_ISBN))
+                    .andExpect(jsonPath("authorId").value(bookDto.authorId()))
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(bookService, times(1)).getBookByIsbn(VALID_ISBN);
+
+            assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(bookDto));
+        }
+
+        @Test
+        void shouldReturn404WhenGetBookWithUnknownIsbn() throws Exception {
+
+            when(bookService.getBookByIsbn(VALID_ISBN))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS_ISBN,
+                                    VALID_ISBN
+                            ).contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound());
+
+            verify(bookService, times(1)).getBookByIsbn(VALID_ISBN);
+        }
+
+        @Test
+        void shouldReturn400WhenGetBookWithInvalidIsbn() throws Exception {
+
+            mockMvc.perform(
+                            get(
+                                    API_V_1_BOOKS_ISBN,
+                                    INVALID_ISBN
+                            ).contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("isbn").exists());
+
+            verify(bookService, never()).getBookByIsbn(any());
+        }
+    }
+}
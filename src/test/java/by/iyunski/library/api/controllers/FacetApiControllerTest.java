@@ -0,0 +1,105 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.service.FacetService;
+import by.iyunski.library.service.dtos.FacetFilterDto;
+import by.iyunski.library.service.dtos.FacetResultDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.Map;
+
+import static by.iyunski.library.util.AuthorTestData.PAGE_SIZE;
+import static by.iyunski.library.util.AuthorTestData.VALID_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {FacetApiController.class})
+@AutoConfigureMockMvc(addFilters = false)
+class FacetApiControllerTest {
+    public static final String API_V_1_BOOKS_FACETS = "/api/v1/books/facets";
+    public static final int DECADE = 1990;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private FacetService facetService;
+
+    @Nested
+    class GetFacets {
+        @Test
+        void shouldReturn200AndCallBusinessLogicWhenGetFacetsInvoke() throws Exception {
+
+            FacetFilterDto filter = new FacetFilterDto(VALID_GENRE, DECADE, VALID_COUNTRY);
+            FacetResultDto facetResultDto = new FacetResultDto(getBookDtoList(), null, 2,
+                    Map.of(VALID_GENRE, 2L), Map.of(DECADE, 1L, 2020, 1L), Map.of(VALID_COUNTRY, 2L));
+
+            when(facetService.getFacets(filter, null, PAGE_SIZE)).thenReturn(facetResultDto);
+
+            String contentAsString = mockMvc.perform(
+                            get(API_V_1_BOOKS_FACETS)
+                                    .param("genre", VALID_GENRE)
+                                    .param("decade", String.valueOf(DECADE))
+                                    .param("country", VALID_COUNTRY)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("total").value(2))
+                    .andExpect(jsonPath("booksByDecade['" + DECADE + "']").value(1))
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(facetService, times(1)).getFacets(filter, null, PAGE_SIZE);
+
+            Assertions.assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(facetResultDto));
+        }
+
+        @Test
+        void shouldReturn400WhenDecadeIsNegative() throws Exception {
+
+            mockMvc.perform(
+                            get(API_V_1_BOOKS_FACETS)
+                                    .param("decade", "-10")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("decade").exists());
+
+            verify(facetService, never()).getFacets(any(), any(), any());
+        }
+
+        @Test
+        void shouldReturn204WhenNoBooksMatch() throws Exception {
+
+            when(facetService.getFacets(new FacetFilterDto(VALID_GENRE, null, null), null, PAGE_SIZE))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NO_CONTENT));
+
+            mockMvc.perform(
+                            get(API_V_1_BOOKS_FACETS)
+                                    .param("genre", VALID_GENRE)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
+        }
+    }
+}
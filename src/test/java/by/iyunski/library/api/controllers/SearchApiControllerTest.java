@@ -0,0 +1,116 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.service.SearchService;
+import by.iyunski.library.service.dtos.SearchResultDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+
+import static by.iyunski.library.util.AuthorTestData.VALID_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.getAuthorDto;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoList;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {SearchApiController.class})
+@AutoConfigureMockMvc(addFilters = false)
+class SearchApiControllerTest {
+    public static final String API_V_1_SEARCH = "/api/v1/search";
+    public static final int DEFAULT_LIMIT = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SearchService searchService;
+
+    @Nested
+    class Search {
+        @Test
+        void shouldReturn200AndCallBusinessLogicWhenSearchInvoke() throws Exception {
+
+            SearchResultDto searchResultDto = new SearchResultDto(List.of(getAuthorDto()), getBookDtoList());
+
+            when(searchService.search(VALID_LAST_NAME, DEFAULT_LIMIT)).thenReturn(searchResultDto);
+
+            String contentAsString = mockMvc.perform(
+                            get(API_V_1_SEARCH)
+                                    .param("q", VALID_LAST_NAME)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("authors.length()").value(1))
+                    .andExpect(jsonPath("books.length()").value(2))
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(searchService, times(1)).search(VALID_LAST_NAME, DEFAULT_LIMIT);
+
+            Assertions.assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(searchResultDto));
+        }
+
+        @Test
+        void shouldReturn204IfNothingFound() throws Exception {
+
+            when(searchService.search(VALID_LAST_NAME, DEFAULT_LIMIT))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NO_CONTENT));
+
+            mockMvc.perform(
+                            get(API_V_1_SEARCH)
+                                    .param("q", VALID_LAST_NAME)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
+        }
+
+        @Test
+        void shouldReturn400WhenQueryIsBlank() throws Exception {
+
+            mockMvc.perform(
+                            get(API_V_1_SEARCH)
+                                    .param("q", " ")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest());
+
+            verify(searchService, never()).search(any(), anyInt());
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"0", "101"})
+        void shouldReturn400WhenLimitIsOutOfRange(String limit) throws Exception {
+
+            mockMvc.perform(
+                            get(API_V_1_SEARCH)
+                                    .param("q", VALID_LAST_NAME)
+                                    .param("limit", limit)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("limit").exists());
+
+            verify(searchService, never()).search(any(), anyInt());
+        }
+    }
+}
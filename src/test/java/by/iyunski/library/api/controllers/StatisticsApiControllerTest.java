@@ -0,0 +1,120 @@
+package by.iyunski.library.api.controllers;
+
+import by.iyunski.library.service.StatisticsService;
+import by.iyunski.library.service.dtos.AuthorStatisticsDto;
+import by.iyunski.library.service.dtos.StatisticsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.Map;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.INVALID_ID;
+import static by.iyunski.library.util.AuthorTestData.VALID_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_YEAR_OF_PUBLICATION;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = {StatisticsApiController.class})
+@AutoConfigureMockMvc(addFilters = false)
+class StatisticsApiControllerTest {
+    public static final String API_V_1_STATS = "/api/v1/stats";
+    public static final String API_V_1_STATS_AUTHORS_ID = "/api/v1/stats/authors/{id}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private StatisticsService statisticsService;
+
+    @Nested
+    class GetStatistics {
+        @Test
+        void shouldReturn200AndCallBusinessLogicWhenGetStatisticsInvoke() throws Exception {
+
+            StatisticsDto statisticsDto = new StatisticsDto(Map.of(VALID_GENRE, 2L),
+                    Map.of(VALID_YEAR_OF_PUBLICATION, 2L),
+                    Map.of(VALID_COUNTRY, 2L));
+
+            when(statisticsService.getStatistics()).thenReturn(statisticsDto);
+
+            String contentAsString = mockMvc.perform(
+                            get(API_V_1_STATS)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("booksByGenre['" + VALID_GENRE + "']").value(2))
+                    .andExpect(jsonPath("pagesByAuthor").doesNotExist())
+                    .andReturn().getResponse().getContentAsString();
+
+            verify(statisticsService, times(1)).getStatistics();
+
+            Assertions.assertThat(contentAsString)
+                    .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(statisticsDto));
+        }
+
+        @Test
+        void shouldReturn204IfThereIsNoBooks() throws Exception {
+
+            when(statisticsService.getStatistics())
+                    .thenThrow(new ErrorResponseException(HttpStatus.NO_CONTENT));
+
+            mockMvc.perform(
+                            get(API_V_1_STATS)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNoContent());
+
+            verify(statisticsService, times(1)).getStatistics();
+        }
+    }
+
+    @Nested
+    class GetAuthorStatistics {
+        @Test
+        void shouldReturn200AndCallBusinessLogicWhenGetAuthorStatisticsInvoke() throws Exception {
+
+            when(statisticsService.getAuthorStatistics(ID_1)).thenReturn(new AuthorStatisticsDto(ID_1, 2, 300));
+
+            mockMvc.perform(
+                            get(API_V_1_STATS_AUTHORS_ID, ID_1)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("authorId").value(ID_1))
+                    .andExpect(jsonPath("books").value(2))
+                    .andExpect(jsonPath("pages").value(300));
+
+            verify(statisticsService, times(1)).getAuthorStatistics(ID_1);
+        }
+
+        @Test
+        void shouldReturn404IfThereIsNoSuchAuthor() throws Exception {
+
+            when(statisticsService.getAuthorStatistics(INVALID_ID))
+                    .thenThrow(new ErrorResponseException(HttpStatus.NOT_FOUND));
+
+            mockMvc.perform(
+                            get(API_V_1_STATS_AUTHORS_ID, INVALID_ID)
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound());
+        }
+    }
+}
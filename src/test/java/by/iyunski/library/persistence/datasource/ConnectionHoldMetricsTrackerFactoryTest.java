@@ -0,0 +1,77 @@
+package by.iyunski.library.persistence.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.PoolStats;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ConnectionHoldMetricsTrackerFactoryTest {
+    public static final String POOL = "primary";
+    public static final String AUTHOR_PATTERN = "/api/v1/authors/{id}";
+    public static final long HOLD_MILLIS = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IMetricsTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new ConnectionHoldMetricsTrackerFactory(() -> meterRegistry).create(POOL, new PoolStats(0) {
+            @Override
+            protected void update() {
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        tracker.close();
+    }
+
+    @Test
+    void shouldRecordHoldTimeTaggedByEndpoint_whenConnectionIsReturnedDuringRequest() {
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/authors/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, AUTHOR_PATTERN);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        tracker.recordConnectionUsageMillis(HOLD_MILLIS);
+
+        Timer hold = meterRegistry.get(ConnectionHoldMetricsTrackerFactory.CONNECTION_HOLD)
+                .tags("pool", POOL, "method", "GET", "uri", AUTHOR_PATTERN)
+                .timer();
+        assertEquals(1, hold.count());
+        assertEquals(HOLD_MILLIS, hold.totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void shouldRecordHoldTimeTaggedByNone_whenConnectionIsReturnedOutsideOfRequest() {
+
+        tracker.recordConnectionUsageMillis(HOLD_MILLIS);
+
+        Timer hold = meterRegistry.get(ConnectionHoldMetricsTrackerFactory.CONNECTION_HOLD)
+                .tags("pool", POOL, "method", ConnectionHoldMetricsTrackerFactory.NONE,
+                        "uri", ConnectionHoldMetricsTrackerFactory.NONE)
+                .timer();
+        assertEquals(1, hold.count());
+    }
+
+    @Test
+    void shouldKeepHikariMetrics_whenConnectionIsReturned() {
+
+        tracker.recordConnectionUsageMillis(HOLD_MILLIS);
+
+        assertEquals(1, meterRegistry.get("hikaricp.connections.usage").tag("pool", POOL).timer().count());
+    }
+}
@@ -0,0 +1,118 @@
+package by.iyunski.library.persistence.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReadWriteRoutingDataSourceTest {
+    public static final String SELECT_1 = "SELECT 1";
+
+    @Mock
+    private DataSource primaryDataSource;
+    @Mock
+    private DataSource replicaDataSource;
+    @Mock
+    private Connection primaryConnection;
+    @Mock
+    private Connection replicaConnection;
+
+    private final AtomicBoolean replicaAvailable = new AtomicBoolean(true);
+    private TransactionTemplate transactionTemplate;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(replicaAvailable::get);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        clearInvocations(primaryDataSource, replicaDataSource);
+    }
+
+    @Nested
+    class Routing {
+        @Test
+        void shouldRouteReadOnlyTransactionToReplica_whenReplicaIsAvailable() throws SQLException {
+
+            executeInTransaction(true);
+
+            verify(replicaDataSource, times(1)).getConnection();
+            verify(primaryDataSource, never()).getConnection();
+        }
+
+        @Test
+        void shouldRouteReadWriteTransactionToPrimary() throws SQLException {
+
+            executeInTransaction(false);
+
+            verify(primaryDataSource, times(1)).getConnection();
+            verify(replicaDataSource, never()).getConnection();
+        }
+
+        @Test
+        void shouldRouteReadOnlyTransactionToPrimary_whenReplicaIsUnavailable() throws SQLException {
+
+            replicaAvailable.set(false);
+
+            executeInTransaction(true);
+
+            verify(primaryDataSource, times(1)).getConnection();
+            verify(replicaDataSource, never()).getConnection();
+        }
+
+        @Test
+        void shouldRouteReadOnlyTransactionToPrimary_whenPinnedToPrimary() throws SQLException {
+
+            boolean previous = ReadWriteRoutingDataSource.setReadOnlyOnPrimary(true);
+            try {
+                executeInTransaction(true);
+            } finally {
+                ReadWriteRoutingDataSource.setReadOnlyOnPrimary(previous);
+            }
+
+            verify(primaryDataSource, times(1)).getConnection();
+            verify(replicaDataSource, never()).getConnection();
+        }
+    }
+
+    private void executeInTransaction(boolean readOnly) {
+        transactionTemplate.setReadOnly(readOnly);
+        transactionTemplate.executeWithoutResult(status -> {
+            try {
+                DataSourceUtils.getConnection(dataSource).prepareStatement(SELECT_1);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
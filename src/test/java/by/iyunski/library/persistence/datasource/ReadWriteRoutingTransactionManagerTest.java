@@ -0,0 +1,83 @@
+package by.iyunski.library.persistence.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.interceptor.DefaultTransactionAttribute;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadWriteRoutingTransactionManagerTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManager entityManager;
+
+    private final ReadWriteRoutingTransactionManager transactionManager = new ReadWriteRoutingTransactionManager();
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        transactionManager.setEntityManagerFactory(entityManagerFactory);
+    }
+
+    @Test
+    void shouldPinToPrimaryUntilCompletion_whenReadOnlyTransactionLabelledPrimaryBegins() {
+
+        TransactionStatus status = transactionManager.getTransaction(getAttribute(true, ReadWriteRoutingDataSource.PRIMARY));
+
+        assertTrue(ReadWriteRoutingDataSource.isReadOnlyOnPrimary());
+
+        transactionManager.commit(status);
+
+        assertFalse(ReadWriteRoutingDataSource.isReadOnlyOnPrimary());
+    }
+
+    @Test
+    void shouldNotPinToPrimary_whenReadOnlyTransactionIsNotLabelled() {
+
+        TransactionStatus status = transactionManager.getTransaction(getAttribute(true));
+
+        assertFalse(ReadWriteRoutingDataSource.isReadOnlyOnPrimary());
+
+        transactionManager.commit(status);
+    }
+
+    @Test
+    void shouldRestorePinOfSuspendedTransaction_whenNewTransactionCompletes() {
+
+        TransactionStatus outer = transactionManager.getTransaction(getAttribute(true, ReadWriteRoutingDataSource.PRIMARY));
+        DefaultTransactionAttribute newTransaction = getAttribute(true);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        TransactionStatus inner = transactionManager.getTransaction(newTransaction);
+
+        assertFalse(ReadWriteRoutingDataSource.isReadOnlyOnPrimary());
+
+        transactionManager.commit(inner);
+
+        assertTrue(ReadWriteRoutingDataSource.isReadOnlyOnPrimary());
+
+        transactionManager.commit(outer);
+    }
+
+    private static DefaultTransactionAttribute getAttribute(boolean readOnly, String... labels) {
+        DefaultTransactionAttribute attribute = new DefaultTransactionAttribute();
+        attribute.setReadOnly(readOnly);
+        attribute.setLabels(List.of(labels));
+        return attribute;
+    }
+}
@@ -0,0 +1,81 @@
+package by.iyunski.library.persistence.datasource;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.sql.SQLException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaJpaDialectTest {
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private EntityManager entityManager;
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private SessionImplementor session;
+
+    private final ReplicaJpaDialect dialect = new ReplicaJpaDialect();
+
+    @BeforeEach
+    void setUp() {
+        when(entityManager.unwrap(SessionImplementor.class)).thenReturn(session);
+        when(session.getHibernateFlushMode()).thenReturn(FlushMode.AUTO);
+    }
+
+    @Test
+    void shouldReadButNotPutSecondLevelCacheUntilCleanup_whenReadOnlyTransactionBegins() throws SQLException {
+
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+
+        Object transactionData = dialect.beginTransaction(entityManager, getDefinition(true));
+
+        verify(session).setCacheMode(CacheMode.GET);
+        verify(session, never()).setCacheMode(CacheMode.NORMAL);
+
+        dialect.cleanupTransaction(transactionData);
+
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    @Test
+    void shouldKeepCacheMode_whenReadOnlyTransactionPinnedToPrimaryBegins() throws SQLException {
+
+        boolean previous = ReadWriteRoutingDataSource.setReadOnlyOnPrimary(true);
+        try {
+            Object transactionData = dialect.beginTransaction(entityManager, getDefinition(true));
+            dialect.cleanupTransaction(transactionData);
+        } finally {
+            ReadWriteRoutingDataSource.setReadOnlyOnPrimary(previous);
+        }
+
+        verify(session, never()).setCacheMode(any());
+    }
+
+    @Test
+    void shouldKeepCacheMode_whenReadWriteTransactionBegins() throws SQLException {
+
+        Object transactionData = dialect.beginTransaction(entityManager, getDefinition(false));
+        dialect.cleanupTransaction(transactionData);
+
+        verify(session, never()).setCacheMode(any());
+    }
+
+    private static DefaultTransactionDefinition getDefinition(boolean readOnly) {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(readOnly);
+        return definition;
+    }
+}
@@ -0,0 +1,94 @@
+package by.iyunski.library.persistence.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static by.iyunski.library.persistence.datasource.ReplicaLagMonitor.REPLICA_STATUS_QUERY;
+import static by.iyunski.library.persistence.datasource.ReplicaLagMonitor.SECONDS_BEHIND_SOURCE;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaLagMonitorTest {
+    public static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    @Mock
+    private JdbcTemplate replicaJdbcTemplate;
+
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @BeforeEach
+    void setUp() {
+        replicaLagMonitor = new ReplicaLagMonitor(replicaJdbcTemplate, MAX_LAG, Duration.ofSeconds(1));
+    }
+
+    @Nested
+    class Check {
+        @Test
+        void shouldBeUnavailable_beforeFirstCheck() {
+
+            assertFalse(replicaLagMonitor.isReplicaAvailable());
+        }
+
+        @Test
+        void shouldBeAvailable_whenLagIsWithinLimit() {
+
+            when(replicaJdbcTemplate.queryForList(REPLICA_STATUS_QUERY))
+                    .thenReturn(List.of(Map.of(SECONDS_BEHIND_SOURCE, 5L)));
+
+            replicaLagMonitor.check();
+
+            assertTrue(replicaLagMonitor.isReplicaAvailable());
+        }
+
+        @Test
+        void shouldFallBackToPrimary_whenLagExceedsLimit() {
+
+            when(replicaJdbcTemplate.queryForList(REPLICA_STATUS_QUERY))
+                    .thenReturn(List.of(Map.of(SECONDS_BEHIND_SOURCE, 1L)))
+                    .thenReturn(List.of(Map.of(SECONDS_BEHIND_SOURCE, 6L)));
+
+            replicaLagMonitor.check();
+            replicaLagMonitor.check();
+
+            assertFalse(replicaLagMonitor.isReplicaAvailable());
+        }
+
+        @Test
+        void shouldFallBackToPrimary_whenReplicationIsStopped() {
+
+            when(replicaJdbcTemplate.queryForList(REPLICA_STATUS_QUERY))
+                    .thenReturn(List.of(Collections.singletonMap(SECONDS_BEHIND_SOURCE, null)));
+
+            replicaLagMonitor.check();
+
+            assertFalse(replicaLagMonitor.isReplicaAvailable());
+        }
+
+        @Test
+        void shouldFallBackToPrimary_whenReplicaIsNotConfiguredOrDown() {
+
+            when(replicaJdbcTemplate.queryForList(REPLICA_STATUS_QUERY))
+                    .thenReturn(List.of())
+                    .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+
+            replicaLagMonitor.check();
+            assertFalse(replicaLagMonitor.isReplicaAvailable());
+
+            replicaLagMonitor.check();
+            assertFalse(replicaLagMonitor.isReplicaAvailable());
+        }
+    }
+}
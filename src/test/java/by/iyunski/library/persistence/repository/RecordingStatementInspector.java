@@ -0,0 +1,28 @@
+package by.iyunski.library.persistence.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Remembers SQL statements generated by Hibernate, so that tests can inspect their execution plans.
+ */
+public class RecordingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static String lastStatement() {
+        return STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
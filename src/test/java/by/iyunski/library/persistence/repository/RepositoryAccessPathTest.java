@@ -0,0 +1,133 @@
+package by.iyunski.library.persistence.repository;
+
+import by.iyunski.library.persistence.model.Author;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Map;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with MySQL EXPLAIN that repository queries use the indexes created by the changelog
+ * instead of full scans. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "by.iyunski.library.persistence.repository.RecordingStatementInspector",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class RepositoryAccessPathTest {
+    public static final String FULL_SCAN = "ALL";
+    public static final String PRIMARY = "PRIMARY";
+    public static final String FILESORT = "Using filesort";
+    public static final String TESTDATA_ISBN = "9780452284234";
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.clear();
+        RecordingStatementInspector.clear();
+    }
+
+    @Test
+    void shouldUsePrimaryKeyWhenFindAuthorsPageAfterId() {
+
+        authorRepository.findByIdGreaterThanOrderByIdAsc(ID_1, PageRequest.ofSize(2));
+
+        assertAccessPath(explainLastStatement(ID_1, 2), PRIMARY);
+    }
+
+    @Test
+    void shouldUseAuthorIdIndexWhenLoadBooksOfAuthor() {
+
+        Author author = authorRepository.findById(ID_1).orElseThrow();
+        author.getBooks().size();
+
+        assertAccessPath(explainLastStatement(ID_1), "IDX_BOOK_AUTHOR_ID_ID");
+    }
+
+    @Test
+    void shouldUsePrimaryKeyWhenFindBookOfAuthor() {
+
+        bookRepository.findByIdAndAuthorId(ID_1, ID_1);
+
+        assertAccessPath(explainLastStatement(ID_1, ID_1), PRIMARY);
+    }
+
+    @Test
+    void shouldUseIsbnIndexWhenFindBookByIsbn() {
+
+        bookRepository.findByIsbn(TESTDATA_ISBN);
+
+        assertAccessPath(explainLastStatement(TESTDATA_ISBN), "UK_BOOK_ISBN");
+    }
+
+    @Test
+    void shouldUseNameIndexWhenFindAuthorByLastAndFirstName() {
+
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN SELECT id FROM author WHERE last_name = ? AND first_name = ?", "Orwell", "George");
+
+        assertAccessPath(plan, "IDX_AUTHOR_LAST_NAME_FIRST_NAME");
+    }
+
+    @Test
+    void shouldUseCountryAndDateOfBirthIndexWhenFilterAuthorsByCountry() {
+
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN SELECT id FROM author WHERE country = ? AND date_of_birth < ? "
+                        + "ORDER BY date_of_birth, id LIMIT 21", "England", "1950-01-01");
+
+        assertAccessPath(plan, "IDX_AUTHOR_COUNTRY_DATE_OF_BIRTH");
+        assertThat(plan.get("Extra").toString()).doesNotContain(FILESORT);
+    }
+
+    @Test
+    void shouldUseGenreAndYearIndexWhenFilterBooksByGenre() {
+
+        Map<String, Object> plan = jdbcTemplate.queryForMap(
+                "EXPLAIN SELECT id FROM book WHERE genre = ? AND year_of_publication >= ? "
+                        + "ORDER BY year_of_publication, id LIMIT 21", "Autobiography", 1900);
+
+        assertAccessPath(plan, "IDX_BOOK_GENRE_YEAR_OF_PUBLICATION");
+        assertThat(plan.get("Extra").toString()).doesNotContain(FILESORT);
+    }
+
+    private Map<String, Object> explainLastStatement(Object... parameters) {
+        return jdbcTemplate.queryForList("EXPLAIN " + RecordingStatementInspector.lastStatement(), parameters).get(0);
+    }
+
+    private static void assertAccessPath(Map<String, Object> plan, String expectedKey) {
+        assertThat(plan.get("type")).isNotEqualTo(FULL_SCAN);
+        assertThat(plan.get("key")).isEqualTo(expectedKey);
+    }
+}
@@ -1,32 +1,74 @@
 package by.iyunski.library.service;
 
+import by.iyunski.library.config.LibraryProperties;
 import by.iyunski.library.persistence.model.Author;
 import by.iyunski.library.persistence.model.Book;
+import by.iyunski.library.persistence.repository.AttributeProjections;
 import by.iyunski.library.persistence.repository.AuthorRepository;
+import by.iyunski.library.persistence.repository.BookRepository;
+import by.iyunski.library.persistence.specification.AuthorSpecifications;
+import by.iyunski.library.service.cache.DtoCacheNames;
 import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.AuthorFilterDto;
 import by.iyunski.library.service.dtos.AuthorRequestDto;
+import by.iyunski.library.service.dtos.AuthorWithBooksDto;
 import by.iyunski.library.service.dtos.BookDto;
 import by.iyunski.library.service.dtos.BookRequestDto;
+import by.iyunski.library.service.dtos.BulkResultDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsImportedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
 import by.iyunski.library.service.impl.AuthorServiceImpl;
 import by.iyunski.library.service.mapper.AuthorMapper;
 import by.iyunski.library.service.mapper.BookMapper;
+import by.iyunski.library.service.util.CursorCodec;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.ErrorResponseException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
+import static by.iyunski.library.util.AuthorTestData.DELETED_BOOKS;
+import static by.iyunski.library.util.AuthorTestData.NO_BOOKS;
 import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.INVALID_CURSOR;
 import static by.iyunski.library.util.AuthorTestData.INVALID_ID;
+import static by.iyunski.library.util.AuthorTestData.PAGE_SIZE;
+import static by.iyunski.library.util.AuthorTestData.VALID_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.VALID_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.VALID_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VERSION_0;
+import static by.iyunski.library.util.AuthorTestData.VERSION_1;
 import static by.iyunski.library.util.AuthorTestData.getAuthorByAuthorRequestDto;
 import static by.iyunski.library.util.AuthorTestData.getAuthorById;
 import static by.iyunski.library.util.AuthorTestData.getAuthorDtoListByAuthorList;
@@ -37,22 +79,45 @@ import static by.iyunski.library.util.AuthorTestData.getValidBookRequestDto;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class AuthorServiceTest {
     @Mock
     private AuthorRepository authorRepository;
+    @Mock
+    private BookRepository bookRepository;
     @Spy
     private AuthorMapper authorMapper = Mappers.getMapper(AuthorMapper.class);
     @Spy
     private BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private LibraryProperties libraryProperties = new LibraryProperties();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache authorsCache;
+    @Mock
+    private Cache booksOfAuthorCache;
+    @Mock
+    private AttributeProjections attributeProjections;
     @InjectMocks
     private AuthorServiceImpl authorService;
 
@@ -64,12 +129,13 @@ class AuthorServiceTest {
             List<Author> authors = getAuthorList();
             List<AuthorDto> authorDtos = getAuthorDtoListByAuthorList(authors);
 
-            when(authorRepository.findAll()).thenReturn(authors);
+            when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(authors);
 
-            List<AuthorDto> allAuthors = authorService.getAllAuthors();
+            CursorPageDto<AuthorDto> allAuthors = authorService.getAllAuthors(null, PAGE_SIZE);
 
-            assertEquals(authors.size(), allAuthors.size());
-            assertIterableEquals(authorDtos, allAuthors);
+            assertEquals(authors.size(), allAuthors.content().size());
+            assertIterableEquals(authorDtos, allAuthors.content());
+            assertNull(allAuthors.nextCursor());
         }
 
         @Test
@@ -77,24 +143,266 @@ class AuthorServiceTest {
 
             List<Author> authors = getAuthorList();
 
-            when(authorRepository.findAll()).thenReturn(authors);
+            when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(authors);
 
-            authorService.getAllAuthors();
+            authorService.getAllAuthors(null, PAGE_SIZE);
 
-            verify(authorRepository, times(1)).findAll();
+            verify(authorRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.ofSize(PAGE_SIZE + 1));
             verify(authorMapper, times(authors.size())).toDto(any(Author.class));
         }
 
+        @Test
+        void shouldReturnNextCursorIfThereAreMoreAuthors_whenInvoke_getAllAuthors() {
+
+            List<Author> authors = getAuthorList();
+            int limit = authors.size() - 1;
+            Long lastIdOfPage = authors.get(limit - 1).getId();
+
+            when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(authors);
+
+            CursorPageDto<AuthorDto> page = authorService.getAllAuthors(null, limit);
+
+            assertEquals(limit, page.content().size());
+            assertEquals(CursorCodec.encode(lastIdOfPage), page.nextCursor());
+            verify(authorMapper, times(limit)).toDto(any(Author.class));
+        }
+
+        @Test
+        void shouldSearchAfterDecodedCursor_whenSendCursorAndInvoke_getAllAuthors() {
+
+            List<Author> authors = getAuthorList();
+
+            when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(ID_2), any(Pageable.class))).thenReturn(authors);
+
+            authorService.getAllAuthors(CursorCodec.encode(ID_2), PAGE_SIZE);
+
+            verify(authorRepository, times(1)).findByIdGreaterThanOrderByIdAsc(ID_2, PageRequest.ofSize(PAGE_SIZE + 1));
+        }
+
+        @Test
+        void shouldTrowExceptionIfCursorIsMalformed_whenInvoke_getAllAuthors() {
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.getAllAuthors(INVALID_CURSOR, PAGE_SIZE));
+
+            assertEquals(HttpStatus.BAD_REQUEST, errorResponseException.getStatusCode());
+            verify(authorRepository, never()).findByIdGreaterThanOrderByIdAsc(any(Long.class), any(Pageable.class));
+        }
+
         @Test
         void shouldCallRepositoryAndTrowExceptionIfNoAuthorsInDb_whenInvoke_getAllAuthors() {
 
-            when(authorRepository.findAll()).thenReturn(Collections.emptyList());
+            when(authorRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenReturn(Collections.emptyList());
 
             ErrorResponseException errorResponseException =
-                    assertThrows(ErrorResponseException.class, () -> authorService.getAllAuthors());
+                    assertThrows(ErrorResponseException.class, () -> authorService.getAllAuthors(null, PAGE_SIZE));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+            verify(authorRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+        }
+    }
+
+    @Nested
+    class FindAuthorFields {
+        @Test
+        void shouldSelectOnlyRequestedFieldsAndIdOrderedById_whenInvoke_findAuthorFieldsWithoutFilter() {
+
+            List<String> fields = List.of("lastName");
+            AuthorFilterDto filter = new AuthorFilterDto(null, null, null, null);
+            List<Map<String, Object>> rows = List.of(
+                    Map.of("lastName", VALID_LAST_NAME, "id", ID_1),
+                    Map.of("lastName", VALID_LAST_NAME, "id", ID_2));
+
+            when(attributeProjections.findAttributes(eq(Author.class), eq(List.of("lastName", "id")),
+                    any(Specification.class), eq(AuthorSpecifications.BY_ID), eq(2))).thenReturn(rows);
+
+            CursorPageDto<Map<String, Object>> page = authorService.findAuthorFields(filter, fields, null, 1);
+
+            assertEquals(List.of(Map.of("lastName", VALID_LAST_NAME)), page.content());
+            assertEquals(CursorCodec.encode(ID_1), page.nextCursor());
+            verify(authorRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void shouldReturnCursorOfLastDateOfBirthAndId_whenInvoke_findAuthorFieldsWithFilter() {
+
+            List<String> fields = List.of("id", "country");
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+            List<Map<String, Object>> rows = List.of(
+                    Map.of("id", ID_1, "country", VALID_COUNTRY, "dateOfBirth", VALID_DATE_OF_BIRTH),
+                    Map.of("id", ID_2, "country", VALID_COUNTRY, "dateOfBirth", VALID_DATE_OF_BIRTH));
+
+            when(attributeProjections.findAttributes(eq(Author.class), eq(List.of("id", "country", "dateOfBirth")),
+                    any(Specification.class), eq(AuthorSpecifications.BY_DATE_OF_BIRTH), eq(2))).thenReturn(rows);
+
+            CursorPageDto<Map<String, Object>> page = authorService.findAuthorFields(filter, fields, null, 1);
+
+            assertEquals(List.of(Map.of("id", ID_1, "country", VALID_COUNTRY)), page.content());
+            assertEquals(CursorCodec.encode(VALID_DATE_OF_BIRTH, ID_1), page.nextCursor());
+        }
+
+        @Test
+        void shouldTrowExceptionIfNoAuthorsMatch_whenInvoke_findAuthorFields() {
+
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+            List<String> fields = List.of("id");
+
+            when(attributeProjections.findAttributes(eq(Author.class), any(), any(Specification.class), any(), eq(PAGE_SIZE + 1)))
+                    .thenReturn(Collections.emptyList());
+
+            ErrorResponseException errorResponseException = assertThrows(ErrorResponseException.class,
+                    () -> authorService.findAuthorFields(filter, fields, null, PAGE_SIZE));
 
             assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findAll();
+        }
+    }
+
+    @Nested
+    class FindAuthors {
+        @Test
+        void shouldReturnAuthorsAndCursorOfLastDateOfBirthAndId_whenInvoke_findAuthors() {
+
+            List<Author> authors = getAuthorList();
+            int limit = authors.size() - 1;
+            Author lastOfPage = authors.get(limit - 1);
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+
+            when(authorRepository.findBy(any(Specification.class), any())).thenReturn(authors);
+
+            CursorPageDto<AuthorDto> page = authorService.findAuthors(filter, null, limit);
+
+            assertIterableEquals(getAuthorDtoListByAuthorList(authors.subList(0, limit)), page.content());
+            assertEquals(CursorCodec.encode(lastOfPage.getDateOfBirth(), lastOfPage.getId()), page.nextCursor());
+            verify(authorRepository, times(1)).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void shouldReturnNoCursorIfThereAreNoMoreAuthors_whenInvoke_findAuthors() {
+
+            List<Author> authors = getAuthorList();
+            AuthorFilterDto filter = new AuthorFilterDto(null, VALID_DATE_OF_BIRTH, null, null);
+
+            when(authorRepository.findBy(any(Specification.class), any())).thenReturn(authors);
+
+            CursorPageDto<AuthorDto> page = authorService.findAuthors(filter,
+                    CursorCodec.encode(VALID_DATE_OF_BIRTH, ID_1), PAGE_SIZE);
+
+            assertEquals(authors.size(), page.content().size());
+            assertNull(page.nextCursor());
+        }
+
+        @Test
+        void shouldTrowExceptionIfSortedById_whenInvoke_findAuthors() {
+
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, AuthorFilterDto.SORT_BY_ID);
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.findAuthors(filter, null, PAGE_SIZE));
+
+            assertEquals(HttpStatus.BAD_REQUEST, errorResponseException.getStatusCode());
+            verify(authorRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void shouldTrowExceptionIfCursorIsNotAPositionOfDateOfBirth_whenInvoke_findAuthors() {
+
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+            String cursorOfId = CursorCodec.encode(ID_1);
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.findAuthors(filter, cursorOfId, PAGE_SIZE));
+
+            assertEquals(HttpStatus.BAD_REQUEST, errorResponseException.getStatusCode());
+            verify(authorRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void shouldTrowExceptionIfNoAuthorsMatch_whenInvoke_findAuthors() {
+
+            AuthorFilterDto filter = new AuthorFilterDto(VALID_COUNTRY, null, null, null);
+
+            when(authorRepository.findBy(any(Specification.class), any())).thenReturn(Collections.emptyList());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.findAuthors(filter, null, PAGE_SIZE));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class ExportAuthors {
+        private Session session;
+
+        @BeforeEach
+        void setUp() {
+            session = mock(Session.class);
+            when(entityManager.unwrap(Session.class)).thenReturn(session);
+        }
+
+        @Test
+        void shouldIgnoreSecondLevelCacheWhileStreaming_whenInvoke_exportAuthors() {
+
+            when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+            when(authorRepository.streamAllByOrderByIdAsc()).thenReturn(getAuthorList().stream());
+
+            authorService.exportAuthors(dto -> {
+            });
+
+            InOrder inOrder = inOrder(session, authorRepository);
+            inOrder.verify(session).setCacheMode(CacheMode.IGNORE);
+            inOrder.verify(authorRepository).streamAllByOrderByIdAsc();
+            inOrder.verify(session).setCacheMode(CacheMode.NORMAL);
+        }
+
+        @Test
+        void shouldPushAllAuthorsToConsumer_whenInvoke_exportAuthors() {
+
+            List<Author> authors = getAuthorList();
+            List<AuthorDto> exported = new ArrayList<>();
+
+            when(authorRepository.streamAllByOrderByIdAsc()).thenReturn(authors.stream());
+
+            authorService.exportAuthors(exported::add);
+
+            assertIterableEquals(getAuthorDtoListByAuthorList(authors), exported);
+            verify(authorRepository, times(1)).streamAllByOrderByIdAsc();
+        }
+
+        @Test
+        void shouldClearPersistenceContextEveryClearInterval_whenInvoke_exportAuthors() {
+
+            List<Author> authors = getAuthorList();
+            libraryProperties.getExport().setClearInterval(2);
+
+            when(authorRepository.streamAllByOrderByIdAsc()).thenReturn(authors.stream());
+
+            authorService.exportAuthors(authorDto -> {
+            });
+
+            verify(entityManager, times(authors.size() / 2)).clear();
+        }
+    }
+
+    @Nested
+    class ExportAuthorsByIdRange {
+        @BeforeEach
+        void setUp() {
+            when(entityManager.unwrap(Session.class)).thenReturn(mock(Session.class));
+        }
+
+        @Test
+        void shouldPushAuthorsWithIdsInRangeToConsumer_whenInvoke_exportAuthorsByIdRange() {
+
+            List<Author> authors = getAuthorList();
+            List<AuthorDto> exported = new ArrayList<>();
+
+            when(authorRepository.streamAllByIdBetweenOrderByIdAsc(ID_1, ID_2)).thenReturn(authors.stream());
+
+            authorService.exportAuthorsByIdRange(ID_1, ID_2, exported::add);
+
+            assertIterableEquals(getAuthorDtoListByAuthorList(authors), exported);
+            verify(authorRepository, times(1)).streamAllByIdBetweenOrderByIdAsc(ID_1, ID_2);
         }
     }
 
@@ -131,6 +439,78 @@ class AuthorServiceTest {
             verify(authorMapper, times(1)).toEntity(validAuthorRequestDto);
             verify(authorMapper, times(1)).toDto(savedAuthor);
         }
+
+        @Test
+        void shouldPublishSavedAuthor_whenSendAuthorRequestDtoAndInvoke_saveNewAuthor() {
+
+            AuthorRequestDto validAuthorRequestDto = getValidAuthorRequestDto();
+            Author savedAuthor = getAuthorByAuthorRequestDto(validAuthorRequestDto);
+
+            when(authorRepository.save(any(Author.class))).thenReturn(savedAuthor);
+
+            AuthorDto authorDto = authorService.saveNewAuthor(validAuthorRequestDto);
+
+            verify(eventPublisher, times(1)).publishEvent(new AuthorsSavedEvent(List.of(authorDto)));
+        }
+    }
+
+    @Nested
+    class SaveNewAuthors {
+        private final AtomicLong nextId = new AtomicLong(ID_1);
+
+        @BeforeEach
+        void setUp() {
+            lenient().when(authorRepository.save(any(Author.class))).thenAnswer(invocation -> {
+                Author author = invocation.getArgument(0);
+                author.setId(nextId.getAndIncrement());
+                return author;
+            });
+        }
+
+        @Test
+        void shouldReturnNumberOfSavedAuthors_whenSendAuthorRequestDtosAndInvoke_saveNewAuthors() {
+
+            List<AuthorRequestDto> authorRequestDtos = List.of(getValidAuthorRequestDto(), getValidAuthorRequestDto());
+
+            BulkResultDto bulkResultDto = authorService.saveNewAuthors(authorRequestDtos.stream());
+
+            assertEquals(authorRequestDtos.size(), bulkResultDto.created());
+            verify(authorRepository, times(authorRequestDtos.size())).save(any(Author.class));
+            verify(authorMapper, times(authorRequestDtos.size())).toEntity(any(AuthorRequestDto.class));
+        }
+
+        @Test
+        void shouldFlushAndClearPersistenceContextEveryBatch_whenInvoke_saveNewAuthors() {
+
+            List<AuthorRequestDto> authorRequestDtos = Collections.nCopies(5, getValidAuthorRequestDto());
+            libraryProperties.getBulk().setBatchSize(2);
+
+            authorService.saveNewAuthors(authorRequestDtos.stream());
+
+            verify(entityManager, times(2)).flush();
+            verify(entityManager, times(2)).clear();
+        }
+
+        @Test
+        void shouldPublishOneEventWithRangeOfSavedIds_whenInvoke_saveNewAuthors() {
+
+            List<AuthorRequestDto> authorRequestDtos = Collections.nCopies(5, getValidAuthorRequestDto());
+            libraryProperties.getBulk().setBatchSize(2);
+
+            authorService.saveNewAuthors(authorRequestDtos.stream());
+
+            verify(eventPublisher, times(1)).publishEvent(new AuthorsImportedEvent(ID_1, ID_1 + 4));
+            verify(eventPublisher, never()).publishEvent(any(AuthorsSavedEvent.class));
+        }
+
+        @Test
+        void shouldNotPublishEvent_whenNoAuthorsSentAndInvoke_saveNewAuthors() {
+
+            BulkResultDto bulkResultDto = authorService.saveNewAuthors(Stream.empty());
+
+            assertEquals(0, bulkResultDto.created());
+            verify(eventPublisher, never()).publishEvent(any());
+        }
     }
 
     @Nested
@@ -178,6 +558,176 @@ class AuthorServiceTest {
         }
     }
 
+    @Nested
+    class GetAuthorsByIds {
+        @Test
+        void shouldReturnAuthorsInOrderOfIdsWithOneQueryPerChunk_whenSendIdsAndInvoke_getAuthorsByIds() {
+
+            Author author1 = getAuthorById(ID_1);
+            Author author2 = getAuthorById(ID_2);
+            libraryProperties.getFetch().setChunkSize(2);
+
+            when(cacheManager.getCache(DtoCacheNames.AUTHORS)).thenReturn(authorsCache);
+            when(authorRepository.findAllById(List.of(ID_2, INVALID_ID))).thenReturn(List.of(author2));
+            when(authorRepository.findAllById(List.of(ID_1))).thenReturn(List.of(author1));
+
+            List<AuthorDto> authors = authorService.getAuthorsByIds(List.of(ID_2, INVALID_ID, ID_2, ID_1));
+
+            assertIterableEquals(List.of(authorMapper.toDto(author2), authorMapper.toDto(author1)), authors);
+            verify(authorRepository, times(2)).findAllById(any());
+            verify(authorsCache, times(1)).put(ID_1, authors.get(1));
+            verify(authorsCache, times(1)).put(ID_2, authors.get(0));
+        }
+
+        @Test
+        void shouldNotQueryCachedAuthors_whenSendIdsAndInvoke_getAuthorsByIds() {
+
+            Author author2 = getAuthorById(ID_2);
+            AuthorDto cachedAuthorDto = authorMapper.toDto(getAuthorById(ID_1));
+
+            when(cacheManager.getCache(DtoCacheNames.AUTHORS)).thenReturn(authorsCache);
+            when(authorsCache.get(ID_1, AuthorDto.class)).thenReturn(cachedAuthorDto);
+            when(authorRepository.findAllById(List.of(ID_2))).thenReturn(List.of(author2));
+
+            List<AuthorDto> authors = authorService.getAuthorsByIds(List.of(ID_1, ID_2));
+
+            assertIterableEquals(List.of(cachedAuthorDto, authorMapper.toDto(author2)), authors);
+            verify(authorRepository, times(1)).findAllById(any());
+            verify(authorsCache, never()).put(eq(ID_1), any());
+        }
+
+        @Test
+        void shouldTrowExceptionIfNoAuthorsFound_whenSendInvalidIdsAndInvoke_getAuthorsByIds() {
+
+            when(cacheManager.getCache(DtoCacheNames.AUTHORS)).thenReturn(authorsCache);
+            when(authorRepository.findAllById(List.of(INVALID_ID))).thenReturn(Collections.emptyList());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.getAuthorsByIds(List.of(INVALID_ID)));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class GetAuthorWithBooksById {
+        @Test
+        void shouldReturnAuthorWithAllBooks_whenSendAuthorsIdAndInvoke_getAuthorWithBooksById() {
+
+            Author author = getAuthorById(ID_1);
+
+            when(authorRepository.findWithBooksById(ID_1)).thenReturn(Optional.of(author));
+
+            AuthorWithBooksDto authorWithBooksDto = authorService.getAuthorWithBooksById(ID_1);
+
+            assertEquals(ID_1, authorWithBooksDto.id());
+            assertEquals(author.getLastName(), authorWithBooksDto.lastName());
+            assertIterableEquals(getBookDtoListByBookList(author.getBooks()), authorWithBooksDto.books());
+            verify(authorRepository, never()).findById(any());
+        }
+
+        @Test
+        void shouldTrowException_whenSendInvalidAuthorsIdAndInvoke_getAuthorWithBooksById() {
+
+            when(authorRepository.findWithBooksById(INVALID_ID)).thenReturn(Optional.empty());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.getAuthorWithBooksById(INVALID_ID));
+
+            assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class IncludeBooks {
+        @Test
+        void shouldAddBooksOfAllAuthorsLoadedWithOneQuery_whenInvoke_includeBooks() {
+
+            Author author1 = getAuthorById(ID_1);
+            Author author2 = getAuthorById(ID_2);
+            List<AuthorDto> authorDtos = List.of(authorMapper.toDto(author1), authorMapper.toDto(author2));
+
+            when(bookRepository.findAllByAuthorIdIn(List.of(ID_1, ID_2))).thenReturn(author1.getBooks());
+
+            List<AuthorWithBooksDto> authors = authorService.includeBooks(authorDtos);
+
+            assertEquals(2, authors.size());
+            assertEquals(ID_1, authors.get(0).id());
+            assertIterableEquals(getBookDtoListByBookList(author1.getBooks()), authors.get(0).books());
+            assertEquals(ID_2, authors.get(1).id());
+            assertIterableEquals(Collections.emptyList(), authors.get(1).books());
+            verify(bookRepository, times(1)).findAllByAuthorIdIn(any());
+        }
+
+        @Test
+        void shouldLoadBooksWithOneQueryPerChunkOfAuthors_whenInvoke_includeBooks() {
+
+            List<AuthorDto> authorDtos = List.of(authorMapper.toDto(getAuthorById(ID_1)),
+                    authorMapper.toDto(getAuthorById(ID_2)));
+            libraryProperties.getFetch().setChunkSize(1);
+
+            authorService.includeBooks(authorDtos);
+
+            verify(bookRepository, times(1)).findAllByAuthorIdIn(List.of(ID_1));
+            verify(bookRepository, times(1)).findAllByAuthorIdIn(List.of(ID_2));
+        }
+    }
+
+    @Nested
+    class GetVersion {
+        @Test
+        void shouldReturnVersionWithoutLoadingAuthor_whenSendAuthorsIdAndInvoke_getAuthorVersion() {
+
+            when(authorRepository.findVersionById(ID_1)).thenReturn(Optional.of(VERSION_1));
+
+            assertEquals(VERSION_1, authorService.getAuthorVersion(ID_1));
+            verify(authorRepository, never()).findById(any(Long.class));
+            verify(authorMapper, never()).toDto(any(Author.class));
+        }
+
+        @Test
+        void shouldTrowException_whenSendInvalidAuthorsIdAndInvoke_getAuthorVersion() {
+
+            when(authorRepository.findVersionById(INVALID_ID)).thenReturn(Optional.empty());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.getAuthorVersion(INVALID_ID));
+
+            assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
+        }
+
+        @Test
+        void shouldReturnNull_whenAuthorHasNoBooksAndInvoke_getVersionOfBooksOfAuthor() {
+
+            when(bookRepository.findVersionOfBooksByAuthorId(ID_1)).thenReturn(Optional.empty());
+
+            assertNull(authorService.getVersionOfBooksOfAuthor(ID_1));
+            verify(authorRepository, never()).findById(any(Long.class));
+        }
+
+        @Test
+        void shouldReturnCachedAuthorWithoutQuery_whenAuthorIsCachedAndInvoke_getCachedAuthorById() {
+
+            AuthorDto cachedAuthorDto = authorMapper.toDto(getAuthorById(ID_1));
+
+            when(cacheManager.getCache(DtoCacheNames.AUTHORS)).thenReturn(authorsCache);
+            when(authorsCache.get(ID_1, AuthorDto.class)).thenReturn(cachedAuthorDto);
+
+            assertEquals(Optional.of(cachedAuthorDto), authorService.getCachedAuthorById(ID_1));
+            verify(authorRepository, never()).findVersionById(any(Long.class));
+            verify(authorRepository, never()).findById(any(Long.class));
+        }
+
+        @Test
+        void shouldReturnEmpty_whenBooksAreNotCachedAndInvoke_getCachedBooksOfAuthorByAuthorId() {
+
+            when(cacheManager.getCache(DtoCacheNames.BOOKS_OF_AUTHOR)).thenReturn(booksOfAuthorCache);
+
+            assertTrue(authorService.getCachedBooksOfAuthorByAuthorId(ID_1).isEmpty());
+            verify(bookRepository, never()).findVersionOfBooksByAuthorId(any(Long.class));
+        }
+    }
+
     @Nested
     class UpdateAuthor {
         @Test
@@ -188,9 +738,9 @@ class AuthorServiceTest {
             Author savedAuthor = getAuthorByAuthorRequestDto(authorRequestDto);
 
             when(authorRepository.findById(ID_1)).thenReturn(authorById);
-            when(authorRepository.save(any(Author.class))).thenReturn(savedAuthor);
+            when(authorRepository.saveAndFlush(any(Author.class))).thenReturn(savedAuthor);
 
-            AuthorDto updatedAuthor = authorService.updateAuthor(ID_1, authorRequestDto);
+            AuthorDto updatedAuthor = authorService.updateAuthor(ID_1, authorRequestDto, null);
 
             assertEquals(savedAuthor.getId(), updatedAuthor.id());
             assertEquals(authorRequestDto.firstName(), updatedAuthor.firstName());
@@ -207,12 +757,12 @@ class AuthorServiceTest {
             Author savedAuthor = getAuthorByAuthorRequestDto(authorRequestDto);
 
             when(authorRepository.findById(ID_1)).thenReturn(authorById);
-            when(authorRepository.save(any(Author.class))).thenReturn(savedAuthor);
+            when(authorRepository.saveAndFlush(any(Author.class))).thenReturn(savedAuthor);
 
-            authorService.updateAuthor(ID_1, authorRequestDto);
+            authorService.updateAuthor(ID_1, authorRequestDto, null);
 
             verify(authorRepository, times(1)).findById(ID_1);
-            verify(authorRepository, times(1)).save(any(Author.class));
+            verify(authorRepository, times(1)).saveAndFlush(any(Author.class));
             verify(authorMapper, times(1)).toDto(savedAuthor);
             verify(authorMapper, times(1)).partialUpdate(authorRequestDto, authorById.get());
         }
@@ -226,57 +776,132 @@ class AuthorServiceTest {
             when(authorRepository.findById(INVALID_ID)).thenReturn(author);
 
             ErrorResponseException errorResponseException =
-                    assertThrows(ErrorResponseException.class, () -> authorService.updateAuthor(INVALID_ID, authorRequestDto));
+                    assertThrows(ErrorResponseException.class, () -> authorService.updateAuthor(INVALID_ID, authorRequestDto, null));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
             verify(authorRepository, times(1)).findById(INVALID_ID);
-            verify(authorRepository, never()).save(any(Author.class));
+            verify(authorRepository, never()).saveAndFlush(any(Author.class));
             verify(authorMapper, never()).toDto(any(Author.class));
             verify(authorMapper, never()).partialUpdate(any(AuthorRequestDto.class), any(Author.class));
         }
+
+        @Test
+        void shouldSaveAuthor_whenExpectedVersionMatchesAndInvoke_updateAuthor() {
+
+            AuthorRequestDto authorRequestDto = getValidAuthorRequestDto();
+            Author author = getAuthorById(ID_1);
+            author.setVersion(VERSION_1);
+
+            when(authorRepository.findById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+
+            authorService.updateAuthor(ID_1, authorRequestDto, VERSION_1);
+
+            verify(authorRepository, times(1)).saveAndFlush(author);
+        }
+
+        @Test
+        void shouldTrowException_whenExpectedVersionDoesNotMatchAndInvoke_updateAuthor() {
+
+            AuthorRequestDto authorRequestDto = getValidAuthorRequestDto();
+            Author author = getAuthorById(ID_1);
+            author.setVersion(VERSION_1);
+
+            when(authorRepository.findById(ID_1)).thenReturn(Optional.of(author));
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> authorService.updateAuthor(ID_1, authorRequestDto, VERSION_0));
+
+            assertEquals(HttpStatus.PRECONDITION_FAILED, errorResponseException.getStatusCode());
+            verify(authorRepository, never()).saveAndFlush(any(Author.class));
+            verify(authorMapper, never()).partialUpdate(any(AuthorRequestDto.class), any(Author.class));
+            verify(eventPublisher, never()).publishEvent(any());
+        }
     }
 
     @Nested
     class DeleteAuthorById {
+        private static final String AUTHOR_BOOKS_ROLE = Author.class.getName() + ".books";
+
+        private org.hibernate.Cache secondLevelCache;
+
+        @BeforeEach
+        void setUp() {
+            secondLevelCache = mock(org.hibernate.Cache.class);
+            EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+            lenient().when(entityManager.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+            lenient().when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+            lenient().when(secondLevelCache.unwrap(org.hibernate.Cache.class)).thenReturn(secondLevelCache);
+        }
+
         @Test
-        void shouldReturnDeletedAuthorId_whenSendAuthorsIdAndInvoke_deleteAuthorById() {
+        void shouldReturnNumberOfDeletedBooks_whenSendAuthorsIdAndInvoke_deleteAuthorById() {
 
-            Optional<Author> author = Optional.of(getAuthorById(ID_1));
+            when(bookRepository.deleteAllByAuthorId(ID_1)).thenReturn(DELETED_BOOKS);
+            when(authorRepository.deleteAuthorById(ID_1)).thenReturn(1);
 
-            when(authorRepository.findById(ID_1)).thenReturn(author);
+            int deletedBooks = authorService.deleteAuthorById(ID_1);
 
-            Long deletedAuthorsId = authorService.deleteAuthorById(ID_1);
+            assertEquals(DELETED_BOOKS, deletedBooks);
+        }
 
-            assertEquals(author.get().getId(), deletedAuthorsId);
-            assertEquals(ID_1, deletedAuthorsId);
+        @Test
+        void shouldDeleteBooksBeforeAuthorWithoutLoadingThem_whenSendAuthorsIdAndInvoke_deleteAuthorById() {
+
+            when(bookRepository.deleteAllByAuthorId(ID_1)).thenReturn(DELETED_BOOKS);
+            when(authorRepository.deleteAuthorById(ID_1)).thenReturn(1);
+
+            authorService.deleteAuthorById(ID_1);
+
+            InOrder inOrder = inOrder(bookRepository, authorRepository);
+            inOrder.verify(bookRepository, times(1)).deleteAllByAuthorId(ID_1);
+            inOrder.verify(authorRepository, times(1)).deleteAuthorById(ID_1);
+            verify(authorRepository, never()).findById(any(Long.class));
+            verify(authorRepository, never()).delete(any(Author.class));
+            verify(eventPublisher, times(1)).publishEvent(new AuthorDeletedEvent(ID_1));
         }
 
         @Test
-        void shouldCallRepository_whenSendAuthorsIdAndInvoke_deleteAuthorById() {
+        void shouldEvictOnlyDeletedAuthorAndItsBooks_whenSendAuthorsIdAndInvoke_deleteAuthorById() {
 
-            Optional<Author> author = Optional.of(getAuthorById(ID_1));
+            when(bookRepository.findIdsByAuthorId(ID_1)).thenReturn(List.of(ID_1, ID_2));
+            when(bookRepository.deleteAllByAuthorId(ID_1)).thenReturn(2);
+            when(authorRepository.deleteAuthorById(ID_1)).thenReturn(1);
 
-            when(authorRepository.findById(ID_1)).thenReturn(author);
+            authorService.deleteAuthorById(ID_1);
+
+            verify(secondLevelCache, times(1)).evictEntityData(Author.class, ID_1);
+            verify(secondLevelCache, times(1)).evictCollectionData(AUTHOR_BOOKS_ROLE, ID_1);
+            verify(secondLevelCache, times(1)).evictEntityData(Book.class, ID_1);
+            verify(secondLevelCache, times(1)).evictEntityData(Book.class, ID_2);
+            verify(secondLevelCache, never()).evictEntityData(Book.class);
+        }
+
+        @Test
+        void shouldEvictAllBooks_whenBookAddedAfterItsIdsReadAndInvoke_deleteAuthorById() {
+
+            when(bookRepository.findIdsByAuthorId(ID_1)).thenReturn(List.of(ID_1));
+            when(bookRepository.deleteAllByAuthorId(ID_1)).thenReturn(2);
+            when(authorRepository.deleteAuthorById(ID_1)).thenReturn(1);
 
             authorService.deleteAuthorById(ID_1);
 
-            verify(authorRepository, times(1)).findById(ID_1);
-            verify(authorRepository, times(1)).delete(author.get());
+            verify(secondLevelCache, times(1)).evictEntityData(Book.class);
+            verify(secondLevelCache, never()).evictEntityData(Book.class, ID_1);
         }
 
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidAuthorsIdAndInvoke_deleteAuthorById() {
 
-            Optional<Author> author = Optional.empty();
-
-            when(authorRepository.findById(INVALID_ID)).thenReturn(author);
+            when(authorRepository.deleteAuthorById(INVALID_ID)).thenReturn(0);
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class, () -> authorService.deleteAuthorById(INVALID_ID));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(INVALID_ID);
-            verify(authorRepository, never()).delete(any(Author.class));
+            verify(authorRepository, times(1)).deleteAuthorById(INVALID_ID);
+            verify(eventPublisher, never()).publishEvent(any());
+            verifyNoInteractions(secondLevelCache);
         }
     }
 
@@ -345,10 +970,9 @@ class AuthorServiceTest {
     class GetBookOfAuthorByBookId {
         @Test
         void shouldReturnBookOfAuthor_whenSendAuthorsIdAndBooksIdAndInvoke_getBookOfAuthorByBookId() {
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
-            Book book = authorById.get().getBooks().get(0);
+            Book book = getAuthorById(ID_1).getBooks().get(0);
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(bookRepository.findByIdAndAuthorId(book.getId(), ID_1)).thenReturn(Optional.of(book));
 
             BookDto bookOfAuthorByBookId = authorService.getBookOfAuthorByBookId(ID_1, book.getId());
 
@@ -362,44 +986,40 @@ class AuthorServiceTest {
 
         @Test
         void shouldCallRepositoryAndMapper_whenSendAuthorsIdAndBooksIdAndInvoke_getBookOfAuthorByBookId() {
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
-            Book book = authorById.get().getBooks().get(0);
+            Book book = getAuthorById(ID_1).getBooks().get(0);
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(bookRepository.findByIdAndAuthorId(book.getId(), ID_1)).thenReturn(Optional.of(book));
 
             authorService.getBookOfAuthorByBookId(ID_1, book.getId());
 
-            verify(authorRepository, times(1)).findById(ID_1);
+            verify(bookRepository, times(1)).findByIdAndAuthorId(book.getId(), ID_1);
+            verify(authorRepository, never()).findById(any(Long.class));
             verify(bookMapper, times(1)).toDto(book);
         }
 
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidAuthorsIdAndInvoke_getBookOfAuthorByBookId() {
 
-            Optional<Author> author = Optional.empty();
-
-            when(authorRepository.findById(INVALID_ID)).thenReturn(author);
+            when(bookRepository.findByIdAndAuthorId(ID_1, INVALID_ID)).thenReturn(Optional.empty());
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class, () -> authorService.getBookOfAuthorByBookId(INVALID_ID, ID_1));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(INVALID_ID);
+            verify(bookRepository, times(1)).findByIdAndAuthorId(ID_1, INVALID_ID);
             verify(bookMapper, never()).toDto(any(Book.class));
         }
 
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidBookIdAndInvoke_getBookOfAuthorByBookId() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
-
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(bookRepository.findByIdAndAuthorId(INVALID_ID, ID_1)).thenReturn(Optional.empty());
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class, () -> authorService.getBookOfAuthorByBookId(ID_1, INVALID_ID));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(ID_1);
+            verify(bookRepository, times(1)).findByIdAndAuthorId(INVALID_ID, ID_1);
             verify(bookMapper, never()).toDto(any(Book.class));
         }
     }
@@ -409,10 +1029,12 @@ class AuthorServiceTest {
         @Test
         void shouldReturnSavedBookOfAuthor_whenSendAuthorsIdAndBookRequestDtoAndInvoke_saveNewBookOfAuthorByAuthorId() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
+            Author author = getAuthorById(ID_1);
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(bookRepository.save(any(Book.class))).thenAnswer(returnsFirstArg());
 
             BookDto bookDto = authorService.saveNewBookOfAuthorByAuthorId(ID_1, validBookRequestDto);
 
@@ -423,39 +1045,129 @@ class AuthorServiceTest {
             assertEquals(validBookRequestDto.isbn(), bookDto.isbn());
         }
 
+        @Test
+        void shouldReturnBookWithSavedId_whenSendAuthorsIdAndBookRequestDtoAndInvoke_saveNewBookOfAuthorByAuthorId() {
+
+            Author author = getAuthorById(ID_1);
+
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(bookRepository.save(any(Book.class))).thenAnswer(invocation -> {
+                Book book = invocation.getArgument(0);
+                book.setId(ID_2);
+                book.setVersion(VERSION_0);
+                return book;
+            });
+
+            BookDto bookDto = authorService.saveNewBookOfAuthorByAuthorId(ID_1, getValidBookRequestDto());
+
+            assertEquals(ID_2, bookDto.id());
+            assertEquals(ID_1, bookDto.authorId());
+            verify(eventPublisher, times(1)).publishEvent(new BooksSavedEvent(List.of(bookDto)));
+        }
+
         @Test
         void shouldCallRepositoryAndMapper_whenSendAuthorsIdAndBookRequestDtoAndInvoke_saveNewBookOfAuthorByAuthorId() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
+            Author author = getAuthorById(ID_1);
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(bookRepository.save(any(Book.class))).thenAnswer(returnsFirstArg());
 
-            authorService.saveNewBookOfAuthorByAuthorId(ID_1, validBookRequestDto);
+            BookDto bookDto = authorService.saveNewBookOfAuthorByAuthorId(ID_1, validBookRequestDto);
 
-            verify(authorRepository, times(1)).findById(ID_1);
-            verify(authorRepository, times(1)).save(any(Author.class));
+            assertEquals(1, author.getBookCount());
+            verify(authorRepository, times(1)).saveAndFlush(author);
+            verify(authorRepository, never()).findById(any(Long.class));
+            verify(authorRepository, never()).getReferenceById(any(Long.class));
+            verify(bookRepository, times(1)).save(any(Book.class));
             verify(bookMapper, times(1)).toEntity(validBookRequestDto);
             verify(bookMapper, times(1)).toDto(any(Book.class));
+            verify(eventPublisher, times(1)).publishEvent(new BooksSavedEvent(List.of(bookDto)));
+            verify(eventPublisher, times(1)).publishEvent(new AuthorsSavedEvent(List.of(authorMapper.toDto(author))));
         }
 
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidAuthorsIdAndInvoke_saveNewBookOfAuthorByAuthorId() {
 
-            Optional<Author> author = Optional.empty();
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorRepository.findById(INVALID_ID)).thenReturn(author);
+            when(authorRepository.findForUpdateById(INVALID_ID)).thenReturn(Optional.empty());
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class,
                             () -> authorService.saveNewBookOfAuthorByAuthorId(INVALID_ID, validBookRequestDto));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(INVALID_ID);
-            verify(authorRepository, never()).save(any(Author.class));
+            verify(authorRepository, never()).saveAndFlush(any(Author.class));
+            verify(bookRepository, never()).save(any(Book.class));
             verify(bookMapper, never()).toDto(any(Book.class));
             verify(bookMapper, never()).toEntity(validBookRequestDto);
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+    }
+
+    @Nested
+    class SaveNewBooksOfAuthorByAuthorId {
+        @Test
+        void shouldReturnSavedBooksOfAuthor_whenSendAuthorsIdAndBookRequestDtosAndInvoke_saveNewBooksOfAuthorByAuthorId() {
+
+            Author author = getAuthorById(ID_1);
+            List<BookRequestDto> bookRequestDtos = List.of(getValidBookRequestDto(), getValidBookRequestDto());
+
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(authorRepository.getReferenceById(ID_1)).thenReturn(author);
+            when(bookRepository.save(any(Book.class))).thenAnswer(returnsFirstArg());
+
+            List<BookDto> bookDtos = authorService.saveNewBooksOfAuthorByAuthorId(ID_1, bookRequestDtos);
+
+            verify(eventPublisher, times(1)).publishEvent(new BooksSavedEvent(bookDtos));
+            assertEquals(bookRequestDtos.size(), bookDtos.size());
+            bookDtos.forEach(bookDto -> {
+                assertEquals(VALID_TITLE, bookDto.title());
+                assertEquals(ID_1, bookDto.authorId());
+            });
+        }
+
+        @Test
+        void shouldCountBooksOnceAndFlushEveryBatch_whenInvoke_saveNewBooksOfAuthorByAuthorId() {
+
+            Author author = getAuthorById(ID_1);
+            List<BookRequestDto> bookRequestDtos = Collections.nCopies(5, getValidBookRequestDto());
+            libraryProperties.getBulk().setBatchSize(2);
+
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(authorRepository.getReferenceById(ID_1)).thenReturn(author);
+            when(bookRepository.save(any(Book.class))).thenAnswer(returnsFirstArg());
+
+            authorService.saveNewBooksOfAuthorByAuthorId(ID_1, bookRequestDtos);
+
+            assertEquals(bookRequestDtos.size(), author.getBookCount());
+            verify(authorRepository, times(1)).saveAndFlush(author);
+            verify(authorRepository, never()).findById(any(Long.class));
+            verify(bookRepository, times(bookRequestDtos.size())).save(any(Book.class));
+            verify(entityManager, times(2)).flush();
+            verify(entityManager, times(2)).clear();
+        }
+
+        @Test
+        void shouldTrowException_whenSendInvalidAuthorsIdAndInvoke_saveNewBooksOfAuthorByAuthorId() {
+
+            List<BookRequestDto> bookRequestDtos = List.of(getValidBookRequestDto());
+
+            when(authorRepository.findForUpdateById(INVALID_ID)).thenReturn(Optional.empty());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class,
+                            () -> authorService.saveNewBooksOfAuthorByAuthorId(INVALID_ID, bookRequestDtos));
+
+            assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
+            verify(bookRepository, never()).save(any(Book.class));
+            verify(bookMapper, never()).toEntity(any(BookRequestDto.class));
         }
     }
 
@@ -464,13 +1176,13 @@ class AuthorServiceTest {
         @Test
         void shouldReturnUpdatedBookOfAuthor_whenSendAuthorsIdAndBooksIDAndBookRequestDtoAndInvoke_updateAuthorsBook() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
-            Book book = authorById.get().getBooks().get(0);
+            Book book = getAuthorById(ID_1).getBooks().get(0);
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(bookRepository.findByIdAndAuthorId(book.getId(), ID_1)).thenReturn(Optional.of(book));
+            when(bookRepository.saveAndFlush(book)).thenReturn(book);
 
-            BookDto bookDto = authorService.updateAuthorsBook(ID_1, book.getId(), validBookRequestDto);
+            BookDto bookDto = authorService.updateAuthorsBook(ID_1, book.getId(), validBookRequestDto, null);
 
             assertEquals(book.getId(), bookDto.id());
             assertEquals(validBookRequestDto.title(), bookDto.title());
@@ -483,16 +1195,17 @@ class AuthorServiceTest {
         @Test
         void shouldCallRepositoryAndMapper_whenSendAuthorsIdAndBooksIDAndBookRequestDtoAndInvoke_updateAuthorsBook() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
-            Book book = authorById.get().getBooks().get(0);
+            Book book = getAuthorById(ID_1).getBooks().get(0);
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(bookRepository.findByIdAndAuthorId(book.getId(), ID_1)).thenReturn(Optional.of(book));
+            when(bookRepository.saveAndFlush(book)).thenReturn(book);
 
-            authorService.updateAuthorsBook(ID_1, book.getId(), validBookRequestDto);
+            authorService.updateAuthorsBook(ID_1, book.getId(), validBookRequestDto, null);
 
-            verify(authorRepository, times(1)).findById(ID_1);
-            verify(authorRepository, times(1)).save(any(Author.class));
+            verify(bookRepository, times(1)).findByIdAndAuthorId(book.getId(), ID_1);
+            verify(bookRepository, times(1)).saveAndFlush(book);
+            verify(authorRepository, never()).findById(any(Long.class));
             verify(bookMapper, times(1)).partialUpdate(validBookRequestDto, book);
             verify(bookMapper, times(1)).toDto(any(Book.class));
         }
@@ -500,18 +1213,17 @@ class AuthorServiceTest {
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidAuthorsIdAndInvoke_updateAuthorsBook() {
 
-            Optional<Author> author = Optional.empty();
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorRepository.findById(INVALID_ID)).thenReturn(author);
+            when(bookRepository.findByIdAndAuthorId(ID_1, INVALID_ID)).thenReturn(Optional.empty());
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class,
-                            () -> authorService.updateAuthorsBook(INVALID_ID, ID_1, validBookRequestDto));
+                            () -> authorService.updateAuthorsBook(INVALID_ID, ID_1, validBookRequestDto, null));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(INVALID_ID);
-            verify(authorRepository, never()).save(any(Author.class));
+            verify(bookRepository, times(1)).findByIdAndAuthorId(ID_1, INVALID_ID);
+            verify(bookRepository, never()).saveAndFlush(any(Book.class));
             verify(bookMapper, never()).toEntity(validBookRequestDto);
             verify(bookMapper, never()).toDto(any(Book.class));
             verify(bookMapper, never()).partialUpdate(eq(validBookRequestDto), any(Book.class));
@@ -520,22 +1232,39 @@ class AuthorServiceTest {
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidBookIdAndInvoke_updateAuthorsBook() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
             BookRequestDto validBookRequestDto = getValidBookRequestDto();
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(bookRepository.findByIdAndAuthorId(INVALID_ID, ID_1)).thenReturn(Optional.empty());
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class,
-                            () -> authorService.updateAuthorsBook(ID_1, INVALID_ID, validBookRequestDto));
+                            () -> authorService.updateAuthorsBook(ID_1, INVALID_ID, validBookRequestDto, null));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(ID_1);
-            verify(authorRepository, never()).save(any(Author.class));
+            verify(bookRepository, times(1)).findByIdAndAuthorId(INVALID_ID, ID_1);
+            verify(bookRepository, never()).saveAndFlush(any(Book.class));
             verify(bookMapper, never()).toEntity(validBookRequestDto);
             verify(bookMapper, never()).toDto(any(Book.class));
             verify(bookMapper, never()).partialUpdate(eq(validBookRequestDto), any(Book.class));
         }
+
+        @Test
+        void shouldTrowException_whenExpectedVersionDoesNotMatchAndInvoke_updateAuthorsBook() {
+
+            Book book = getAuthorById(ID_1).getBooks().get(0);
+            book.setVersion(VERSION_1);
+            BookRequestDto validBookRequestDto = getValidBookRequestDto();
+
+            when(bookRepository.findByIdAndAuthorId(book.getId(), ID_1)).thenReturn(Optional.of(book));
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class,
+                            () -> authorService.updateAuthorsBook(ID_1, book.getId(), validBookRequestDto, VERSION_0));
+
+            assertEquals(HttpStatus.PRECONDITION_FAILED, errorResponseException.getStatusCode());
+            verify(bookRepository, never()).saveAndFlush(any(Book.class));
+            verify(bookMapper, never()).partialUpdate(eq(validBookRequestDto), any(Book.class));
+        }
     }
 
     @Nested
@@ -543,60 +1272,139 @@ class AuthorServiceTest {
         @Test
         void shouldReturnDeletedBookId_whenSendAuthorsIdAndBooksIdAndInvoke_deleteAuthorsBookById() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
-            Book book = authorById.get().getBooks().get(0);
+            Author author = getAuthorById(ID_1);
+            Book book = author.getBooks().get(0);
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(bookRepository.findByIdAndAuthorId(ID_2, ID_1)).thenReturn(Optional.of(book));
 
-            Long deletedBookId = authorService.deleteAuthorsBookById(ID_1, book.getId());
+            Long deletedBookId = authorService.deleteAuthorsBookById(ID_1, ID_2);
 
-            assertEquals(book.getId(), deletedBookId);
+            assertEquals(ID_2, deletedBookId);
         }
 
         @Test
         void shouldCallRepository_whenSendAuthorsIdAndBooksIdAndInvoke_deleteAuthorsBookById() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
-            Book book = authorById.get().getBooks().get(0);
+            Author author = getAuthorById(ID_1);
+            author.setBookCount(1);
+            Book book = author.getBooks().get(0);
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(bookRepository.findByIdAndAuthorId(ID_2, ID_1)).thenReturn(Optional.of(book));
 
-            authorService.deleteAuthorsBookById(ID_1, book.getId());
+            authorService.deleteAuthorsBookById(ID_1, ID_2);
 
-            verify(authorRepository, times(1)).findById(ID_1);
-            verify(authorRepository, times(1)).save(any(Author.class));
+            assertEquals(NO_BOOKS, author.getBookCount());
+            verify(bookRepository, times(1)).delete(book);
+            verify(eventPublisher, times(1)).publishEvent(new BookDeletedEvent(ID_1, ID_2));
+            verify(eventPublisher, times(1)).publishEvent(new AuthorsSavedEvent(List.of(authorMapper.toDto(author))));
+            verify(authorRepository, never()).findById(any(Long.class));
         }
 
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidAuthorsIdAndInvoke_deleteAuthorsBookById() {
 
-            Optional<Author> author = Optional.empty();
-
-            when(authorRepository.findById(INVALID_ID)).thenReturn(author);
+            when(authorRepository.findForUpdateById(INVALID_ID)).thenReturn(Optional.empty());
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class,
                             () -> authorService.deleteAuthorsBookById(INVALID_ID, ID_1));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(INVALID_ID);
-            verify(authorRepository, never()).save(any(Author.class));
+            verify(bookRepository, never()).findByIdAndAuthorId(ID_1, INVALID_ID);
+            verify(bookRepository, never()).delete(any(Book.class));
+            verify(eventPublisher, never()).publishEvent(any());
         }
 
         @Test
         void shouldCallRepositoryAndTrowException_whenSendInvalidBookIdAndInvoke_deleteAuthorsBookById() {
 
-            Optional<Author> authorById = Optional.of(getAuthorById(ID_1));
+            Author author = getAuthorById(ID_1);
 
-            when(authorRepository.findById(ID_1)).thenReturn(authorById);
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(bookRepository.findByIdAndAuthorId(INVALID_ID, ID_1)).thenReturn(Optional.empty());
 
             ErrorResponseException errorResponseException =
                     assertThrows(ErrorResponseException.class,
                             () -> authorService.deleteAuthorsBookById(ID_1, INVALID_ID));
 
             assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
-            verify(authorRepository, times(1)).findById(ID_1);
-            verify(authorRepository, never()).save(any(Author.class));
+            verify(bookRepository, never()).delete(any(Book.class));
+            verify(eventPublisher, never()).publishEvent(any(BookDeletedEvent.class));
+        }
+
+        @Test
+        void shouldChangeBookCountBeforeDeletingBook_whenInvoke_deleteAuthorsBookById() {
+
+            Author author = getAuthorById(ID_1);
+            Book book = author.getBooks().get(0);
+
+            when(authorRepository.findForUpdateById(ID_1)).thenReturn(Optional.of(author));
+            when(authorRepository.saveAndFlush(author)).thenReturn(author);
+            when(bookRepository.findByIdAndAuthorId(ID_2, ID_1)).thenReturn(Optional.of(book));
+
+            authorService.deleteAuthorsBookById(ID_1, ID_2);
+
+            InOrder inOrder = inOrder(authorRepository, bookRepository);
+            inOrder.verify(authorRepository).findForUpdateById(ID_1);
+            inOrder.verify(authorRepository).saveAndFlush(author);
+            inOrder.verify(bookRepository).findByIdAndAuthorId(ID_2, ID_1);
+            inOrder.verify(bookRepository).delete(book);
+        }
+    }
+
+    @Nested
+    class ReconcileBookCounts {
+        @Test
+        void shouldRecountOnlyWrongAuthorsAndReturnNextCursor_whenBatchIsFull_reconcileBookCounts() {
+
+            List<Long> ids = List.of(ID_1, ID_2);
+            Author author = getAuthorById(ID_2);
+
+            when(authorRepository.findIdsGreaterThan(0L, PageRequest.ofSize(ids.size()))).thenReturn(ids);
+            when(authorRepository.findIdsWithWrongBookCount(ids)).thenReturn(List.of(ID_2));
+            when(authorRepository.findAllForUpdateByIdIn(List.of(ID_2))).thenReturn(List.of(author));
+            when(bookRepository.countByAuthorId(ID_2)).thenReturn((long) DELETED_BOOKS);
+            when(cacheManager.getCache(DtoCacheNames.AUTHORS)).thenReturn(authorsCache);
+
+            CursorPageDto<Long> batch = authorService.reconcileBookCounts(null, ids.size());
+
+            assertEquals(List.of(ID_2), batch.content());
+            assertEquals(CursorCodec.encode(ID_2), batch.nextCursor());
+            assertEquals(DELETED_BOOKS, author.getBookCount());
+            verify(authorRepository, times(1)).flush();
+            verify(authorsCache, times(1)).evict(ID_2);
+            verify(eventPublisher, times(1)).publishEvent(new AuthorsSavedEvent(List.of(authorMapper.toDto(author))));
+        }
+
+        @Test
+        void shouldNotRecountAndReturnNoCursor_whenCountsAreCorrectInLastBatch_reconcileBookCounts() {
+
+            when(authorRepository.findIdsGreaterThan(ID_1, PageRequest.ofSize(PAGE_SIZE))).thenReturn(List.of(ID_2));
+            when(authorRepository.findIdsWithWrongBookCount(List.of(ID_2))).thenReturn(List.of());
+
+            CursorPageDto<Long> batch = authorService.reconcileBookCounts(CursorCodec.encode(ID_1), PAGE_SIZE);
+
+            assertIterableEquals(List.of(), batch.content());
+            assertNull(batch.nextCursor());
+            verify(authorRepository, never()).findAllForUpdateByIdIn(any());
+            verify(eventPublisher, never()).publishEvent(any());
+        }
+
+        @Test
+        void shouldReturnEmptyBatch_whenThereAreNoAuthorsAfterCursor_reconcileBookCounts() {
+
+            when(authorRepository.findIdsGreaterThan(ID_2, PageRequest.ofSize(PAGE_SIZE))).thenReturn(List.of());
+
+            CursorPageDto<Long> batch = authorService.reconcileBookCounts(CursorCodec.encode(ID_2), PAGE_SIZE);
+
+            assertIterableEquals(List.of(), batch.content());
+            assertNull(batch.nextCursor());
+            verify(authorRepository, never()).findIdsWithWrongBookCount(any());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,74 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.persistence.model.Author;
+import by.iyunski.library.persistence.repository.AuthorRepository;
+import by.iyunski.library.service.dtos.BookDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.getValidBookRequestDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts hits of the second-level cache after books are created and deleted, which must keep cached authors,
+ * the changed one with its new number of books. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class BookCountSecondLevelCacheTest {
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0");
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        authorRepository.findById(ID_1);
+        authorRepository.findById(ID_2);
+    }
+
+    @Test
+    void shouldReadAuthorsFromSecondLevelCache_whenBookOfOneOfThemIsSavedAndDeleted() {
+
+        int bookCount = authorRepository.findById(ID_1).map(Author::getBookCount).orElseThrow();
+
+        BookDto book = authorService.saveNewBookOfAuthorByAuthorId(ID_1, getValidBookRequestDto());
+        statistics.clear();
+
+        assertThat(authorRepository.findById(ID_1)).map(Author::getBookCount).contains(bookCount + 1);
+        assertThat(authorRepository.findById(ID_2)).isPresent();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheMissCount()).isZero();
+
+        authorService.deleteAuthorsBookById(ID_1, book.id());
+        statistics.clear();
+
+        assertThat(authorRepository.findById(ID_1)).map(Author::getBookCount).contains(bookCount);
+        assertThat(authorRepository.findById(ID_2)).isPresent();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheMissCount()).isZero();
+    }
+}
@@ -0,0 +1,322 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.persistence.model.Book;
+import by.iyunski.library.persistence.repository.AttributeProjections;
+import by.iyunski.library.persistence.repository.BookRepository;
+import by.iyunski.library.persistence.specification.BookSpecifications;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.BookFilterDto;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.impl.BookServiceImpl;
+import by.iyunski.library.service.mapper.BookMapper;
+import by.iyunski.library.service.util.CursorCodec;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.INVALID_CURSOR;
+import static by.iyunski.library.util.AuthorTestData.INVALID_ID;
+import static by.iyunski.library.util.AuthorTestData.PAGE_SIZE;
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_ISBN;
+import static by.iyunski.library.util.AuthorTestData.VALID_NUMBER_OF_PAGES;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VALID_YEAR_OF_PUBLICATION;
+import static by.iyunski.library.util.AuthorTestData.getAuthorById;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoListByBookList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookServiceTest {
+    @Mock
+    private BookRepository bookRepository;
+    @Spy
+    private BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private LibraryProperties libraryProperties = new LibraryProperties();
+    @Mock
+    private AttributeProjections attributeProjections;
+    @InjectMocks
+    private BookServiceImpl bookService;
+
+    @Nested
+    class ExportBooks {
+        private Session session;
+
+        @BeforeEach
+        void setUp() {
+            session = mock(Session.class);
+            when(entityManager.unwrap(Session.class)).thenReturn(session);
+        }
+
+        @Test
+        void shouldIgnoreSecondLevelCacheWhileStreaming_whenInvoke_exportBooks() {
+
+            when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+            when(bookRepository.streamAllByOrderByIdAsc()).thenReturn(getAuthorById(ID_1).getBooks().stream());
+
+            bookService.exportBooks(dto -> {
+            });
+
+            InOrder inOrder = inOrder(session, bookRepository);
+            inOrder.verify(session).setCacheMode(CacheMode.IGNORE);
+            inOrder.verify(bookRepository).streamAllByOrderByIdAsc();
+            inOrder.verify(session).setCacheMode(CacheMode.NORMAL);
+        }
+
+        @Test
+        void shouldPushAllBooksToConsumer_whenInvoke_exportBooks() {
+
+            List<Book> books = getAuthorById(ID_1).getBooks();
+            List<BookDto> exported = new ArrayList<>();
+
+            when(bookRepository.streamAllByOrderByIdAsc()).thenReturn(books.stream());
+
+            bookService.exportBooks(exported::add);
+
+            assertIterableEquals(getBookDtoListByBookList(books), exported);
+            verify(bookMapper, times(books.size())).toDto(any(Book.class));
+        }
+
+        @Test
+        void shouldClearPersistenceContextEveryClearInterval_whenInvoke_exportBooks() {
+
+            List<Book> books = getAuthorById(ID_1).getBooks();
+            libraryProperties.getExport().setClearInterval(2);
+
+            when(bookRepository.streamAllByOrderByIdAsc()).thenReturn(books.stream());
+
+            bookService.exportBooks(bookDto -> {
+            });
+
+            verify(entityManager, times(books.size() / 2)).clear();
+        }
+    }
+
+    @Nested
+    class FindBooks {
+        @Test
+        void shouldReturnBooksAndCursorOfLastYearAndId_whenInvoke_findBooks() {
+
+            List<Book> books = getAuthorById(ID_1).getBooks();
+            int limit = books.size() - 1;
+            Book lastOfPage = books.get(limit - 1);
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, null, null, VALID_NUMBER_OF_PAGES);
+
+            when(bookRepository.findBy(any(Specification.class), any())).thenReturn(books);
+
+            CursorPageDto<BookDto> page = bookService.findBooks(filter, null, limit);
+
+            assertIterableEquals(getBookDtoListByBookList(books.subList(0, limit)), page.content());
+            assertEquals(CursorCodec.encode(lastOfPage.getYearOfPublication().getValue(), lastOfPage.getId()),
+                    page.nextCursor());
+        }
+
+        @Test
+        void shouldReturnNoCursorIfThereAreNoMoreBooks_whenInvoke_findBooks() {
+
+            List<Book> books = getAuthorById(ID_1).getBooks();
+            BookFilterDto filter = new BookFilterDto(null, null, null, null);
+
+            when(bookRepository.findBy(any(Specification.class), any())).thenReturn(books);
+
+            CursorPageDto<BookDto> page = bookService.findBooks(filter,
+                    CursorCodec.encode(VALID_YEAR_OF_PUBLICATION, ID_1), PAGE_SIZE);
+
+            assertEquals(books.size(), page.content().size());
+            assertNull(page.nextCursor());
+        }
+
+        @Test
+        void shouldTrowExceptionIfOnlyMinPagesIsSent_whenInvoke_findBooks() {
+
+            BookFilterDto filter = new BookFilterDto(null, null, null, VALID_NUMBER_OF_PAGES);
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> bookService.findBooks(filter, null, PAGE_SIZE));
+
+            assertEquals(HttpStatus.BAD_REQUEST, errorResponseException.getStatusCode());
+            verify(bookRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void shouldTrowExceptionIfCursorIsMalformed_whenInvoke_findBooks() {
+
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, null, null, null);
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> bookService.findBooks(filter, INVALID_CURSOR, PAGE_SIZE));
+
+            assertEquals(HttpStatus.BAD_REQUEST, errorResponseException.getStatusCode());
+            verify(bookRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void shouldTrowExceptionIfNoBooksMatch_whenInvoke_findBooks() {
+
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, null, null, null);
+
+            when(bookRepository.findBy(any(Specification.class), any())).thenReturn(Collections.emptyList());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> bookService.findBooks(filter, null, PAGE_SIZE));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class FindBookFields {
+        @Test
+        void shouldSelectAuthorIdFromForeignKeyAndSortKeys_whenInvoke_findBookFields() {
+
+            List<String> fields = List.of("title", "authorId");
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, null, null, null);
+            List<Map<String, Object>> rows = List.of(
+                    Map.of("title", VALID_TITLE, "author.id", ID_1,
+                            "yearOfPublication", Year.of(VALID_YEAR_OF_PUBLICATION), "id", ID_1),
+                    Map.of("title", VALID_TITLE, "author.id", ID_1,
+                            "yearOfPublication", Year.of(VALID_YEAR_OF_PUBLICATION), "id", ID_2));
+
+            when(attributeProjections.findAttributes(eq(Book.class),
+                    eq(List.of("title", "author.id", "yearOfPublication", "id")), any(Specification.class),
+                    eq(BookSpecifications.BY_YEAR_OF_PUBLICATION), eq(2))).thenReturn(rows);
+
+            CursorPageDto<Map<String, Object>> page = bookService.findBookFields(filter, fields, null, 1);
+
+            assertEquals(List.of(Map.of("title", VALID_TITLE, "authorId", ID_1)), page.content());
+            assertEquals(CursorCodec.encode(VALID_YEAR_OF_PUBLICATION, ID_1), page.nextCursor());
+            verify(bookRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void shouldWriteYearOfPublicationAsNumber_whenInvoke_findBookFields() {
+
+            List<String> fields = List.of("yearOfPublication");
+            BookFilterDto filter = new BookFilterDto(VALID_GENRE, null, null, null);
+            List<Map<String, Object>> rows = List.of(
+                    Map.of("yearOfPublication", Year.of(VALID_YEAR_OF_PUBLICATION), "id", ID_1));
+
+            when(attributeProjections.findAttributes(eq(Book.class), any(), any(Specification.class), any(), eq(PAGE_SIZE + 1)))
+                    .thenReturn(rows);
+
+            CursorPageDto<Map<String, Object>> page = bookService.findBookFields(filter, fields, null, PAGE_SIZE);
+
+            assertEquals(List.of(Map.of("yearOfPublication", VALID_YEAR_OF_PUBLICATION)), page.content());
+            assertNull(page.nextCursor());
+        }
+
+        @Test
+        void shouldTrowExceptionIfOnlyMinPagesIsSent_whenInvoke_findBookFields() {
+
+            BookFilterDto filter = new BookFilterDto(null, null, null, VALID_NUMBER_OF_PAGES);
+            List<String> fields = List.of("id");
+
+            ErrorResponseException errorResponseException = assertThrows(ErrorResponseException.class,
+                    () -> bookService.findBookFields(filter, fields, null, PAGE_SIZE));
+
+            assertEquals(HttpStatus.BAD_REQUEST, errorResponseException.getStatusCode());
+            verify(attributeProjections, never()).findAttributes(any(), any(), any(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    class GetBooksByIds {
+        @Test
+        void shouldReturnBooksInOrderOfIdsWithOneQueryPerChunk_whenSendIdsAndInvoke_getBooksByIds() {
+
+            List<Book> books = getAuthorById(ID_1).getBooks();
+            Book first = books.get(0);
+            Book second = books.get(1);
+            first.setId(ID_1);
+            second.setId(ID_2);
+            libraryProperties.getFetch().setChunkSize(1);
+
+            when(bookRepository.findAllById(List.of(second.getId()))).thenReturn(List.of(second));
+            when(bookRepository.findAllById(List.of(first.getId()))).thenReturn(List.of(first));
+
+            List<BookDto> bookDtos = bookService.getBooksByIds(List.of(second.getId(), first.getId(), second.getId()));
+
+            assertIterableEquals(getBookDtoListByBookList(List.of(second, first)), bookDtos);
+            verify(bookRepository, times(2)).findAllById(any());
+        }
+
+        @Test
+        void shouldTrowExceptionIfNoBooksFound_whenSendInvalidIdsAndInvoke_getBooksByIds() {
+
+            when(bookRepository.findAllById(List.of(INVALID_ID))).thenReturn(Collections.emptyList());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> bookService.getBooksByIds(List.of(INVALID_ID)));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class GetBookByIsbn {
+        @Test
+        void shouldReturnBook_whenSendExistingIsbnAndInvoke_getBookByIsbn() {
+            Book book = getAuthorById(ID_1).getBooks().get(0);
+
+            when(bookRepository.findByIsbn(book.getIsbn())).thenReturn(Optional.of(book));
+
+            BookDto bookDto = bookService.getBookByIsbn(book.getIsbn());
+
+            assertEquals(book.getId(), bookDto.id());
+            assertEquals(book.getIsbn(), bookDto.isbn());
+            assertEquals(ID_1, bookDto.authorId());
+            verify(bookRepository, times(1)).findByIsbn(book.getIsbn());
+            verify(bookMapper, times(1)).toDto(book);
+        }
+
+        @Test
+        void shouldTrowException_whenSendUnknownIsbnAndInvoke_getBookByIsbn() {
+
+            when(bookRepository.findByIsbn(VALID_ISBN)).thenReturn(Optional.empty());
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> bookService.getBookByIsbn(VALID_ISBN));
+
+            assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
+            verify(bookMapper, never()).toDto(any(Book.class));
+        }
+    }
+}
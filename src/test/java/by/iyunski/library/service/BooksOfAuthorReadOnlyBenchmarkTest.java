@@ -0,0 +1,149 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.service.cache.DtoCacheNames;
+import by.iyunski.library.service.dtos.AuthorDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_NUMBER_OF_PAGES;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VALID_YEAR_OF_PUBLICATION;
+import static by.iyunski.library.util.AuthorTestData.getValidAuthorRequestDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures heap allocated and CPU time spent by listing all 50 000 books of an author in a read-only transaction,
+ * as the service does, and in a read-write transaction around it. A read-only session keeps no snapshots
+ * of loaded books and is never flushed, so it must allocate less and skip the flush at commit.
+ * Caches are cleared before every listing, so books are always read from the database.
+ * Run with {@code mvn test -Pbenchmark}, skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("benchmark")
+@Slf4j
+class BooksOfAuthorReadOnlyBenchmarkTest {
+    public static final int BOOK_COUNT = 50_000;
+    public static final int WARM_UP_LISTINGS = 5;
+    public static final int MEASURED_LISTINGS = 10;
+    public static final int SEED_BATCH_SIZE = 1_000;
+    public static final long SEED_FIRST_ID = 1_000_000_000L;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void shouldAllocateLessAndNeverFlush_whenBooksAreListedInReadOnlyTransaction() {
+
+        Long authorId = authorWithBooks();
+        TransactionTemplate readWriteTransaction = new TransactionTemplate(transactionManager);
+        Runnable readOnlyListing = () -> assertThat(authorService.getAllBooksOfAuthorByAuthorId(authorId)).hasSize(BOOK_COUNT);
+        Runnable readWriteListing = () -> readWriteTransaction.executeWithoutResult(status -> readOnlyListing.run());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (int i = 0; i < WARM_UP_LISTINGS; i++) {
+            list(readOnlyListing);
+            list(readWriteListing);
+        }
+
+        statistics.clear();
+        long[][] readOnly = measure(readOnlyListing);
+        long readOnlyFlushes = statistics.getFlushCount();
+        statistics.clear();
+        long[][] readWrite = measure(readWriteListing);
+        long readWriteFlushes = statistics.getFlushCount();
+
+        log.info("Listing {} books in read-only transaction: median {} KB allocated, {} ms of CPU, {} flushes",
+                BOOK_COUNT, median(readOnly[0]) / 1_024, median(readOnly[1]) / 1_000_000, readOnlyFlushes);
+        log.info("Listing {} books in read-write transaction: median {} KB allocated, {} ms of CPU, {} flushes",
+                BOOK_COUNT, median(readWrite[0]) / 1_024, median(readWrite[1]) / 1_000_000, readWriteFlushes);
+
+        assertThat(readOnlyFlushes).isZero();
+        assertThat(readWriteFlushes).isPositive();
+        assertThat(median(readOnly[0])).isLessThan(median(readWrite[0]));
+    }
+
+    private Long authorWithBooks() {
+        AuthorDto author = authorService.saveNewAuthor(getValidAuthorRequestDto());
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < BOOK_COUNT; i++) {
+            rows.add(new Object[]{SEED_FIRST_ID + i, VALID_TITLE, VALID_GENRE, VALID_YEAR_OF_PUBLICATION,
+                    VALID_NUMBER_OF_PAGES, String.format("979%010d", i), author.id()});
+            if (rows.size() == SEED_BATCH_SIZE || i == BOOK_COUNT - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO book (id, title, genre, year_of_publication, number_of_pages, "
+                        + "isbn, author_id) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return author.id();
+    }
+
+    /**
+     * @return bytes allocated and nanoseconds of CPU time of every listing
+     */
+    private long[][] measure(Runnable listing) {
+        long[][] bytesAndNanos = new long[2][MEASURED_LISTINGS];
+        for (int i = 0; i < MEASURED_LISTINGS; i++) {
+            long[] used = list(listing);
+            bytesAndNanos[0][i] = used[0];
+            bytesAndNanos[1][i] = used[1];
+        }
+        return bytesAndNanos;
+    }
+
+    private long[] list(Runnable listing) {
+        Objects.requireNonNull(cacheManager.getCache(DtoCacheNames.BOOKS_OF_AUTHOR)).clear();
+        entityManagerFactory.getCache().evictAll();
+        long bytesBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long nanosBefore = threadMXBean.getCurrentThreadCpuTime();
+        listing.run();
+        return new long[]{threadMXBean.getCurrentThreadAllocatedBytes() - bytesBefore,
+                threadMXBean.getCurrentThreadCpuTime() - nanosBefore};
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
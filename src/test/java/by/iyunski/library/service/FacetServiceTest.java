@@ -0,0 +1,257 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.persistence.model.Author;
+import by.iyunski.library.persistence.model.Book;
+import by.iyunski.library.persistence.repository.BookRepository;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.FacetFilterDto;
+import by.iyunski.library.service.dtos.FacetResultDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
+import by.iyunski.library.service.facet.BookFacetIndex;
+import by.iyunski.library.service.impl.FacetServiceImpl;
+import by.iyunski.library.service.index.IndexRebuilder;
+import by.iyunski.library.service.mapper.BookMapper;
+import by.iyunski.library.service.util.CursorCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_FIRST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.NO_BOOKS;
+import static by.iyunski.library.util.AuthorTestData.VALID_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.VALID_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.VALID_FIRST_NAME;
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VERSION_0;
+import static by.iyunski.library.util.AuthorTestData.VERSION_1;
+import static by.iyunski.library.util.AuthorTestData.getAuthorDto;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FacetServiceTest {
+    public static final int LIMIT = 10;
+    public static final String HORROR = "Horror";
+
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private BookService bookService;
+    @Mock
+    private BookRepository bookRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+    private final AuthorDto anotherAuthorDto =
+            new AuthorDto(ID_2, ANOTHER_FIRST_NAME, ANOTHER_LAST_NAME, ANOTHER_DATE_OF_BIRTH, ANOTHER_COUNTRY, NO_BOOKS, VERSION_0);
+    private final BookDto horrorBookDto = new BookDto(3L, VALID_TITLE, HORROR, 1995, 50, "9780000000003", ID_2, VERSION_0);
+    private final List<BookDto> bookDtos = new ArrayList<>();
+    private BookFacetIndex bookFacetIndex;
+    private FacetServiceImpl facetService;
+
+    @BeforeEach
+    void setUp() {
+        bookDtos.addAll(getBookDtoList());
+        bookDtos.add(horrorBookDto);
+        doAnswer(invocation -> {
+            Consumer<AuthorDto> consumer = invocation.getArgument(0);
+            List.of(getAuthorDto(), anotherAuthorDto).forEach(consumer);
+            return null;
+        }).when(authorService).exportAuthors(any());
+        doAnswer(invocation -> {
+            Consumer<BookDto> consumer = invocation.getArgument(0);
+            bookDtos.forEach(consumer);
+            return null;
+        }).when(bookService).exportBooks(any());
+        lenient().when(bookRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Book> books = new ArrayList<>();
+            ids.forEach(id -> bookDtos.stream()
+                    .filter(bookDto -> bookDto.id().equals(id))
+                    .map(FacetServiceTest::toBook)
+                    .forEach(books::add));
+            return books;
+        });
+
+        bookFacetIndex = new BookFacetIndex(meterRegistry);
+        new IndexRebuilder(authorService, bookService, List.of(bookFacetIndex), new LibraryProperties()).rebuild();
+        facetService = new FacetServiceImpl(bookFacetIndex, bookRepository, bookMapper);
+    }
+
+    @Nested
+    class GetFacets {
+        @Test
+        void shouldReturnAllBooksAndCountsOfFacets_whenSendNoFacetsAndInvoke_getFacets() {
+
+            FacetResultDto facetResultDto = facetService.getFacets(new FacetFilterDto(null, null, null), null, LIMIT);
+
+            assertIterableEquals(bookDtos, facetResultDto.books());
+            assertEquals(3, facetResultDto.total());
+            assertEquals(Map.of(VALID_GENRE, 2L, HORROR, 1L), facetResultDto.booksByGenre());
+            assertEquals(Map.of(1990, 2L, 2020, 1L), facetResultDto.booksByDecade());
+            assertEquals(Map.of(VALID_COUNTRY, 2L, ANOTHER_COUNTRY, 1L), facetResultDto.booksByCountry());
+            assertNull(facetResultDto.nextCursor());
+        }
+
+        @Test
+        void shouldIntersectSelectedFacets_whenSendFacetsAndInvoke_getFacets() {
+
+            FacetResultDto facetResultDto = facetService.getFacets(new FacetFilterDto(VALID_GENRE, 1998, null), null, LIMIT);
+
+            assertIterableEquals(List.of(bookDtos.get(0)), facetResultDto.books());
+            assertEquals(1, facetResultDto.total());
+            assertEquals(Map.of(VALID_GENRE, 1L), facetResultDto.booksByGenre());
+            assertEquals(Map.of(1990, 1L), facetResultDto.booksByDecade());
+            assertEquals(Map.of(VALID_COUNTRY, 1L), facetResultDto.booksByCountry());
+        }
+
+        @Test
+        void shouldReturnNextCursorAndPageAfterIt_whenInvoke_getFacets() {
+
+            FacetFilterDto filter = new FacetFilterDto(null, 1990, null);
+
+            FacetResultDto firstPage = facetService.getFacets(filter, null, 1);
+            FacetResultDto secondPage = facetService.getFacets(filter, firstPage.nextCursor(), 1);
+
+            assertIterableEquals(List.of(bookDtos.get(0)), firstPage.books());
+            assertEquals(CursorCodec.encode(ID_1), firstPage.nextCursor());
+            assertIterableEquals(List.of(horrorBookDto), secondPage.books());
+            assertNull(secondPage.nextCursor());
+            assertEquals(2, secondPage.total());
+        }
+
+        @Test
+        void shouldTrowExceptionIfNoBooksMatch_whenInvoke_getFacets() {
+
+            FacetFilterDto filter = new FacetFilterDto(HORROR, null, VALID_COUNTRY);
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> facetService.getFacets(filter, null, LIMIT));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+            verify(bookRepository, never()).findAllById(anyIterable());
+        }
+
+        @Test
+        void shouldReportMemoryOfIndex_whenIndexIsBuilt() {
+
+            assertTrue(meterRegistry.get("library.facets.memory").gauge().value() > 0);
+            assertTrue(meterRegistry.get("library.facets.memory.per.million.books").gauge().value() > 0);
+        }
+
+        @Test
+        void shouldCountMapEntryAndObjectsOfBitmapOfNewAuthor_whenBookOfNewAuthorIsSaved() {
+
+            AuthorDto newAuthorDto = new AuthorDto(5L, VALID_FIRST_NAME, VALID_LAST_NAME, VALID_DATE_OF_BIRTH,
+                    VALID_COUNTRY, NO_BOOKS, VERSION_0);
+            BookDto bookOfNewAuthorDto = new BookDto(5L, VALID_TITLE, VALID_GENRE, 2021, 50, "9780000000005", 5L, VERSION_0);
+            long bytes = bookFacetIndex.estimateBytes();
+
+            bookFacetIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(newAuthorDto)));
+            bookFacetIndex.onBooksSaved(new BooksSavedEvent(List.of(bookOfNewAuthorDto)));
+
+            assertTrue(bookFacetIndex.estimateBytes() - bytes >= 150);
+        }
+    }
+
+    @Nested
+    class UpdateIndex {
+        @Test
+        void shouldMoveUpdatedBookToNewFacets_whenBooksSaved() {
+
+            BookDto bookDto = bookDtos.get(0);
+            BookDto updatedBookDto = new BookDto(bookDto.id(), bookDto.title(), HORROR, 2021, bookDto.numberOfPages(),
+                    bookDto.isbn(), bookDto.authorId(), VERSION_1);
+
+            bookFacetIndex.onBooksSaved(new BooksSavedEvent(List.of(updatedBookDto)));
+
+            BookFacetIndex.Facets facets = bookFacetIndex.facets(new FacetFilterDto(null, null, null), 0, LIMIT);
+            assertEquals(Map.of(VALID_GENRE, 1L, HORROR, 2L), facets.booksByGenre());
+            assertEquals(Map.of(1990, 1L, 2020, 2L), facets.booksByDecade());
+        }
+
+        @Test
+        void shouldMoveBooksToNewCountryOfAuthor_whenAuthorsSaved() {
+
+            AuthorDto movedAuthorDto = new AuthorDto(ID_1, VALID_FIRST_NAME, VALID_LAST_NAME, VALID_DATE_OF_BIRTH,
+                    ANOTHER_COUNTRY, NO_BOOKS, VERSION_1);
+
+            bookFacetIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(movedAuthorDto)));
+
+            BookFacetIndex.Facets facets = bookFacetIndex.facets(new FacetFilterDto(null, null, ANOTHER_COUNTRY), 0, LIMIT);
+            assertEquals(List.of(ID_1, ID_2, 3L), facets.bookIds());
+            assertEquals(Map.of(ANOTHER_COUNTRY, 3L), facets.booksByCountry());
+        }
+
+        @Test
+        void shouldRemoveDeletedBook_whenBookDeleted() {
+
+            bookFacetIndex.onBookDeleted(new BookDeletedEvent(ID_1, ID_1));
+
+            BookFacetIndex.Facets facets = bookFacetIndex.facets(new FacetFilterDto(null, null, null), 0, LIMIT);
+            assertEquals(List.of(ID_2, 3L), facets.bookIds());
+            assertEquals(Map.of(VALID_GENRE, 1L, HORROR, 1L), facets.booksByGenre());
+        }
+
+        @Test
+        void shouldRemoveBooksOfDeletedAuthor_whenAuthorDeleted() {
+
+            bookFacetIndex.onAuthorDeleted(new AuthorDeletedEvent(ID_1));
+
+            BookFacetIndex.Facets facets = bookFacetIndex.facets(new FacetFilterDto(null, null, null), 0, LIMIT);
+            assertEquals(List.of(3L), facets.bookIds());
+            assertEquals(Map.of(ANOTHER_COUNTRY, 1L), facets.booksByCountry());
+        }
+    }
+
+    private static Book toBook(BookDto bookDto) {
+        Author author = new Author();
+        author.setId(bookDto.authorId());
+        Book book = new Book();
+        book.setId(bookDto.id());
+        book.setTitle(bookDto.title());
+        book.setGenre(bookDto.genre());
+        book.setYearOfPublication(Year.of(bookDto.yearOfPublication()));
+        book.setNumberOfPages(bookDto.numberOfPages());
+        book.setIsbn(bookDto.isbn());
+        book.setAuthor(author);
+        book.setVersion(bookDto.version());
+        return book;
+    }
+}
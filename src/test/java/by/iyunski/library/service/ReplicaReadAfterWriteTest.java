@@ -0,0 +1,114 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.persistence.datasource.ReplicaLagMonitor;
+import by.iyunski.library.persistence.model.Author;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.BookRequestDto;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.PAGE_SIZE;
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_NUMBER_OF_PAGES;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VALID_YEAR_OF_PUBLICATION;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reads authors right after a book is added to one of them, while the replica is a copy of the primary
+ * taken before the change, that is a replica which has not caught up yet. Cached authors and books and
+ * versions for conditional requests must be read on the primary. Skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class ReplicaReadAfterWriteTest {
+    public static final String REPLICA = "replica";
+    public static final List<String> TABLES = List.of("author", "book");
+
+    @Container
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUsername("root");
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", mysql::getJdbcUrl);
+        registry.add("spring.datasource.username", mysql::getUsername);
+        registry.add("spring.datasource.password", mysql::getPassword);
+        registry.add("library.datasource.replica.url",
+                () -> mysql.getJdbcUrl().replace("/" + mysql.getDatabaseName(), "/" + REPLICA));
+        registry.add("library.datasource.replica.username", mysql::getUsername);
+        registry.add("library.datasource.replica.password", mysql::getPassword);
+    }
+
+    @MockBean
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("drop database if exists " + REPLICA);
+        jdbcTemplate.execute("create database " + REPLICA);
+        TABLES.forEach(table -> {
+            jdbcTemplate.execute("create table " + REPLICA + "." + table + " like " + table);
+            jdbcTemplate.execute("insert into " + REPLICA + "." + table + " select * from " + table);
+        });
+        when(replicaLagMonitor.isReplicaAvailable()).thenReturn(true);
+    }
+
+    @Test
+    void shouldCacheAuthorAndBooksAsTheyAreOnPrimary_whenReadRightAfterWrite() {
+
+        BookDto book = authorService.saveNewBookOfAuthorByAuthorId(ID_1, getBookRequestDto("9780000000017"));
+        entityManagerFactory.getCache().evictAll();
+
+        AuthorDto author = authorService.getAuthorById(ID_1);
+
+        assertThat(author.bookCount()).isEqualTo(bookCountOnPrimary());
+        assertThat(authorService.getAuthorById(ID_1)).isEqualTo(author);
+        assertThat(authorService.getAuthorVersion(ID_1)).isEqualTo(author.version());
+        assertThat(authorService.getAllBooksOfAuthorByAuthorId(ID_1)).contains(book);
+    }
+
+    @Test
+    void shouldNotPutAuthorReadOnReplicaIntoSecondLevelCache_whenReadRightAfterWrite() {
+
+        authorService.saveNewBookOfAuthorByAuthorId(ID_1, getBookRequestDto("9780000000024"));
+        entityManagerFactory.getCache().evictAll();
+
+        authorService.getAllAuthors(null, PAGE_SIZE);
+
+        assertThat(entityManagerFactory.getCache().contains(Author.class, ID_1)).isFalse();
+        assertThat(authorService.getAuthorById(ID_1).bookCount()).isEqualTo(bookCountOnPrimary());
+    }
+
+    private int bookCountOnPrimary() {
+        return jdbcTemplate.queryForObject("select book_count from author where id = ?", Integer.class, ID_1);
+    }
+
+    private static BookRequestDto getBookRequestDto(String isbn) {
+        return new BookRequestDto(VALID_TITLE, VALID_GENRE, VALID_YEAR_OF_PUBLICATION, VALID_NUMBER_OF_PAGES, isbn);
+    }
+}
@@ -0,0 +1,123 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookRequestDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_NUMBER_OF_PAGES;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VALID_YEAR_OF_PUBLICATION;
+import static by.iyunski.library.util.AuthorTestData.getValidAuthorRequestDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures latency of inserting a book for authors that already have from 10 to 100 000 books.
+ * The latency must stay flat, as every insert loads only the author, locked for update, and none of its books.
+ * Run with {@code mvn test -Pbenchmark}, skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+@Tag("benchmark")
+@Slf4j
+class SaveNewBookOfAuthorBenchmarkTest {
+    public static final int[] BOOK_COUNTS = {10, 100, 1_000, 10_000, 100_000};
+    public static final int WARM_UP_INSERTS = 200;
+    public static final int MEASURED_INSERTS = 200;
+    public static final int SEED_BATCH_SIZE = 1_000;
+    public static final long SEED_FIRST_ID = 1_000_000_000L;
+    public static final long MAX_SLOWDOWN = 3;
+
+    @Container
+    @ServiceConnection
+    static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0")
+            .withUrlParam("rewriteBatchedStatements", "true");
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final AtomicLong isbnSequence = new AtomicLong();
+    private final AtomicLong seedIdSequence = new AtomicLong(SEED_FIRST_ID);
+
+    @Test
+    void shouldKeepLatencyOfBookInsertFlat_whenAuthorHasMoreBooks() {
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        insertBooks(authorWithBooks(BOOK_COUNTS[0]), WARM_UP_INSERTS);
+
+        Map<Integer, Long> medianNanos = new LinkedHashMap<>();
+        for (int bookCount : BOOK_COUNTS) {
+            Long authorId = authorWithBooks(bookCount);
+            statistics.clear();
+            medianNanos.put(bookCount, median(insertBooks(authorId, MEASURED_INSERTS)));
+            assertThat(statistics.getCollectionLoadCount()).isZero();
+            assertThat(statistics.getEntityLoadCount()).isEqualTo(MEASURED_INSERTS);
+            log.info("Author with {} books: median insert of a book takes {} us", bookCount, medianNanos.get(bookCount) / 1_000);
+        }
+
+        long fewest = medianNanos.get(BOOK_COUNTS[0]);
+        long most = medianNanos.get(BOOK_COUNTS[BOOK_COUNTS.length - 1]);
+        assertThat(most).isLessThanOrEqualTo(fewest * MAX_SLOWDOWN);
+    }
+
+    private Long authorWithBooks(int bookCount) {
+        AuthorDto author = authorService.saveNewAuthor(getValidAuthorRequestDto());
+        List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < bookCount; i++) {
+            rows.add(new Object[]{seedIdSequence.getAndIncrement(), VALID_TITLE, VALID_GENRE, VALID_YEAR_OF_PUBLICATION,
+                    VALID_NUMBER_OF_PAGES, nextIsbn(), author.id()});
+            if (rows.size() == SEED_BATCH_SIZE || i == bookCount - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO book (id, title, genre, year_of_publication, number_of_pages, "
+                        + "isbn, author_id) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        return author.id();
+    }
+
+    private long[] insertBooks(Long authorId, int count) {
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            authorService.saveNewBookOfAuthorByAuthorId(authorId, new BookRequestDto(
+                    VALID_TITLE, VALID_GENRE, VALID_YEAR_OF_PUBLICATION, VALID_NUMBER_OF_PAGES, nextIsbn()));
+            nanos[i] = System.nanoTime() - start;
+        }
+        return nanos;
+    }
+
+    private String nextIsbn() {
+        return String.format("979%010d", isbnSequence.incrementAndGet());
+    }
+
+    private static long median(long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,186 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.SearchResultDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
+import by.iyunski.library.service.impl.SearchServiceImpl;
+import by.iyunski.library.service.index.IndexRebuilder;
+import by.iyunski.library.service.search.SearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_FIRST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.VALID_FIRST_NAME;
+import static by.iyunski.library.util.AuthorTestData.VALID_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.NO_BOOKS;
+import static by.iyunski.library.util.AuthorTestData.VERSION_0;
+import static by.iyunski.library.util.AuthorTestData.getAuthorDto;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceTest {
+    public static final int LIMIT = 10;
+
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private BookService bookService;
+
+    private SearchIndex searchIndex;
+    private SearchServiceImpl searchService;
+
+    private final AuthorDto anotherAuthorDto =
+            new AuthorDto(ID_2, ANOTHER_FIRST_NAME, ANOTHER_LAST_NAME, ANOTHER_DATE_OF_BIRTH, ANOTHER_COUNTRY, NO_BOOKS, VERSION_0);
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<AuthorDto> consumer = invocation.getArgument(0);
+            List.of(getAuthorDto(), anotherAuthorDto).forEach(consumer);
+            return null;
+        }).when(authorService).exportAuthors(any());
+        doAnswer(invocation -> {
+            Consumer<BookDto> consumer = invocation.getArgument(0);
+            getBookDtoList().forEach(consumer);
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        searchIndex = new SearchIndex();
+        new IndexRebuilder(authorService, bookService, List.of(searchIndex), new LibraryProperties()).rebuild();
+        searchService = new SearchServiceImpl(searchIndex);
+    }
+
+    @Nested
+    class Search {
+        @Test
+        void shouldFindAuthorByLastNameIgnoringCase_whenInvoke_search() {
+
+            SearchResultDto searchResultDto = searchService.search(VALID_LAST_NAME.toUpperCase(), LIMIT);
+
+            assertIterableEquals(List.of(getAuthorDto()), searchResultDto.authors());
+            assertTrue(searchResultDto.books().isEmpty());
+        }
+
+        @Test
+        void shouldRankBooksMatchingMoreWordsFirst_whenInvoke_search() {
+
+            List<BookDto> bookDtoList = getBookDtoList();
+
+            SearchResultDto searchResultDto = searchService.search("best novell 2", LIMIT);
+
+            assertIterableEquals(List.of(bookDtoList.get(1), bookDtoList.get(0)), searchResultDto.books());
+        }
+
+        @Test
+        void shouldKeepBestRankedBooksWithinLimit_whenInvoke_search() {
+
+            SearchResultDto searchResultDto = searchService.search("best novell 2", 1);
+
+            assertIterableEquals(List.of(getBookDtoList().get(1)), searchResultDto.books());
+        }
+
+        @Test
+        void shouldReturnNoMoreThanLimit_whenInvoke_search() {
+
+            SearchResultDto searchResultDto = searchService.search("fiction", 1);
+
+            assertEquals(1, searchResultDto.books().size());
+        }
+
+        @Test
+        void shouldTrowExceptionIfNothingFound_whenInvoke_search() {
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> searchService.search("unknown", LIMIT));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class UpdateIndex {
+        @Test
+        void shouldReplaceTermsOfUpdatedAuthor_whenAuthorsSaved() {
+
+            AuthorDto updatedAuthorDto = new AuthorDto(ID_1, VALID_FIRST_NAME, ANOTHER_LAST_NAME,
+                    ANOTHER_DATE_OF_BIRTH, ANOTHER_COUNTRY, NO_BOOKS, VERSION_0);
+
+            searchIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(updatedAuthorDto)));
+
+            assertThrows(ErrorResponseException.class, () -> searchService.search(VALID_LAST_NAME, LIMIT));
+            assertEquals(2, searchService.search(ANOTHER_LAST_NAME, LIMIT).authors().size());
+        }
+
+        @Test
+        void shouldChangeBookCountOfFoundAuthorOnce_whenSameStateSavedTwice() {
+
+            AuthorDto author = getAuthorDto();
+            AuthorDto authorWithBook = new AuthorDto(author.id(), author.firstName(), author.lastName(),
+                    author.dateOfBirth(), author.country(), author.bookCount() + 1, author.version() + 1);
+
+            searchIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(authorWithBook)));
+            searchIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(authorWithBook)));
+
+            assertIterableEquals(List.of(authorWithBook), searchService.search(VALID_LAST_NAME, LIMIT).authors());
+        }
+
+        @Test
+        void shouldRemoveAuthorAndItsBooks_whenAuthorDeleted() {
+
+            searchIndex.onAuthorDeleted(new AuthorDeletedEvent(ID_1));
+
+            assertThrows(ErrorResponseException.class, () -> searchService.search(VALID_FIRST_NAME + " novell", LIMIT));
+        }
+
+        @Test
+        void shouldKeepBooksOfOtherAuthors_whenAuthorDeleted() {
+
+            BookDto bookDto = new BookDto(3L, "Foundation", "Space Opera", 1951, 255, "9780553293357", ID_2, VERSION_0);
+            searchIndex.onBooksSaved(new BooksSavedEvent(List.of(bookDto)));
+
+            searchIndex.onAuthorDeleted(new AuthorDeletedEvent(ID_1));
+
+            assertIterableEquals(List.of(bookDto), searchService.search("foundation", LIMIT).books());
+            assertIterableEquals(List.of(anotherAuthorDto), searchService.search(ANOTHER_LAST_NAME, LIMIT).authors());
+        }
+
+        @Test
+        void shouldAddAndRemoveBooks_whenBooksSavedAndDeleted() {
+
+            BookDto bookDto = new BookDto(3L, "Foundation", "Space Opera", 1951, 255, "9780553293357", ID_2, VERSION_0);
+
+            searchIndex.onBooksSaved(new BooksSavedEvent(List.of(bookDto)));
+
+            assertIterableEquals(List.of(bookDto), searchService.search("foundation", LIMIT).books());
+
+            searchIndex.onBookDeleted(new BookDeletedEvent(ID_2, bookDto.id()));
+
+            assertThrows(ErrorResponseException.class, () -> searchService.search("foundation", LIMIT));
+        }
+    }
+}
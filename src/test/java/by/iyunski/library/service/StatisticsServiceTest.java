@@ -0,0 +1,197 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.AuthorStatisticsDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.StatisticsDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.events.BookDeletedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
+import by.iyunski.library.service.impl.StatisticsServiceImpl;
+import by.iyunski.library.service.index.IndexRebuilder;
+import by.iyunski.library.service.statistics.LibraryStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_FIRST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.VALID_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.VALID_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.VALID_FIRST_NAME;
+import static by.iyunski.library.util.AuthorTestData.VALID_GENRE;
+import static by.iyunski.library.util.AuthorTestData.VALID_ISBN;
+import static by.iyunski.library.util.AuthorTestData.VALID_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.NO_BOOKS;
+import static by.iyunski.library.util.AuthorTestData.VERSION_0;
+import static by.iyunski.library.util.AuthorTestData.VERSION_1;
+import static by.iyunski.library.util.AuthorTestData.getAuthorDto;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class StatisticsServiceTest {
+
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private BookService bookService;
+
+    private LibraryStatistics libraryStatistics;
+    private StatisticsServiceImpl statisticsService;
+
+    private final AuthorDto anotherAuthorDto =
+            new AuthorDto(ID_2, ANOTHER_FIRST_NAME, ANOTHER_LAST_NAME, ANOTHER_DATE_OF_BIRTH, ANOTHER_COUNTRY, NO_BOOKS, VERSION_0);
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<AuthorDto> consumer = invocation.getArgument(0);
+            List.of(getAuthorDto(), anotherAuthorDto).forEach(consumer);
+            return null;
+        }).when(authorService).exportAuthors(any());
+        doAnswer(invocation -> {
+            Consumer<BookDto> consumer = invocation.getArgument(0);
+            getBookDtoList().forEach(consumer);
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        libraryStatistics = new LibraryStatistics();
+        new IndexRebuilder(authorService, bookService, List.of(libraryStatistics), new LibraryProperties()).rebuild();
+        statisticsService = new StatisticsServiceImpl(libraryStatistics);
+    }
+
+    @Nested
+    class GetStatistics {
+        @Test
+        void shouldCountBooksOfLibrary_whenInvoke_getStatistics() {
+
+            StatisticsDto statisticsDto = statisticsService.getStatistics();
+
+            assertEquals(Map.of(VALID_GENRE, 2L), statisticsDto.booksByGenre());
+            assertEquals(Map.of(1998, 1L, 2020, 1L), statisticsDto.booksByYearOfPublication());
+            assertEquals(Map.of(VALID_COUNTRY, 2L), statisticsDto.booksByCountry());
+            assertEquals(new AuthorStatisticsDto(ID_1, 2, 300), statisticsService.getAuthorStatistics(ID_1));
+        }
+
+        @Test
+        void shouldTrowExceptionIfThereIsNoBooks_whenInvoke_getStatistics() {
+
+            libraryStatistics.onAuthorDeleted(new AuthorDeletedEvent(ID_1));
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> statisticsService.getStatistics());
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class GetAuthorStatistics {
+        @Test
+        void shouldReturnZeroCountsOfAuthorWithoutBooks_whenInvoke_getAuthorStatistics() {
+
+            assertEquals(new AuthorStatisticsDto(ID_2, 0, 0), statisticsService.getAuthorStatistics(ID_2));
+        }
+
+        @Test
+        void shouldTrowExceptionIfThereIsNoSuchAuthor_whenInvoke_getAuthorStatistics() {
+
+            libraryStatistics.onAuthorDeleted(new AuthorDeletedEvent(ID_1));
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> statisticsService.getAuthorStatistics(ID_1));
+
+            assertEquals(HttpStatus.NOT_FOUND, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class UpdateStatistics {
+        @Test
+        void shouldCountNewBookOfAnotherAuthor_whenBooksSaved() {
+
+            BookDto bookDto = new BookDto(3L, VALID_TITLE, "Space Opera", 1998, 50, VALID_ISBN, ID_2, VERSION_0);
+
+            libraryStatistics.onBooksSaved(new BooksSavedEvent(List.of(bookDto)));
+
+            StatisticsDto statisticsDto = statisticsService.getStatistics();
+            assertEquals(Map.of(VALID_GENRE, 2L, "Space Opera", 1L), statisticsDto.booksByGenre());
+            assertEquals(Map.of(1998, 2L, 2020, 1L), statisticsDto.booksByYearOfPublication());
+            assertEquals(Map.of(VALID_COUNTRY, 2L, ANOTHER_COUNTRY, 1L), statisticsDto.booksByCountry());
+            assertEquals(new AuthorStatisticsDto(ID_2, 1, 50), statisticsService.getAuthorStatistics(ID_2));
+        }
+
+        @Test
+        void shouldReplaceCountsOfUpdatedBook_whenBooksSaved() {
+
+            BookDto bookDto = getBookDtoList().get(0);
+            BookDto updatedBookDto = new BookDto(bookDto.id(), bookDto.title(), "Horror", 2020, 150,
+                    bookDto.isbn(), bookDto.authorId(), VERSION_1);
+
+            libraryStatistics.onBooksSaved(new BooksSavedEvent(List.of(updatedBookDto)));
+
+            StatisticsDto statisticsDto = statisticsService.getStatistics();
+            assertEquals(Map.of(VALID_GENRE, 1L, "Horror", 1L), statisticsDto.booksByGenre());
+            assertEquals(Map.of(2020, 2L), statisticsDto.booksByYearOfPublication());
+            assertEquals(new AuthorStatisticsDto(ID_1, 2, 350), statisticsService.getAuthorStatistics(ID_1));
+        }
+
+        @Test
+        void shouldMoveBooksToNewCountryOfAuthor_whenAuthorsSaved() {
+
+            AuthorDto movedAuthorDto = new AuthorDto(ID_1, VALID_FIRST_NAME, VALID_LAST_NAME, VALID_DATE_OF_BIRTH,
+                    ANOTHER_COUNTRY, NO_BOOKS, VERSION_1);
+
+            libraryStatistics.onAuthorsSaved(new AuthorsSavedEvent(List.of(movedAuthorDto)));
+
+            assertEquals(Map.of(ANOTHER_COUNTRY, 2L), statisticsService.getStatistics().booksByCountry());
+        }
+
+        @Test
+        void shouldTakeBackCountsOfDeletedBook_whenBookDeleted() {
+
+            libraryStatistics.onBookDeleted(new BookDeletedEvent(ID_1, ID_1));
+
+            StatisticsDto statisticsDto = statisticsService.getStatistics();
+            assertEquals(Map.of(VALID_GENRE, 1L), statisticsDto.booksByGenre());
+            assertEquals(Map.of(2020, 1L), statisticsDto.booksByYearOfPublication());
+            assertEquals(Map.of(VALID_COUNTRY, 1L), statisticsDto.booksByCountry());
+            assertEquals(new AuthorStatisticsDto(ID_1, 1, 200), statisticsService.getAuthorStatistics(ID_1));
+        }
+
+        @Test
+        void shouldTakeBackOnlyBooksOfDeletedAuthor_whenAuthorDeleted() {
+
+            BookDto bookDto = new BookDto(3L, VALID_TITLE, "Space Opera", 1998, 50, VALID_ISBN, ID_2, VERSION_0);
+            libraryStatistics.onBooksSaved(new BooksSavedEvent(List.of(bookDto)));
+
+            libraryStatistics.onAuthorDeleted(new AuthorDeletedEvent(ID_1));
+
+            StatisticsDto statisticsDto = statisticsService.getStatistics();
+            assertEquals(Map.of("Space Opera", 1L), statisticsDto.booksByGenre());
+            assertEquals(Map.of(1998, 1L), statisticsDto.booksByYearOfPublication());
+            assertEquals(Map.of(ANOTHER_COUNTRY, 1L), statisticsDto.booksByCountry());
+            assertEquals(new AuthorStatisticsDto(ID_2, 1, 50), statisticsService.getAuthorStatistics(ID_2));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package by.iyunski.library.service;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.events.AuthorDeletedEvent;
+import by.iyunski.library.service.events.AuthorsSavedEvent;
+import by.iyunski.library.service.impl.SuggestServiceImpl;
+import by.iyunski.library.service.index.IndexRebuilder;
+import by.iyunski.library.service.search.AuthorSuggestIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.ErrorResponseException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static by.iyunski.library.util.AuthorTestData.VALID_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.VALID_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.NO_BOOKS;
+import static by.iyunski.library.util.AuthorTestData.VERSION_0;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@ExtendWith(MockitoExtension.class)
+class SuggestServiceTest {
+    public static final int LIMIT = 10;
+    public static final LocalDate DATE_OF_BIRTH = VALID_DATE_OF_BIRTH;
+
+    private final AuthorDto orwell = new AuthorDto(1L, "George", "Orwell", DATE_OF_BIRTH, VALID_COUNTRY, NO_BOOKS, VERSION_0);
+    private final AuthorDto asimov = new AuthorDto(2L, "Isaac", "Asimov", DATE_OF_BIRTH, VALID_COUNTRY, NO_BOOKS, VERSION_0);
+    private final AuthorDto ashley = new AuthorDto(3L, "Ashley", "Smith", DATE_OF_BIRTH, VALID_COUNTRY, NO_BOOKS, VERSION_0);
+    private final AuthorDto asimovJanet = new AuthorDto(4L, "Janet", "Asimov", DATE_OF_BIRTH, VALID_COUNTRY, NO_BOOKS, VERSION_0);
+
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private BookService bookService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuthorSuggestIndex authorSuggestIndex;
+    private SuggestServiceImpl suggestService;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            Consumer<AuthorDto> consumer = invocation.getArgument(0);
+            List.of(orwell, asimov, ashley, asimovJanet).forEach(consumer);
+            return null;
+        }).when(authorService).exportAuthors(any());
+
+        authorSuggestIndex = new AuthorSuggestIndex(meterRegistry);
+        new IndexRebuilder(authorService, bookService, List.of(authorSuggestIndex), new LibraryProperties()).rebuild();
+        suggestService = new SuggestServiceImpl(authorSuggestIndex);
+    }
+
+    @Nested
+    class SuggestAuthors {
+        @Test
+        void shouldReturnAuthorsInAlphabeticalOrderOfMatchedNames_whenInvoke_suggestAuthors() {
+
+            List<AuthorDto> authors = suggestService.suggestAuthors("As", LIMIT);
+
+            assertIterableEquals(List.of(ashley, asimov, asimovJanet), authors);
+        }
+
+        @Test
+        void shouldMatchFullNameInEitherOrder_whenInvoke_suggestAuthors() {
+
+            assertIterableEquals(List.of(asimovJanet), suggestService.suggestAuthors("asimov  j", LIMIT));
+            assertIterableEquals(List.of(asimov), suggestService.suggestAuthors("isaac a", LIMIT));
+        }
+
+        @Test
+        void shouldReturnNoMoreThanLimit_whenInvoke_suggestAuthors() {
+
+            assertEquals(2, suggestService.suggestAuthors("a", 2).size());
+        }
+
+        @Test
+        void shouldTrowExceptionIfThereIsNoSuchAuthors_whenInvoke_suggestAuthors() {
+
+            ErrorResponseException errorResponseException =
+                    assertThrows(ErrorResponseException.class, () -> suggestService.suggestAuthors("Orx", LIMIT));
+
+            assertEquals(HttpStatus.NO_CONTENT, errorResponseException.getStatusCode());
+        }
+    }
+
+    @Nested
+    class UpdateIndex {
+        @Test
+        void shouldReplaceNamesOfUpdatedAuthor_whenAuthorsSaved() {
+
+            AuthorDto renamed = new AuthorDto(orwell.id(), "Eric", "Blair", DATE_OF_BIRTH, VALID_COUNTRY, NO_BOOKS, VERSION_0);
+
+            authorSuggestIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(renamed)));
+
+            assertThrows(ErrorResponseException.class, () -> suggestService.suggestAuthors("orw", LIMIT));
+            assertIterableEquals(List.of(renamed), suggestService.suggestAuthors("bla", LIMIT));
+        }
+
+        @Test
+        void shouldChangeBookCountOfSuggestedAuthorOnce_whenSameStateSavedTwice() {
+
+            AuthorDto orwellWithBooks = new AuthorDto(orwell.id(), orwell.firstName(), orwell.lastName(),
+                    orwell.dateOfBirth(), orwell.country(), orwell.bookCount() + 2, orwell.version() + 1);
+
+            authorSuggestIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(orwellWithBooks)));
+            authorSuggestIndex.onAuthorsSaved(new AuthorsSavedEvent(List.of(orwellWithBooks)));
+
+            assertIterableEquals(List.of(orwellWithBooks), suggestService.suggestAuthors("orw", LIMIT));
+        }
+
+        @Test
+        void shouldKeepOtherAuthorsWithSharedPrefix_whenAuthorDeleted() {
+
+            authorSuggestIndex.onAuthorDeleted(new AuthorDeletedEvent(asimov.id()));
+
+            assertIterableEquals(List.of(ashley, asimovJanet), suggestService.suggestAuthors("as", LIMIT));
+            assertIterableEquals(List.of(asimovJanet), suggestService.suggestAuthors("asimov", LIMIT));
+        }
+    }
+
+    @Nested
+    class MemoryFootprint {
+        @Test
+        void shouldReportMemoryPerAuthor() {
+
+            double perAuthor = meterRegistry.get("library.suggest.memory.per.author").gauge().value();
+            double total = meterRegistry.get("library.suggest.memory").gauge().value();
+
+            assertTrue(perAuthor > 0);
+            assertEquals(total / 4, perAuthor, 0.001);
+        }
+
+        @Test
+        void shouldReleaseMemoryOfDeletedAuthors() {
+
+            double before = authorSuggestIndex.estimateBytes();
+
+            List.of(orwell, asimov, ashley, asimovJanet).forEach(author ->
+                    authorSuggestIndex.onAuthorDeleted(new AuthorDeletedEvent(author.id())));
+
+            assertTrue(authorSuggestIndex.estimateBytes() < before);
+            assertEquals(0, authorSuggestIndex.estimateBytesPerAuthor());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package by.iyunski.library.service.facet;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.BookService;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.dtos.FacetFilterDto;
+import by.iyunski.library.service.index.IndexRebuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.LongStream;
+
+import static by.iyunski.library.util.AuthorTestData.NO_BOOKS;
+import static by.iyunski.library.util.AuthorTestData.VALID_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.VALID_ISBN;
+import static by.iyunski.library.util.AuthorTestData.VALID_NUMBER_OF_PAGES;
+import static by.iyunski.library.util.AuthorTestData.VALID_TITLE;
+import static by.iyunski.library.util.AuthorTestData.VERSION_0;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Measures latency of combined facet queries and memory of the facet index for a million books.
+ * A query must stay well below the hundreds of milliseconds taken by the GROUP BY queries counting the same facets.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@ExtendWith(MockitoExtension.class)
+@Tag("benchmark")
+@Slf4j
+class BookFacetIndexBenchmarkTest {
+    public static final int BOOKS = 1_000_000;
+    public static final int AUTHORS = 10_000;
+    public static final List<String> GENRES = List.of("Novel", "Poetry", "Drama", "Science Fiction", "Fantasy",
+            "Horror", "Detective", "Biography", "History", "Satire");
+    public static final List<String> COUNTRIES = List.of("England", "USA", "France", "Germany", "Russia",
+            "Belarus", "Japan", "Italy", "Spain", "Poland");
+    public static final int FIRST_YEAR = 1800;
+    public static final int YEARS = 224;
+    public static final int WARM_UP_QUERIES = 1_000;
+    public static final int MEASURED_QUERIES = 1_000;
+    public static final int PAGE = 21;
+    public static final long MAX_MEDIAN_MICROS = 10_000;
+
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private BookService bookService;
+
+    @Test
+    void shouldAnswerCombinedFacetQueriesInMilliseconds_whenIndexHasMillionBooks() {
+
+        RandomGenerator random = RandomGenerator.getDefault();
+        doAnswer(invocation -> {
+            Consumer<AuthorDto> consumer = invocation.getArgument(0);
+            LongStream.rangeClosed(1, AUTHORS).forEach(id -> consumer.accept(new AuthorDto(id, VALID_TITLE, VALID_TITLE,
+                    VALID_DATE_OF_BIRTH, COUNTRIES.get((int) (id % COUNTRIES.size())), NO_BOOKS, VERSION_0)));
+            return null;
+        }).when(authorService).exportAuthors(any());
+        doAnswer(invocation -> {
+            Consumer<BookDto> consumer = invocation.getArgument(0);
+            LongStream.rangeClosed(1, BOOKS).forEach(id -> consumer.accept(new BookDto(id, VALID_TITLE,
+                    GENRES.get(random.nextInt(GENRES.size())), FIRST_YEAR + random.nextInt(YEARS),
+                    VALID_NUMBER_OF_PAGES, VALID_ISBN, 1 + random.nextLong(AUTHORS), VERSION_0)));
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        BookFacetIndex bookFacetIndex = new BookFacetIndex(new SimpleMeterRegistry());
+        new IndexRebuilder(authorService, bookService, List.of(bookFacetIndex), new LibraryProperties()).rebuild();
+        log.info("Facet index of {} books takes {} MB, {} MB per million books", BOOKS,
+                bookFacetIndex.estimateBytes() / 1_000_000, (long) bookFacetIndex.estimateBytesPerMillionBooks() / 1_000_000);
+
+        query(bookFacetIndex, random, WARM_UP_QUERIES);
+        long[] nanos = query(bookFacetIndex, random, MEASURED_QUERIES);
+        Arrays.sort(nanos);
+        long medianMicros = nanos[nanos.length / 2] / 1_000;
+        log.info("Query of genre, decade and country with counts of all facets: median {} us, p99 {} us",
+                medianMicros, nanos[nanos.length * 99 / 100] / 1_000);
+
+        assertThat(medianMicros).isLessThanOrEqualTo(MAX_MEDIAN_MICROS);
+    }
+
+    private static long[] query(BookFacetIndex bookFacetIndex, RandomGenerator random, int count) {
+        long[] nanos = new long[count];
+        for (int i = 0; i < count; i++) {
+            FacetFilterDto filter = new FacetFilterDto(GENRES.get(random.nextInt(GENRES.size())),
+                    BookFacetIndex.decadeOf(FIRST_YEAR + random.nextInt(YEARS)),
+                    COUNTRIES.get(random.nextInt(COUNTRIES.size())));
+            long start = System.nanoTime();
+            BookFacetIndex.Facets facets = bookFacetIndex.facets(filter, 0, PAGE);
+            nanos[i] = System.nanoTime() - start;
+            assertThat(facets.bookIds()).hasSizeLessThanOrEqualTo(PAGE);
+        }
+        return nanos;
+    }
+}
@@ -0,0 +1,138 @@
+package by.iyunski.library.service.index;
+
+import by.iyunski.library.config.LibraryProperties;
+import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.BookService;
+import by.iyunski.library.service.dtos.AuthorDto;
+import by.iyunski.library.service.dtos.BookDto;
+import by.iyunski.library.service.events.AuthorsImportedEvent;
+import by.iyunski.library.service.events.BooksSavedEvent;
+import by.iyunski.library.service.search.SearchIndex;
+import by.iyunski.library.service.statistics.LibraryStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_COUNTRY;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_DATE_OF_BIRTH;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_FIRST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ANOTHER_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static by.iyunski.library.util.AuthorTestData.NO_BOOKS;
+import static by.iyunski.library.util.AuthorTestData.VALID_LAST_NAME;
+import static by.iyunski.library.util.AuthorTestData.VERSION_0;
+import static by.iyunski.library.util.AuthorTestData.getAuthorDto;
+import static by.iyunski.library.util.AuthorTestData.getBookDtoList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IndexRebuilderTest {
+    public static final int LIMIT = 10;
+
+    @Mock
+    private AuthorService authorService;
+    @Mock
+    private BookService bookService;
+
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final LibraryStatistics libraryStatistics = new LibraryStatistics();
+    private final LibraryProperties libraryProperties = new LibraryProperties();
+    private final BookDto savedDuringRebuild =
+            new BookDto(3L, "Foundation", "Space Opera", 1951, 255, "9780553293357", ID_1, VERSION_0);
+    private IndexRebuilder indexRebuilder;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            Consumer<AuthorDto> consumer = invocation.getArgument(0);
+            consumer.accept(getAuthorDto());
+            return null;
+        }).when(authorService).exportAuthors(any());
+        indexRebuilder = new IndexRebuilder(authorService, bookService, List.of(searchIndex, libraryStatistics),
+                libraryProperties);
+    }
+
+    @Test
+    void shouldExportEveryTableOnceForAllIndexes_whenInvoke_rebuild() {
+
+        doAnswer(invocation -> {
+            Consumer<BookDto> consumer = invocation.getArgument(0);
+            getBookDtoList().forEach(consumer);
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        indexRebuilder.rebuild();
+
+        verify(authorService, times(1)).exportAuthors(any());
+        verify(bookService, times(1)).exportBooks(any());
+        assertIterableEquals(List.of(getAuthorDto()), searchIndex.searchAuthors(List.of(VALID_LAST_NAME.toLowerCase()), LIMIT));
+        assertEquals(2L, libraryStatistics.snapshot().booksByYearOfPublication().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void shouldServeOldIndexAndKeepChangesMadeMeanwhile_whenInvoke_rebuild() {
+
+        doAnswer(invocation -> {
+            assertTrue(searchIndex.searchAuthors(List.of(VALID_LAST_NAME.toLowerCase()), LIMIT).isEmpty());
+            searchIndex.onBooksSaved(new BooksSavedEvent(List.of(savedDuringRebuild)));
+            Consumer<BookDto> consumer = invocation.getArgument(0);
+            getBookDtoList().forEach(consumer);
+            return null;
+        }).when(bookService).exportBooks(any());
+
+        indexRebuilder.rebuild();
+
+        assertIterableEquals(List.of(savedDuringRebuild), searchIndex.searchBooks(List.of("foundation"), LIMIT));
+        assertEquals(getBookDtoList().size(), searchIndex.searchBooks(List.of("novell"), LIMIT).size());
+    }
+
+    @Test
+    void shouldKeepOldIndexAndStopRecordingChanges_whenExportFails() {
+
+        searchIndex.onBooksSaved(new BooksSavedEvent(List.of(savedDuringRebuild)));
+        doThrow(new IllegalStateException()).when(bookService).exportBooks(any());
+
+        assertThrows(IllegalStateException.class, () -> indexRebuilder.rebuild());
+
+        assertIterableEquals(List.of(savedDuringRebuild), searchIndex.searchBooks(List.of("foundation"), LIMIT));
+        assertTrue(searchIndex.searchAuthors(List.of(VALID_LAST_NAME.toLowerCase()), LIMIT).isEmpty());
+    }
+
+    @Test
+    void shouldPutImportedAuthorsIntoAllIndexesInChunks_whenInvoke_onAuthorsImported() {
+
+        AuthorDto author = getAuthorDto();
+        AuthorDto anotherAuthor = new AuthorDto(ID_2, ANOTHER_FIRST_NAME, ANOTHER_LAST_NAME, ANOTHER_DATE_OF_BIRTH,
+                ANOTHER_COUNTRY, NO_BOOKS, VERSION_0);
+        libraryProperties.getBulk().setBatchSize(1);
+        doAnswer(invocation -> {
+            Consumer<AuthorDto> consumer = invocation.getArgument(2);
+            consumer.accept(author);
+            consumer.accept(anotherAuthor);
+            return null;
+        }).when(authorService).exportAuthorsByIdRange(any(), any(), any());
+
+        indexRebuilder.onAuthorsImported(new AuthorsImportedEvent(ID_1, ID_2));
+
+        verify(authorService, times(1)).exportAuthorsByIdRange(eq(ID_1), eq(ID_2), any());
+        assertIterableEquals(List.of(author), searchIndex.searchAuthors(List.of(VALID_LAST_NAME.toLowerCase()), LIMIT));
+        assertIterableEquals(List.of(anotherAuthor),
+                searchIndex.searchAuthors(List.of(ANOTHER_LAST_NAME.toLowerCase()), LIMIT));
+    }
+}
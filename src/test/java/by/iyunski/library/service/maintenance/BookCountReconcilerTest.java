@@ -0,0 +1,65 @@
+package by.iyunski.library.service.maintenance;
+
+import by.iyunski.library.service.AuthorService;
+import by.iyunski.library.service.dtos.CursorPageDto;
+import by.iyunski.library.service.util.CursorCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static by.iyunski.library.util.AuthorTestData.ID_1;
+import static by.iyunski.library.util.AuthorTestData.ID_2;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookCountReconcilerTest {
+    public static final int BATCH_SIZE = 2;
+
+    @Mock
+    private AuthorService authorService;
+
+    private BookCountReconciler bookCountReconciler;
+
+    @BeforeEach
+    void setUp() {
+        bookCountReconciler = new BookCountReconciler(authorService, BATCH_SIZE, Duration.ofHours(1));
+    }
+
+    @Nested
+    class Reconcile {
+        @Test
+        void shouldWalkThroughAllBatchesAndCountRepairedAuthors_whenInvoke_reconcile() {
+
+            String cursor = CursorCodec.encode(ID_2);
+
+            when(authorService.reconcileBookCounts(null, BATCH_SIZE))
+                    .thenReturn(new CursorPageDto<>(List.of(ID_1, ID_2), cursor));
+            when(authorService.reconcileBookCounts(cursor, BATCH_SIZE))
+                    .thenReturn(new CursorPageDto<>(List.of(), null));
+
+            long repaired = bookCountReconciler.reconcile();
+
+            assertEquals(2, repaired);
+            verify(authorService, times(1)).reconcileBookCounts(cursor, BATCH_SIZE);
+        }
+
+        @Test
+        void shouldStopAfterFirstBatch_whenThereAreNoMoreAuthors_reconcile() {
+
+            when(authorService.reconcileBookCounts(null, BATCH_SIZE))
+                    .thenReturn(new CursorPageDto<>(List.of(), null));
+
+            assertEquals(0, bookCountReconciler.reconcile());
+            verify(authorService, times(1)).reconcileBookCounts(null, BATCH_SIZE);
+        }
+    }
+}
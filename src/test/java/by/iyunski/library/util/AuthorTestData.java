@@ -32,19 +32,26 @@ public final class AuthorTestData {
     public static final long ID_1 = 1L;
     public static final long ID_2 = 2L;
     public static final long INVALID_ID = 999L;
+    public static final long VERSION_0 = 0L;
+    public static final long VERSION_1 = 1L;
+    public static final int DELETED_BOOKS = 5;
+    public static final int NO_BOOKS = 0;
+    public static final int PAGE_SIZE = 20;
+    public static final String INVALID_CURSOR = "not-a-cursor";
     public static final String VALID_TITLE = "Best Novell";
     public static final String VALID_GENRE = "Science Fiction";
     public static final Integer VALID_YEAR_OF_PUBLICATION = 1998;
     public static final int VALID_NUMBER_OF_PAGES = 100;
     public static final String INVALID_TITLE = "Invalid titletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitletitle";
     public static final String VALID_ISBN = "9781234567890";
+    public static final String INVALID_ISBN = "1234567890";
     public static final String ANOTHER_FIRST_NAME = "Alex";
     public static final String ANOTHER_LAST_NAME = "Jonson";
     public static final LocalDate ANOTHER_DATE_OF_BIRTH = LocalDate.of(1970, 1, 7);
     public static final String ANOTHER_COUNTRY = "USA";
 
     public static AuthorDto getAuthorDto() {
-        return new AuthorDto(ID_1, VALID_FIRST_NAME, VALID_LAST_NAME, VALID_DATE_OF_BIRTH, VALID_COUNTRY);
+        return new AuthorDto(ID_1, VALID_FIRST_NAME, VALID_LAST_NAME, VALID_DATE_OF_BIRTH, VALID_COUNTRY, NO_BOOKS, VERSION_0);
     }
 
     public static AuthorRequestDto getValidAuthorRequestDto() {
@@ -52,7 +59,7 @@ public final class AuthorTestData {
     }
 
     public static BookDto getBookDto() {
-        return new BookDto(ID_1, VALID_TITLE, VALID_GENRE, VALID_YEAR_OF_PUBLICATION, VALID_NUMBER_OF_PAGES, VALID_ISBN);
+        return new BookDto(ID_1, VALID_TITLE, VALID_GENRE, VALID_YEAR_OF_PUBLICATION, VALID_NUMBER_OF_PAGES, VALID_ISBN, ID_1, VERSION_0);
     }
 
     public static BookRequestDto getValidBookRequestDto() {
@@ -65,7 +72,9 @@ public final class AuthorTestData {
                 bookRequestDto.genre(),
                 bookRequestDto.yearOfPublication(),
                 bookRequestDto.numberOfPages(),
-                bookRequestDto.isbn());
+                bookRequestDto.isbn(),
+                ID_1,
+                VERSION_0);
     }
 
     public static AuthorDto getAuthorDtoByAuthorRequestDto(AuthorRequestDto validAuthorRequestDto) {
@@ -73,20 +82,22 @@ public final class AuthorTestData {
                 validAuthorRequestDto.firstName(),
                 validAuthorRequestDto.lastName(),
                 validAuthorRequestDto.dateOfBirth(),
-                validAuthorRequestDto.country());
+                validAuthorRequestDto.country(),
+                NO_BOOKS,
+                VERSION_0);
     }
 
     public static List<AuthorDto> getAuthorDtoList() {
         List<AuthorDto> authorDtoList = new ArrayList<>();
         authorDtoList.add(getAuthorDto());
-        authorDtoList.add(new AuthorDto(ID_2, ANOTHER_FIRST_NAME, ANOTHER_LAST_NAME, ANOTHER_DATE_OF_BIRTH, ANOTHER_COUNTRY));
+        authorDtoList.add(new AuthorDto(ID_2, ANOTHER_FIRST_NAME, ANOTHER_LAST_NAME, ANOTHER_DATE_OF_BIRTH, ANOTHER_COUNTRY, NO_BOOKS, VERSION_0));
         return authorDtoList;
     }
 
     public static List<BookDto> getBookDtoList() {
         List<BookDto> bookDtoList = new ArrayList<>();
         bookDtoList.add(getBookDto());
-        bookDtoList.add(new BookDto(ID_2, "Best Novell 2", VALID_GENRE, 2020, 200, "9782345678901"));
+        bookDtoList.add(new BookDto(ID_2, "Best Novell 2", VALID_GENRE, 2020, 200, "9782345678901", ID_1, VERSION_0));
         return bookDtoList;
     }
 
@@ -119,7 +130,9 @@ public final class AuthorTestData {
                 author.getFirstName(),
                 author.getLastName(),
                 author.getDateOfBirth(),
-                author.getCountry());
+                author.getCountry(),
+                author.getBookCount(),
+                author.getVersion());
     }
 
     public static Author getAuthorWithRandomFields() {
@@ -222,6 +235,8 @@ public final class AuthorTestData {
                 book.getGenre(),
                 book.getYearOfPublication().getValue(),
                 book.getNumberOfPages(),
-                book.getIsbn());
+                book.getIsbn(),
+                book.getAuthor().getId(),
+                book.getVersion());
     }
 }